@@ -1,13 +1,22 @@
 package com.web.restapidemo;
 
+import com.web.restapidemo.config.StartupTimingReporter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class RestApiDemoApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(RestApiDemoApplication.class, args);
+		SpringApplication app = new SpringApplication(RestApiDemoApplication.class);
+
+		// Record startup steps so the timing report can show where boot time goes
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(4096);
+		app.setApplicationStartup(applicationStartup);
+		app.addListeners(new StartupTimingReporter(applicationStartup));
+
+		app.run(args);
 	}
 
 }
@@ -0,0 +1,422 @@
+package com.web.restapidemo.accesslog;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.util.FileSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Asynchronous JSON-lines appender for AccessLogEvent arguments.
+ * Request threads only enqueue onto a bounded lock-free queue (events are dropped and
+ * counted when it is full). A single writer thread encodes batches straight into a
+ * reusable direct buffer and writes them through a FileChannel; files rotate by size
+ * and by day, and archives are gzipped on a separate thread.
+ * Log events without an AccessLogEvent argument are ignored.
+ */
+public class AccessLogAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    private static final Map<String, AccessLogAppender> INSTANCES = new ConcurrentHashMap<>();
+    private static final DateTimeFormatter SECOND_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss").withZone(ZoneOffset.UTC);
+    private static final int MAX_STRING_CHARS = 1024;
+    private static final int MAX_EVENT_BYTES = 5 * MAX_STRING_CHARS * 6 + 512;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    // Configured from logback-spring.xml
+    private String file = "logs/access.jsonl";
+    private FileSize maxFileSize = FileSize.valueOf("50MB");
+    private int maxHistory = 30;
+    private int queueCapacity = 65_536;
+    private int batchSize = 512;
+    private long flushIntervalMs = 200;
+    private int bufferSize = 256 * 1024;
+
+    private final ConcurrentLinkedQueue<AccessLogEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong rotations = new AtomicLong();
+    private final AtomicLong writeErrors = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+    private ExecutorService compressor;
+
+    // Writer-thread state
+    private Path activeFile;
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private long fileSize;
+    private LocalDate fileDate;
+    private long cachedSecond = Long.MIN_VALUE;
+    private final byte[] cachedSecondBytes = new byte[19];
+    private final byte[] digits = new byte[20];
+
+    @Override
+    public void start() {
+        try {
+            activeFile = Paths.get(file).toAbsolutePath();
+            Files.createDirectories(activeFile.getParent());
+            openChannel();
+        } catch (IOException e) {
+            addError("Cannot open access log file " + file, e);
+            return;
+        }
+        buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, MAX_EVENT_BYTES * 2));
+        compressor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "access-log-compressor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        writer = new Thread(this::writeLoop, "access-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        INSTANCES.put(getName(), this);
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+            compressor.shutdown();
+            compressor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        INSTANCES.remove(getName(), this);
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        Object[] arguments = event.getArgumentArray();
+        if (arguments == null) {
+            return;
+        }
+        for (Object argument : arguments) {
+            if (argument instanceof AccessLogEvent accessLogEvent) {
+                offer(accessLogEvent);
+            }
+        }
+    }
+
+    private void offer(AccessLogEvent event) {
+        int size = depth.incrementAndGet();
+        if (size > queueCapacity) {
+            depth.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        queue.offer(event);
+        enqueued.increment();
+        if (size == batchSize) {
+            // A full batch is waiting; don't make it sit out the flush interval
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void writeLoop() {
+        while (running || !queue.isEmpty()) {
+            int count = 0;
+            AccessLogEvent event;
+            while (count < batchSize && (event = queue.poll()) != null) {
+                depth.decrementAndGet();
+                if (buffer.remaining() < MAX_EVENT_BYTES) {
+                    flushBuffer();
+                }
+                encode(event);
+                count++;
+            }
+            if (count > 0) {
+                flushBuffer();
+                written.addAndGet(count);
+            } else {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            }
+            rotateIfNeeded();
+        }
+        flushBuffer();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            addError("Error closing access log", e);
+        }
+    }
+
+    private void flushBuffer() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                fileSize += channel.write(buffer);
+            }
+        } catch (IOException e) {
+            writeErrors.incrementAndGet();
+            addError("Error writing access log", e);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private void rotateIfNeeded() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (fileSize < maxFileSize.getSize() && today.equals(fileDate)) {
+            return;
+        }
+        if (fileSize == 0) {
+            fileDate = today;
+            return;
+        }
+        try {
+            channel.close();
+            Path archive = nextArchive(fileDate);
+            Files.move(activeFile, archive);
+            compressor.execute(() -> compress(archive));
+            openChannel();
+            rotations.incrementAndGet();
+        } catch (IOException e) {
+            writeErrors.incrementAndGet();
+            addError("Error rotating access log", e);
+            try {
+                if (!channel.isOpen()) {
+                    openChannel();
+                }
+            } catch (IOException reopen) {
+                addError("Cannot reopen access log", reopen);
+            }
+        }
+    }
+
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(activeFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileSize = channel.size();
+        fileDate = LocalDate.now(ZoneOffset.UTC);
+    }
+
+    private Path nextArchive(LocalDate date) {
+        String name = activeFile.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+        for (int i = 0; ; i++) {
+            Path candidate = activeFile.resolveSibling(base + "-" + date + "." + i + extension);
+            if (!Files.exists(candidate) && !Files.exists(Paths.get(candidate + ".gz"))) {
+                return candidate;
+            }
+        }
+    }
+
+    private void compress(Path archive) {
+        Path gzip = Paths.get(archive + ".gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzip), 64 * 1024)) {
+            Files.copy(archive, out);
+        } catch (IOException e) {
+            addError("Error compressing " + archive, e);
+            return;
+        }
+        try {
+            Files.delete(archive);
+            pruneArchives();
+        } catch (IOException e) {
+            addError("Error cleaning up access log archives", e);
+        }
+    }
+
+    private void pruneArchives() throws IOException {
+        long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(maxHistory);
+        String name = activeFile.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String prefix = (dot > 0 ? name.substring(0, dot) : name) + "-";
+        try (DirectoryStream<Path> archives = Files.newDirectoryStream(activeFile.getParent(), prefix + "*.gz")) {
+            for (Path archive : archives) {
+                if (Files.getLastModifiedTime(archive).toMillis() < cutoff) {
+                    Files.deleteIfExists(archive);
+                }
+            }
+        }
+    }
+
+    // JSON encoding straight into the reusable buffer; no intermediate Strings
+
+    private void encode(AccessLogEvent event) {
+        putAscii("{\"ts\":\"");
+        putTimestamp(event.timestampMillis());
+        putAscii("\",\"client\":");
+        putString(event.client());
+        putAscii(",\"method\":");
+        putString(event.method());
+        putAscii(",\"uri\":");
+        putString(event.uri());
+        putAscii(",\"status\":");
+        putLong(event.status());
+        putAscii(",\"ms\":");
+        putLong(event.executionTimeMs());
+        putAscii(",\"ip\":");
+        putString(event.clientIp());
+        putAscii(",\"ua\":");
+        putString(event.userAgent());
+        putAscii("}\n");
+    }
+
+    private void putTimestamp(long millis) {
+        long second = Math.floorDiv(millis, 1000);
+        if (second != cachedSecond) {
+            byte[] formatted = SECOND_FORMAT.format(Instant.ofEpochSecond(second)).getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(formatted, 0, cachedSecondBytes, 0, cachedSecondBytes.length);
+            cachedSecond = second;
+        }
+        buffer.put(cachedSecondBytes);
+        int fraction = (int) Math.floorMod(millis, 1000);
+        buffer.put((byte) '.');
+        buffer.put((byte) ('0' + fraction / 100));
+        buffer.put((byte) ('0' + fraction / 10 % 10));
+        buffer.put((byte) ('0' + fraction % 10));
+        buffer.put((byte) 'Z');
+    }
+
+    private void putAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            buffer.put((byte) value.charAt(i));
+        }
+    }
+
+    private void putLong(long value) {
+        if (value == 0) {
+            buffer.put((byte) '0');
+            return;
+        }
+        if (value < 0) {
+            buffer.put((byte) '-');
+            if (value == Long.MIN_VALUE) {
+                putAscii("9223372036854775808");
+                return;
+            }
+            value = -value;
+        }
+        int position = digits.length;
+        while (value > 0) {
+            digits[--position] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        buffer.put(digits, position, digits.length - position);
+    }
+
+    private void putString(String value) {
+        if (value == null) {
+            putAscii("null");
+            return;
+        }
+        buffer.put((byte) '"');
+        int length = Math.min(value.length(), MAX_STRING_CHARS);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                buffer.put((byte) '\\').put((byte) c);
+            } else if (c < 0x20) {
+                switch (c) {
+                    case '\n' -> buffer.put((byte) '\\').put((byte) 'n');
+                    case '\r' -> buffer.put((byte) '\\').put((byte) 'r');
+                    case '\t' -> buffer.put((byte) '\\').put((byte) 't');
+                    default -> buffer.put((byte) '\\').put((byte) 'u').put((byte) '0').put((byte) '0')
+                            .put(HEX[c >> 4]).put(HEX[c & 0xF]);
+                }
+            } else if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6))).put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)))
+                        .put((byte) (0x80 | ((codePoint >> 12) & 0x3F)))
+                        .put((byte) (0x80 | ((codePoint >> 6) & 0x3F)))
+                        .put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)))
+                        .put((byte) (0x80 | ((c >> 6) & 0x3F)))
+                        .put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        buffer.put((byte) '"');
+    }
+
+    /**
+     * Counters for every running access log appender, keyed by appender name
+     */
+    public static Map<String, Map<String, Long>> stats() {
+        Map<String, Map<String, Long>> stats = new LinkedHashMap<>();
+        INSTANCES.forEach((name, appender) -> {
+            Map<String, Long> counters = new LinkedHashMap<>();
+            counters.put("enqueued", appender.enqueued.sum());
+            counters.put("written", appender.written.get());
+            counters.put("dropped", appender.dropped.sum());
+            counters.put("queueDepth", (long) appender.depth.get());
+            counters.put("rotations", appender.rotations.get());
+            counters.put("writeErrors", appender.writeErrors.get());
+            stats.put(name, counters);
+        });
+        return stats;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public void setMaxFileSize(FileSize maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    public void setMaxHistory(int maxHistory) {
+        this.maxHistory = maxHistory;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setFlushIntervalMs(long flushIntervalMs) {
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+}
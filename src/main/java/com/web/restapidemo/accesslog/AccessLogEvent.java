@@ -0,0 +1,23 @@
+package com.web.restapidemo.accesslog;
+
+/**
+ * Pre-structured access log record, handed to AccessLogAppender as the log argument
+ * so no message formatting happens on the request thread.
+ */
+public record AccessLogEvent(
+        long timestampMillis,
+        String client,
+        String method,
+        String uri,
+        int status,
+        long executionTimeMs,
+        String clientIp,
+        String userAgent) {
+
+    @Override
+    public String toString() {
+        // Only used by pattern-based appenders (e.g. console)
+        return "API Request - Client: " + client + ", Method: " + method + ", URI: " + uri
+                + ", Status: " + status + ", Execution Time: " + executionTimeMs + "ms";
+    }
+}
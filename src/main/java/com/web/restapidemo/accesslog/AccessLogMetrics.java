@@ -0,0 +1,43 @@
+package com.web.restapidemo.accesslog;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Publishes AccessLogAppender counters (summed over all running appenders) to Micrometer.
+ * Appenders are created by Logback, not Spring, so values are read at scrape time.
+ */
+@Component
+public class AccessLogMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "enqueued", "Access log events accepted onto the queue");
+        counter(registry, "written", "Access log events written to file");
+        counter(registry, "dropped", "Access log events dropped because the queue was full");
+        counter(registry, "writeErrors", "Access log write or rotation failures");
+        Gauge.builder("access.log.queue.depth", () -> sum("queueDepth"))
+                .description("Access log events waiting for the writer thread")
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String key, String description) {
+        FunctionCounter.builder("access.log.events", this, metrics -> sum(key))
+                .tag("outcome", key)
+                .description(description)
+                .register(registry);
+    }
+
+    private static double sum(String key) {
+        double total = 0;
+        for (Map<String, Long> counters : AccessLogAppender.stats().values()) {
+            total += counters.getOrDefault(key, 0L);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,182 @@
+package com.web.restapidemo.analytics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable prefix index for typeahead. Every word-start suffix of an entry's text is
+ * inserted into a character trie, so "dino" finds "ACADEMY DINOSAUR". The trie is then
+ * flattened into parallel arrays (children contiguous in BFS order) and each node keeps
+ * its precomputed top-K entry ids, so a lookup is one walk down the prefix plus a copy.
+ * Entries rank shortest text first, then alphabetically.
+ */
+public final class PrefixIndex {
+
+    public record Suggestion(int id, String text) {
+    }
+
+    private final Suggestion[] entries;
+    private final char[] labels;
+    private final int[] childStart;
+    private final int[] topStart;
+    private final int[] top;
+
+    private PrefixIndex(Suggestion[] entries, char[] labels, int[] childStart, int[] topStart, int[] top) {
+        this.entries = entries;
+        this.labels = labels;
+        this.childStart = childStart;
+        this.topStart = topStart;
+        this.top = top;
+    }
+
+    public static PrefixIndex build(List<Suggestion> suggestions, int topK) {
+        Suggestion[] entries = suggestions.stream()
+                .filter(s -> s.text() != null && !normalize(s.text()).isEmpty())
+                .sorted(Comparator.comparingInt((Suggestion s) -> s.text().length())
+                        .thenComparing(Suggestion::text)
+                        .thenComparingInt(Suggestion::id))
+                .toArray(Suggestion[]::new);
+
+        // Entry ids are ranks, so "best K" is simply "smallest K distinct ids"
+        Node root = new Node();
+        for (int id = 0; id < entries.length; id++) {
+            String key = normalize(entries[id].text());
+            for (int start = 0; start < key.length(); start++) {
+                if (start == 0 || key.charAt(start - 1) == ' ') {
+                    root.insert(key, start, id, topK);
+                }
+            }
+        }
+
+        // Flatten breadth-first so each node's children occupy a contiguous, sorted range
+        List<Node> order = new ArrayList<>();
+        ArrayDeque<Node> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            order.add(node);
+            queue.addAll(node.children.values());
+        }
+        int count = order.size();
+        char[] labels = new char[count];
+        int[] childStart = new int[count + 1];
+        int[] topStart = new int[count + 1];
+        int topLength = 0;
+        for (Node node : order) {
+            topLength += node.top.length;
+        }
+        int[] top = new int[topLength];
+
+        int nextChild = 1;
+        int nextTop = 0;
+        for (int i = 0; i < count; i++) {
+            Node node = order.get(i);
+            childStart[i] = nextChild;
+            for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+                labels[nextChild++] = child.getKey();
+            }
+            topStart[i] = nextTop;
+            System.arraycopy(node.top, 0, top, nextTop, node.top.length);
+            nextTop += node.top.length;
+        }
+        childStart[count] = nextChild;
+        topStart[count] = nextTop;
+        return new PrefixIndex(entries, labels, childStart, topStart, top);
+    }
+
+    public List<Suggestion> lookup(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        int node = 0;
+        for (int i = 0; i < key.length(); i++) {
+            int from = childStart[node];
+            int to = childStart[node + 1];
+            int found = Arrays.binarySearch(labels, from, to, key.charAt(i));
+            if (found < 0) {
+                return List.of();
+            }
+            node = found;
+        }
+        int end = Math.min(topStart[node + 1], topStart[node] + limit);
+        List<Suggestion> result = new ArrayList<>(end - topStart[node]);
+        for (int i = topStart[node]; i < end; i++) {
+            result.add(entries[top[i]]);
+        }
+        return result;
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    public int nodeCount() {
+        return labels.length;
+    }
+
+    /**
+     * Approximate heap footprint: arrays plus entry records and their strings
+     */
+    public long estimatedBytes() {
+        long bytes = 16L + labels.length * 2L + 16 + childStart.length * 4L + 16
+                + topStart.length * 4L + 16 + top.length * 4L + 16 + entries.length * 4L + 16;
+        for (Suggestion entry : entries) {
+            // record header + fields, String header + value array
+            bytes += 24 + 24 + 16 + entry.text().length();
+        }
+        return bytes;
+    }
+
+    /**
+     * Lower-case letters and digits, everything else collapsed to single spaces
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                sb.append(Character.toLowerCase(c));
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    // Build-time only; discarded once flattened
+    private static final class Node {
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+        private int[] top = new int[0];
+
+        void insert(String key, int start, int id, int topK) {
+            Node node = this;
+            for (int i = start; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+                node.offer(id, topK);
+            }
+        }
+
+        // Ids arrive in rank order, so the first K distinct ids seen are the node's top K
+        private void offer(int id, int topK) {
+            int count = top.length;
+            if (count < topK && (count == 0 || top[count - 1] != id)) {
+                top = Arrays.copyOf(top, count + 1);
+                top[count] = id;
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.web.restapidemo.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Space-Saving top-K sketch (Metwally et al.) with a fixed number of counters.
+ * Every item with true frequency above total/capacity is guaranteed to be tracked;
+ * a reported count over-estimates the true one by at most its error.
+ * Counters are also indexed by count, so finding the smallest one to evict is O(log n)
+ * rather than a scan on every add. Not thread-safe; callers synchronize.
+ */
+public class SpaceSavingSketch {
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final TreeMap<Long, Set<String>> byCount = new TreeMap<>();
+    private long total;
+
+    public record Estimate(String key, long count, long maxError) {
+    }
+
+    private static final class Counter {
+        private long count;
+        private long error;
+
+        Counter(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    public SpaceSavingSketch(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void add(String key) {
+        add(key, 1, 0);
+    }
+
+    private void add(String key, long count, long error) {
+        total += count;
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            unindex(key, counter.count);
+            counter.count += count;
+            counter.error += error;
+            index(key, counter.count);
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new Counter(count, error));
+            index(key, count);
+            return;
+        }
+        // Replace the smallest counter; the newcomer inherits its count as error
+        String minKey = byCount.firstEntry().getValue().iterator().next();
+        Counter min = counters.remove(minKey);
+        unindex(minKey, min.count);
+        counters.put(key, new Counter(min.count + count, min.count + error));
+        index(key, min.count + count);
+    }
+
+    private void index(String key, long count) {
+        byCount.computeIfAbsent(count, c -> new LinkedHashSet<>()).add(key);
+    }
+
+    private void unindex(String key, long count) {
+        Set<String> keys = byCount.get(count);
+        keys.remove(key);
+        if (keys.isEmpty()) {
+            byCount.remove(count);
+        }
+    }
+
+    /**
+     * Fold another sketch's counters into this one (used to combine window buckets)
+     */
+    public void merge(SpaceSavingSketch other) {
+        other.counters.forEach((key, counter) -> add(key, counter.count, counter.error));
+    }
+
+    public List<Estimate> top(int limit) {
+        List<Estimate> estimates = new ArrayList<>(Math.max(0, Math.min(limit, counters.size())));
+        for (Set<String> keys : byCount.descendingMap().values()) {
+            for (String key : keys) {
+                if (estimates.size() >= limit) {
+                    return estimates;
+                }
+                Counter counter = counters.get(key);
+                estimates.add(new Estimate(key, counter.count, counter.error));
+            }
+        }
+        return estimates;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void clear() {
+        counters.clear();
+        byCount.clear();
+        total = 0;
+    }
+}
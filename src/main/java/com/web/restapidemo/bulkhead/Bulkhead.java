@@ -0,0 +1,200 @@
+package com.web.restapidemo.bulkhead;
+
+import com.web.restapidemo.datasource.QueryDeadline;
+import com.web.restapidemo.datasource.ReadWriteRoutingDataSource;
+import com.web.restapidemo.metrics.RequestTimings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fixed-size worker pool with a bounded queue for one group of endpoints. The thread count
+ * is also the group's share of database connections, since each worker holds at most one
+ * at a time. A full queue rejects immediately, and requests still queued when the group
+ * timeout passes are failed with BulkheadFullException and never run. A read still running
+ * at the timeout fails with BulkheadTimeoutException and its statements are cancelled
+ * through the request's QueryDeadline; a write is left to finish, since it may commit.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int threads;
+    private final int queueCapacity;
+    private final long timeoutMs;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+    private final Counter timedOut;
+    private final Timer queueWait;
+
+    Bulkhead(String name, int threads, int queueCapacity, long timeoutMs, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread thread = new Thread(r, "bulkhead-" + name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        this.rejected = Counter.builder("bulkhead.rejected").tag("group", name)
+                .description("Requests rejected because the queue was full")
+                .register(meterRegistry);
+        this.timedOut = Counter.builder("bulkhead.timeouts").tag("group", name)
+                .description("Requests that did not finish within the group timeout")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("bulkhead.queue.wait").tag("group", name)
+                .description("Time spent queued before a worker picked the request up")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.active", executor, ThreadPoolExecutor::getActiveCount).tag("group", name)
+                .description("Workers currently running a request")
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.queued", executor, e -> e.getQueue().size()).tag("group", name)
+                .description("Requests waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.saturation", this, Bulkhead::saturation).tag("group", name)
+                .description("(active + queued) / (threads + queue capacity)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Request state a task carries onto a worker: timings, query deadline and read-your-writes pinning
+     */
+    public record Context(RequestTimings timings, QueryDeadline deadline, boolean primaryForced) {
+
+        public static Context capture() {
+            return new Context(RequestTimings.current(), QueryDeadline.current(),
+                    ReadWriteRoutingDataSource.isPrimaryForced());
+        }
+
+        /**
+         * Same request, but the task records into its own timings; for work running in parallel
+         * with other parts of the request, since RequestTimings is not thread-safe
+         */
+        public Context withTimings(RequestTimings timings) {
+            return new Context(timings, deadline, primaryForced);
+        }
+    }
+
+    private enum Kind {
+        READ, WRITE, PART
+    }
+
+    /**
+     * Run a read on this group's workers. The request's timings, query deadline and
+     * read-your-writes pinning follow it onto the worker. Throws BulkheadFullException right away if the queue is full.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return submit(task, Context.capture(), Kind.READ);
+    }
+
+    /**
+     * Run a non-idempotent write. It can still time out while queued, but once running it
+     * is never failed or cancelled by the group timeout, so a retried request cannot apply it twice.
+     */
+    public <T> CompletableFuture<T> submitWrite(Supplier<T> task) {
+        return submit(task, Context.capture(), Kind.WRITE);
+    }
+
+    /**
+     * Run one of several parallel parts of a request (batch items). A part that times out is
+     * failed but its statements are not cancelled, since the deadline is shared with the other
+     * parts; the caller cancels it once the whole request gives up.
+     */
+    public <T> CompletableFuture<T> submitPart(Supplier<T> task, Context context) {
+        return submit(task, context, Kind.PART);
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task, Context context, Kind kind) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        // Claimed by whichever comes first: a worker starting the task or the timeout while still queued
+        AtomicBoolean claimed = new AtomicBoolean();
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                // Already failed by the timeout while queued; don't spend a worker on it
+                if (!claimed.compareAndSet(false, true)) {
+                    return;
+                }
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                RequestTimings.bind(context.timings());
+                QueryDeadline.bind(context.deadline());
+                if (context.primaryForced()) {
+                    ReadWriteRoutingDataSource.forcePrimary();
+                }
+                try {
+                    result.complete(task.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    RequestTimings.clear();
+                    QueryDeadline.clear();
+                    ReadWriteRoutingDataSource.clearForcePrimary();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new BulkheadFullException(name, "Too many concurrent " + name + " requests");
+        }
+        CompletableFuture.delayedExecutor(timeoutMs, TimeUnit.MILLISECONDS).execute(() -> {
+            if (claimed.compareAndSet(false, true)) {
+                // Never ran, so it is safe for the client to retry
+                if (result.completeExceptionally(new BulkheadFullException(name, name + " request timed out in the queue"))) {
+                    timedOut.increment();
+                }
+            } else if (kind != Kind.WRITE && !result.isDone()) {
+                // Cancel first, so the statements are gone by the time the 504 is sent
+                if (kind == Kind.READ && context.deadline() != null) {
+                    context.deadline().cancel(name + " request timed out");
+                }
+                if (result.completeExceptionally(new BulkheadTimeoutException(name, name + " request timed out"))) {
+                    timedOut.increment();
+                }
+            }
+        });
+        return result;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private double saturation() {
+        return (double) (executor.getActiveCount() + executor.getQueue().size()) / (threads + queueCapacity);
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", threads);
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("timeoutMs", timeoutMs);
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("saturation", saturation());
+        stats.put("completed", executor.getCompletedTaskCount());
+        stats.put("rejected", (long) rejected.count());
+        stats.put("timedOut", (long) timedOut.count());
+        stats.put("queueWaitMeanMs", queueWait.mean(TimeUnit.MILLISECONDS));
+        stats.put("queueWaitMaxMs", queueWait.max(TimeUnit.MILLISECONDS));
+        return stats;
+    }
+}
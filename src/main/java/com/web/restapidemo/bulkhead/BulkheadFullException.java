@@ -0,0 +1,20 @@
+package com.web.restapidemo.bulkhead;
+
+/**
+ * A bulkhead rejected the request (queue full) or the request waited in the queue longer
+ * than the group's timeout; it never ran, so it is answered with 503 and Retry-After and
+ * clients back off instead of piling up
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    private final String group;
+
+    public BulkheadFullException(String group, String message) {
+        super(message);
+        this.group = group;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+}
@@ -0,0 +1,20 @@
+package com.web.restapidemo.bulkhead;
+
+/**
+ * A request was already running on a bulkhead worker when the group's timeout passed; its
+ * statements were cancelled. Answered with 504 and no Retry-After, since it did real work
+ * and retrying right away would only repeat it.
+ */
+public class BulkheadTimeoutException extends RuntimeException {
+
+    private final String group;
+
+    public BulkheadTimeoutException(String group, String message) {
+        super(message);
+        this.group = group;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+}
@@ -0,0 +1,104 @@
+package com.web.restapidemo.bulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One bulkhead per endpoint class, so expensive log queries or admin work cannot take the
+ * Tomcat threads and connections that catalog reads need. Controllers hand their work to
+ * the group's pool and return the CompletableFuture (async request processing), freeing
+ * the Tomcat thread while the request waits or runs.
+ * Connection budget of the primary pool: catalog + logs + admin threads (6 + 2 + 1 by default),
+ * plus one for the single scheduler thread, plus Tomcat-thread work outside the bulkheads
+ * (API-key lookups on a cache miss). With the default pool of 12 that leaves 2 for the latter.
+ * Batch sub-requests run on the catalog group, at most app.batch.parallelism per batch at a time;
+ * request logs and usage go to the telemetry pool.
+ */
+@Component
+public class Bulkheads {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.bulkhead.catalog.threads:6}")
+    private int catalogThreads;
+
+    @Value("${app.bulkhead.catalog.queue:200}")
+    private int catalogQueue;
+
+    @Value("${app.bulkhead.catalog.timeout-ms:5000}")
+    private long catalogTimeoutMs;
+
+    @Value("${app.bulkhead.logs.threads:2}")
+    private int logsThreads;
+
+    @Value("${app.bulkhead.logs.queue:10}")
+    private int logsQueue;
+
+    @Value("${app.bulkhead.logs.timeout-ms:20000}")
+    private long logsTimeoutMs;
+
+    @Value("${app.bulkhead.admin.threads:1}")
+    private int adminThreads;
+
+    @Value("${app.bulkhead.admin.queue:20}")
+    private int adminQueue;
+
+    @Value("${app.bulkhead.admin.timeout-ms:10000}")
+    private long adminTimeoutMs;
+
+    private Bulkhead catalog;
+    private Bulkhead logs;
+    private Bulkhead admin;
+
+    @PostConstruct
+    void init() {
+        catalog = new Bulkhead("catalog", catalogThreads, catalogQueue, catalogTimeoutMs, meterRegistry);
+        logs = new Bulkhead("logs", logsThreads, logsQueue, logsTimeoutMs, meterRegistry);
+        admin = new Bulkhead("admin", adminThreads, adminQueue, adminTimeoutMs, meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        all().forEach(Bulkhead::shutdown);
+    }
+
+    /**
+     * FilmController, ActorController and batch sub-requests
+     */
+    public Bulkhead catalog() {
+        return catalog;
+    }
+
+    /**
+     * LogController endpoints that query api_log
+     */
+    public Bulkhead logs() {
+        return logs;
+    }
+
+    /**
+     * AdminController
+     */
+    public Bulkhead admin() {
+        return admin;
+    }
+
+    private List<Bulkhead> all() {
+        return List.of(catalog, logs, admin);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        all().forEach(bulkhead -> stats.put(bulkhead.getName(), bulkhead.getStats()));
+        return stats;
+    }
+}
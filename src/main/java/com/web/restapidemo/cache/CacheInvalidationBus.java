@@ -0,0 +1,257 @@
+package com.web.restapidemo.cache;
+
+import com.web.restapidemo.entity.CacheChangeEvent;
+import com.web.restapidemo.repository.CacheChangeEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Cross-node invalidation for LocalCache instances through the shared cache_change_log table.
+ * Writers append (cache, key) rows in their own transaction; every node polls for rows
+ * above its cursor in id order and evicts only those keys.
+ * Auto-increment ids can become visible out of order when transactions commit late, so
+ * the cursor only advances over contiguous ids; a gap is waited on for gap-timeout-ms.
+ * Each poll reads everything above the cursor, so events behind an open gap are still
+ * evicted within one poll.
+ * Stale reads are bounded: caches are bypassed once the last successful poll is older
+ * than max-staleness-ms.
+ */
+@Component
+@Slf4j
+public class CacheInvalidationBus {
+
+    @Autowired
+    private CacheChangeEventRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.cache.invalidation.node-id:}")
+    private String nodeId;
+
+    @Value("${app.cache.invalidation.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.cache.invalidation.max-staleness-ms:5000}")
+    private long maxStalenessMs;
+
+    @Value("${app.cache.invalidation.gap-timeout-ms:10000}")
+    private long gapTimeoutMs;
+
+    @Value("${app.cache.invalidation.retention-hours:24}")
+    private long retentionHours;
+
+    private final Map<String, LocalCache<?>> caches = new ConcurrentHashMap<>();
+    private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+
+    // Poller state; only touched by the (single) polling thread
+    private volatile long cursor = -1;
+    private final TreeSet<Long> appliedAboveCursor = new TreeSet<>();
+    private long gapSince;
+    private volatile long lastPollSuccess;
+    private volatile long gapsSkipped;
+
+    private TransactionTemplate primaryTx;
+    private Timer lagTimer;
+    private Counter appliedEvents;
+
+    @PostConstruct
+    void init() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+        // Read-write so the routing data source keeps polls on the primary; a replica would add its lag
+        primaryTx = new TransactionTemplate(transactionManager);
+        lagTimer = Timer.builder("cache.invalidation.lag")
+                .description("Time from a change being logged to its eviction on this node")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        appliedEvents = Counter.builder("cache.invalidation.applied")
+                .description("Remote change events applied to local caches")
+                .register(meterRegistry);
+        Gauge.builder("cache.invalidation.since.last.poll", this, bus -> bus.millisSinceLastPoll())
+                .description("Milliseconds since the change log was last read successfully")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Create (or return) the named cache on this node
+     */
+    @SuppressWarnings("unchecked")
+    public <V> LocalCache<V> register(String name, int maxEntries, long ttlMs) {
+        return (LocalCache<V>) caches.computeIfAbsent(name, n -> new LocalCache<V>(n, maxEntries, ttlMs, this::isFresh));
+    }
+
+    /**
+     * Call listener with the key whenever (name, key) is published on any node, for
+     * in-memory state that is not a LocalCache. Runs when a local cache would be evicted.
+     */
+    public void subscribe(String name, Consumer<String> listener) {
+        listeners.computeIfAbsent(name, n -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Record a change to (cache, key). Joins the caller's transaction, so the event commits
+     * or rolls back with the write; the local copy is evicted immediately and again after commit.
+     */
+    public void publish(String cacheName, String key) {
+        repository.save(CacheChangeEvent.builder()
+                .cacheName(cacheName)
+                .entryKey(key)
+                .originNode(nodeId)
+                .createdAt(LocalDateTime.now())
+                .build());
+        evictLocal(cacheName, key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // A concurrent reader may have re-cached the old row before we committed
+                    evictLocal(cacheName, key);
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.poll-interval-ms:250}")
+    public void poll() {
+        try {
+            if (cursor < 0) {
+                // Caches start empty, so history before startup is irrelevant
+                cursor = primaryTx.execute(status -> repository.findMaxId());
+                lastPollSuccess = System.currentTimeMillis();
+                return;
+            }
+            // Start at the cursor so late commits inside a gap are seen, then page by the highest id
+            // fetched: events behind an open gap are applied in this poll, not one batch per tick
+            long from = cursor;
+            List<CacheChangeEvent> events;
+            do {
+                long after = from;
+                events = primaryTx.execute(status ->
+                        repository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, batchSize)));
+                apply(events);
+                if (!events.isEmpty()) {
+                    from = events.get(events.size() - 1).getId();
+                }
+            } while (events.size() == batchSize);
+            lastPollSuccess = System.currentTimeMillis();
+        } catch (Exception e) {
+            log.warn("Error polling cache change log: {}", e.getMessage());
+        }
+    }
+
+    private void apply(List<CacheChangeEvent> events) {
+        long now = System.currentTimeMillis();
+        for (CacheChangeEvent event : events) {
+            if (!appliedAboveCursor.add(event.getId())) {
+                continue;
+            }
+            if (!nodeId.equals(event.getOriginNode())) {
+                evictLocal(event.getCacheName(), event.getEntryKey());
+                appliedEvents.increment();
+                long createdAt = event.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                lagTimer.record(Math.max(0, now - createdAt), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        long next = cursor;
+        while (appliedAboveCursor.remove(next + 1)) {
+            next++;
+        }
+        cursor = next;
+
+        if (appliedAboveCursor.isEmpty()) {
+            gapSince = 0;
+        } else if (gapSince == 0) {
+            gapSince = now;
+        } else if (now - gapSince > gapTimeoutMs) {
+            // The missing ids were rolled back (or never committed); stop waiting for them
+            cursor = appliedAboveCursor.last();
+            appliedAboveCursor.clear();
+            gapSince = 0;
+            gapsSkipped++;
+        }
+    }
+
+    private void evictLocal(String cacheName, String key) {
+        LocalCache<?> cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+        for (Consumer<String> listener : listeners.getOrDefault(cacheName, List.of())) {
+            try {
+                listener.accept(key);
+            } catch (RuntimeException e) {
+                log.warn("Cache change listener for {} failed: {}", cacheName, e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.cleanup-interval-ms:3600000}")
+    public void cleanup() {
+        try {
+            int deleted = repository.deleteOlderThan(LocalDateTime.now().minusHours(retentionHours));
+            if (deleted > 0) {
+                log.debug("Removed {} cache change log rows", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("Error cleaning cache change log: {}", e.getMessage());
+        }
+    }
+
+    public boolean isFresh() {
+        return cursor >= 0 && millisSinceLastPoll() <= maxStalenessMs;
+    }
+
+    private long millisSinceLastPoll() {
+        return lastPollSuccess == 0 ? Long.MAX_VALUE : System.currentTimeMillis() - lastPollSuccess;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("nodeId", nodeId);
+        stats.put("cursor", cursor);
+        stats.put("fresh", isFresh());
+        stats.put("millisSinceLastPoll", lastPollSuccess == 0 ? null : millisSinceLastPoll());
+        stats.put("maxStalenessMs", maxStalenessMs);
+        stats.put("eventsApplied", (long) appliedEvents.count());
+        stats.put("lagMeanMs", lagTimer.mean(TimeUnit.MILLISECONDS));
+        stats.put("lagMaxMs", lagTimer.max(TimeUnit.MILLISECONDS));
+        stats.put("gapsSkipped", gapsSkipped);
+        Map<String, Object> cacheStats = new LinkedHashMap<>();
+        caches.forEach((name, cache) -> cacheStats.put(name, cache.getStats()));
+        stats.put("caches", cacheStats);
+        return stats;
+    }
+}
@@ -0,0 +1,91 @@
+package com.web.restapidemo.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Per-node read-through cache keyed by string, created via CacheInvalidationBus.register.
+ * Entries are evicted by the bus when any node changes them; the TTL is only a backstop.
+ * While the bus has not polled recently the cache is bypassed, so staleness stays bounded
+ * even when the change log cannot be read.
+ */
+public class LocalCache<V> {
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlMs;
+    private final BooleanSupplier fresh;
+    private final ConcurrentHashMap<String, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    LocalCache(String name, int maxEntries, long ttlMs, BooleanSupplier fresh) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+        this.fresh = fresh;
+    }
+
+    /**
+     * Cached value, or the loader's result (null results are not cached)
+     */
+    public V get(String key, Function<String, V> loader) {
+        if (!fresh.getAsBoolean()) {
+            bypassed.increment();
+            return loader.apply(key);
+        }
+        long now = System.currentTimeMillis();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && now - entry.loadedAt() < ttlMs) {
+            hits.increment();
+            return entry.value();
+        }
+        misses.increment();
+        // An eviction that lands while loading may describe a newer value than we read; don't cache then
+        long before = invalidations.get();
+        V value = loader.apply(key);
+        if (value != null && invalidations.get() == before) {
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+            entries.put(key, new Entry<>(value, now));
+        }
+        return value;
+    }
+
+    public void evict(String key) {
+        invalidations.incrementAndGet();
+        entries.remove(key);
+    }
+
+    public void clear() {
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlMs", ttlMs);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("bypassed", bypassed.sum());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+}
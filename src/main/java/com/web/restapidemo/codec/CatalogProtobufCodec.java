@@ -0,0 +1,275 @@
+package com.web.restapidemo.codec;
+
+import com.web.restapidemo.entity.Actor;
+import com.web.restapidemo.entity.Film;
+import com.web.restapidemo.entity.LogEntry;
+import com.web.restapidemo.readmodel.ActorView;
+import com.web.restapidemo.readmodel.FilmView;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Protobuf encoding of Film, Actor and LogEntry (and lists of them, plus the FilmView and
+ * ActorView read models, which share the Film and Actor messages) following
+ * src/main/resources/proto/catalog.proto. Field numbers are fixed there and must never be
+ * reused. Money is sent as integer cents and timestamps as UTC epoch millis, so clients
+ * never parse decimal text. LocalDateTime values are wall-clock times in the JVM zone (as
+ * Hibernate and LocalDateTime.now() produce them) and are converted through that zone.
+ */
+public final class CatalogProtobufCodec {
+
+    // List wrappers carry the elements as repeated field 1
+    private static final int ITEMS = 1;
+
+    private CatalogProtobufCodec() {
+    }
+
+    public static boolean supports(Type type) {
+        return elementType(type) != null;
+    }
+
+    public static byte[] encode(Object value) {
+        ProtoWriter out = new ProtoWriter(4096);
+        if (value instanceof Collection<?> items) {
+            ProtoWriter item = new ProtoWriter(512);
+            for (Object element : items) {
+                item.reset();
+                writeMessage(item, element);
+                out.message(ITEMS, item);
+            }
+        } else {
+            writeMessage(out, value);
+        }
+        return out.toByteArray();
+    }
+
+    public static Object decode(Type type, byte[] bytes) {
+        Class<?> elementType = elementType(type);
+        if (elementType == null) {
+            throw new IllegalArgumentException("Unsupported protobuf type " + type);
+        }
+        ProtoReader in = new ProtoReader(bytes);
+        if (type instanceof Class<?>) {
+            return readMessage(elementType, in);
+        }
+        List<Object> items = new ArrayList<>();
+        while (in.hasMore()) {
+            int tag = in.tag();
+            if (tag >>> 3 == ITEMS) {
+                items.add(readMessage(elementType, in.message()));
+            } else {
+                in.skip(tag);
+            }
+        }
+        return items;
+    }
+
+    private static Class<?> elementType(Type type) {
+        if (type instanceof Class<?> clazz) {
+            return isMessage(clazz) ? clazz : null;
+        }
+        if (type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() instanceof Class<?> raw
+                && raw.isAssignableFrom(ArrayList.class)
+                && parameterized.getActualTypeArguments()[0] instanceof Class<?> element
+                && isMessage(element)) {
+            return element;
+        }
+        return null;
+    }
+
+    private static boolean isMessage(Class<?> clazz) {
+        return clazz == Film.class || clazz == Actor.class || clazz == LogEntry.class
+                || clazz == FilmView.class || clazz == ActorView.class;
+    }
+
+    private static void writeMessage(ProtoWriter out, Object value) {
+        if (value instanceof Film film) {
+            writeFilm(out, film);
+        } else if (value instanceof FilmView film) {
+            writeFilm(out, film);
+        } else if (value instanceof Actor actor) {
+            writeActor(out, actor);
+        } else if (value instanceof ActorView actor) {
+            writeActor(out, actor);
+        } else if (value instanceof LogEntry entry) {
+            writeLogEntry(out, entry);
+        } else {
+            throw new IllegalArgumentException("Unsupported protobuf value " + value);
+        }
+    }
+
+    private static Object readMessage(Class<?> type, ProtoReader in) {
+        if (type == Film.class) {
+            return readFilm(in);
+        }
+        if (type == Actor.class) {
+            return readActor(in);
+        }
+        // Read models share the entity messages
+        if (type == FilmView.class) {
+            return FilmView.of(readFilm(in));
+        }
+        if (type == ActorView.class) {
+            return ActorView.of(readActor(in));
+        }
+        return readLogEntry(in);
+    }
+
+    private static void writeFilm(ProtoWriter out, Film film) {
+        out.int32(1, film.getFilmId());
+        out.string(2, film.getTitle());
+        out.string(3, film.getDescription());
+        out.int32(4, film.getReleaseYear());
+        out.int32(5, film.getLanguageId());
+        out.int32(6, film.getOriginalLanguageId());
+        out.int32(7, film.getRentalDuration());
+        out.sint64(8, cents(film.getRentalRate()));
+        out.int32(9, film.getLength());
+        out.sint64(10, cents(film.getReplacementCost()));
+        out.string(11, film.getRating());
+        out.string(12, film.getSpecialFeatures());
+        out.int64(13, epochMillis(film.getLastUpdate()));
+    }
+
+    private static void writeFilm(ProtoWriter out, FilmView film) {
+        out.int32(1, film.filmId());
+        out.string(2, film.title());
+        out.string(3, film.description());
+        out.int32(4, film.releaseYear());
+        out.int32(5, film.languageId());
+        out.int32(6, film.originalLanguageId());
+        out.int32(7, film.rentalDuration());
+        out.sint64(8, cents(film.rentalRate()));
+        out.int32(9, film.length());
+        out.sint64(10, cents(film.replacementCost()));
+        out.string(11, film.rating() != null ? film.rating().getLabel() : null);
+        out.string(12, film.specialFeatures() != null ? film.specialFeatures().toString() : null);
+        out.int64(13, epochMillis(film.lastUpdate()));
+    }
+
+    private static Film readFilm(ProtoReader in) {
+        Film film = new Film();
+        // Presence is explicit on the wire; don't let entity defaults fill in absent fields
+        film.setRentalDuration(null);
+        film.setRentalRate(null);
+        film.setReplacementCost(null);
+        film.setRating(null);
+        while (in.hasMore()) {
+            int tag = in.tag();
+            switch (tag >>> 3) {
+                case 1 -> film.setFilmId(in.int32());
+                case 2 -> film.setTitle(in.string());
+                case 3 -> film.setDescription(in.string());
+                case 4 -> film.setReleaseYear(in.int32());
+                case 5 -> film.setLanguageId(in.int32());
+                case 6 -> film.setOriginalLanguageId(in.int32());
+                case 7 -> film.setRentalDuration(in.int32());
+                case 8 -> film.setRentalRate(BigDecimal.valueOf(in.sint64(), 2));
+                case 9 -> film.setLength(in.int32());
+                case 10 -> film.setReplacementCost(BigDecimal.valueOf(in.sint64(), 2));
+                case 11 -> film.setRating(in.string());
+                case 12 -> film.setSpecialFeatures(in.string());
+                case 13 -> film.setLastUpdate(dateTime(in.int64()));
+                default -> in.skip(tag);
+            }
+        }
+        return film;
+    }
+
+    private static void writeActor(ProtoWriter out, Actor actor) {
+        out.int32(1, actor.getId());
+        out.string(2, actor.getFirstName());
+        out.string(3, actor.getLastName());
+        out.int64(4, epochMillis(actor.getLastUpdate()));
+    }
+
+    private static void writeActor(ProtoWriter out, ActorView actor) {
+        out.int32(1, actor.id());
+        out.string(2, actor.firstName());
+        out.string(3, actor.lastName());
+        out.int64(4, epochMillis(actor.lastUpdate()));
+    }
+
+    private static Actor readActor(ProtoReader in) {
+        Actor actor = new Actor();
+        while (in.hasMore()) {
+            int tag = in.tag();
+            switch (tag >>> 3) {
+                case 1 -> actor.setId(in.int32());
+                case 2 -> actor.setFirstName(in.string());
+                case 3 -> actor.setLastName(in.string());
+                case 4 -> actor.setLastUpdate(dateTime(in.int64()));
+                default -> in.skip(tag);
+            }
+        }
+        return actor;
+    }
+
+    private static void writeLogEntry(ProtoWriter out, LogEntry entry) {
+        out.int64(1, entry.getId());
+        out.int64(2, epochMillis(entry.getTimestamp()));
+        out.string(3, entry.getMethod());
+        out.string(4, entry.getUri());
+        out.string(5, entry.getRequestBody());
+        out.int32(6, entry.getResponseStatus());
+        out.string(7, entry.getResponseBody());
+        out.int64(8, entry.getExecutionTimeMs());
+        out.string(9, entry.getClientIp());
+        out.string(10, entry.getUserAgent());
+        out.int64(11, entry.getAuthTimeUs());
+        out.int64(12, entry.getDbWaitTimeUs());
+        out.int64(13, entry.getSqlTimeUs());
+        out.int32(14, entry.getSqlStatementCount());
+        out.int64(15, entry.getSerializationTimeUs());
+        out.string(16, entry.getTimingDetail());
+    }
+
+    private static LogEntry readLogEntry(ProtoReader in) {
+        LogEntry entry = new LogEntry();
+        while (in.hasMore()) {
+            int tag = in.tag();
+            switch (tag >>> 3) {
+                case 1 -> entry.setId(in.int64());
+                case 2 -> entry.setTimestamp(dateTime(in.int64()));
+                case 3 -> entry.setMethod(in.string());
+                case 4 -> entry.setUri(in.string());
+                case 5 -> entry.setRequestBody(in.string());
+                case 6 -> entry.setResponseStatus(in.int32());
+                case 7 -> entry.setResponseBody(in.string());
+                case 8 -> entry.setExecutionTimeMs(in.int64());
+                case 9 -> entry.setClientIp(in.string());
+                case 10 -> entry.setUserAgent(in.string());
+                case 11 -> entry.setAuthTimeUs(in.int64());
+                case 12 -> entry.setDbWaitTimeUs(in.int64());
+                case 13 -> entry.setSqlTimeUs(in.int64());
+                case 14 -> entry.setSqlStatementCount(in.int32());
+                case 15 -> entry.setSerializationTimeUs(in.int64());
+                case 16 -> entry.setTimingDetail(in.string());
+                default -> in.skip(tag);
+            }
+        }
+        return entry;
+    }
+
+    private static Long cents(BigDecimal amount) {
+        return amount == null ? null : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static Long epochMillis(LocalDateTime time) {
+        return time == null ? null : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime dateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
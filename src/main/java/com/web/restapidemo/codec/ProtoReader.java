@@ -0,0 +1,102 @@
+package com.web.restapidemo.codec;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal protobuf wire-format reader over a byte range; nested messages are views
+ * over the same array. Unknown fields are skipped so old readers accept newer payloads.
+ */
+final class ProtoReader {
+
+    private final byte[] buffer;
+    private int position;
+    private final int limit;
+
+    ProtoReader(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    private ProtoReader(byte[] buffer, int offset, int limit) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    boolean hasMore() {
+        return position < limit;
+    }
+
+    /**
+     * Next tag as (field number << 3 | wire type)
+     */
+    int tag() {
+        return (int) varint();
+    }
+
+    long int64() {
+        return varint();
+    }
+
+    int int32() {
+        return (int) varint();
+    }
+
+    long sint64() {
+        long raw = varint();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    String string() {
+        int length = length();
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    ProtoReader message() {
+        int length = length();
+        ProtoReader nested = new ProtoReader(buffer, position, position + length);
+        position += length;
+        return nested;
+    }
+
+    void skip(int tag) {
+        switch (tag & 7) {
+            case ProtoWriter.VARINT -> varint();
+            case 1 -> advance(8);
+            case ProtoWriter.LENGTH_DELIMITED -> advance(length());
+            case 5 -> advance(4);
+            default -> throw new IllegalArgumentException("Unsupported wire type " + (tag & 7));
+        }
+    }
+
+    private void advance(int count) {
+        if (position + count > limit) {
+            throw new IllegalArgumentException("Truncated protobuf payload");
+        }
+        position += count;
+    }
+
+    private int length() {
+        long length = varint();
+        if (length < 0 || position + length > limit) {
+            throw new IllegalArgumentException("Truncated protobuf payload");
+        }
+        return (int) length;
+    }
+
+    private long varint() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position >= limit) {
+                throw new IllegalArgumentException("Truncated protobuf payload");
+            }
+            byte b = buffer[position++];
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
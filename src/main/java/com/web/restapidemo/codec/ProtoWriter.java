@@ -0,0 +1,88 @@
+package com.web.restapidemo.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Minimal protobuf wire-format writer (varint, zigzag and length-delimited fields).
+ * Null values are skipped, which matches proto3 "optional" presence.
+ */
+final class ProtoWriter {
+
+    static final int VARINT = 0;
+    static final int LENGTH_DELIMITED = 2;
+
+    private byte[] buffer;
+    private int position;
+
+    ProtoWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    void reset() {
+        position = 0;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    void int64(int field, Long value) {
+        if (value != null) {
+            tag(field, VARINT);
+            varint(value);
+        }
+    }
+
+    void int32(int field, Integer value) {
+        if (value != null) {
+            tag(field, VARINT);
+            varint(value);
+        }
+    }
+
+    void sint64(int field, Long value) {
+        if (value != null) {
+            tag(field, VARINT);
+            varint((value << 1) ^ (value >> 63));
+        }
+    }
+
+    void string(int field, String value) {
+        if (value != null) {
+            bytes(field, value.getBytes(StandardCharsets.UTF_8), 0, -1);
+        }
+    }
+
+    void message(int field, ProtoWriter nested) {
+        bytes(field, nested.buffer, 0, nested.position);
+    }
+
+    private void bytes(int field, byte[] value, int offset, int length) {
+        int count = length < 0 ? value.length : length;
+        tag(field, LENGTH_DELIMITED);
+        varint(count);
+        ensure(count);
+        System.arraycopy(value, offset, buffer, position, count);
+        position += count;
+    }
+
+    private void tag(int field, int wireType) {
+        varint((field << 3) | wireType);
+    }
+
+    private void varint(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void ensure(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+}
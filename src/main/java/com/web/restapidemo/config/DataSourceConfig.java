@@ -0,0 +1,95 @@
+package com.web.restapidemo.config;
+
+import com.web.restapidemo.datasource.ReadWriteRoutingDataSource;
+import com.web.restapidemo.datasource.SchemaMigrator;
+import com.web.restapidemo.metrics.TimingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Primary (read/write) and optional replica (read-only) pools behind a routing DataSource.
+ * Without app.datasource.replica.jdbc-url every transaction goes to the primary.
+ * Telemetry writes have their own pool outside the routing (see TelemetryWriter).
+ * DataSourceProperties is enabled here because the JDBC auto-configuration backs off
+ * when an R2DBC ConnectionFactory is present.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.jdbc-url")
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * Small pool for request logs and API client usage updates, so a slow or locked telemetry
+     * table cannot take connections from catalog traffic. Same database as the primary unless
+     * app.datasource.telemetry.jdbc-url is set; fails fast when exhausted instead of queueing.
+     */
+    @Bean
+    @ConfigurationProperties("app.datasource.telemetry")
+    public HikariDataSource telemetryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("telemetry");
+        dataSource.setMaximumPoolSize(3);
+        dataSource.setMinimumIdle(1);
+        dataSource.setConnectionTimeout(500);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") ObjectProvider<DataSource> replica) {
+        return new ReadWriteRoutingDataSource(primary, replica.getIfAvailable(() -> primary));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        // Defer the physical connection until the transaction's read-only flag is set;
+        // the timing wrapper measures pool wait and statement execution per request
+        return new LazyConnectionDataSourceProxy(new TimingDataSource(routingDataSource));
+    }
+
+    /**
+     * Versioned schema scripts on the primary, applied before JPA starts (see SchemaMigrator).
+     * Switched at runtime rather than by a bean condition, which AOT would fix at build time.
+     */
+    @Bean
+    public SchemaMigrator schemaMigrator(@Qualifier("primaryDataSource") DataSource primary,
+                                         @Value("${app.schema.migrate:false}") boolean migrate,
+                                         @Value("${app.schema.baseline-version:0}") int baselineVersion) {
+        return new SchemaMigrator(primary, migrate, baselineVersion);
+    }
+}
@@ -0,0 +1,31 @@
+package com.web.restapidemo.config;
+
+import com.web.restapidemo.datasource.TelemetryWriter;
+import com.web.restapidemo.logstore.LogShardProperties;
+import com.web.restapidemo.logstore.ShardedLogStore;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * api_log storage: the main database by default, or the shards under app.logs.sharding.shards
+ */
+@Configuration
+public class LogStoreConfig {
+
+    @Bean
+    @ConfigurationProperties("app.logs.sharding")
+    public LogShardProperties logShardProperties() {
+        return new LogShardProperties();
+    }
+
+    @Bean
+    public ShardedLogStore shardedLogStore(LogShardProperties properties, DataSource dataSource,
+                                           PlatformTransactionManager transactionManager,
+                                           TelemetryWriter telemetryWriter) {
+        return new ShardedLogStore(properties, dataSource, transactionManager, telemetryWriter);
+    }
+}
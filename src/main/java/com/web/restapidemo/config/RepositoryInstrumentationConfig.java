@@ -0,0 +1,36 @@
+package com.web.restapidemo.config;
+
+import com.web.restapidemo.metrics.RepositoryInstrumentation;
+import com.web.restapidemo.metrics.RepositoryInvocationInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Adds RepositoryInvocationInterceptor to every Spring Data repository proxy.
+ * With app.instrumentation.enabled=false the repositories are left untouched.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.instrumentation.enabled", havingValue = "true", matchIfMissing = true)
+public class RepositoryInstrumentationConfig {
+
+    @Bean
+    static BeanPostProcessor repositoryInstrumentationPostProcessor(ObjectProvider<RepositoryInstrumentation> instrumentation) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                                    proxyFactory.addAdvice(new RepositoryInvocationInterceptor(
+                                            repositoryInformation.getRepositoryInterface().getSimpleName(),
+                                            instrumentation))));
+                }
+                return bean;
+            }
+        };
+    }
+}
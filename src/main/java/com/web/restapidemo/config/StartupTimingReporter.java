@@ -0,0 +1,97 @@
+package com.web.restapidemo.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationContextInitializedEvent;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.event.ApplicationStartingEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Logs a per-phase startup breakdown (JVM, environment, context refresh, runners)
+ * plus the slowest startup steps once the application is ready.
+ * Enabled with app.startup.report=true so regressions show up in the boot log.
+ */
+@Slf4j
+public class StartupTimingReporter implements ApplicationListener<ApplicationEvent> {
+
+    private static final int TOP_STEPS = 15;
+
+    private final BufferingApplicationStartup applicationStartup;
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    public StartupTimingReporter(BufferingApplicationStartup applicationStartup) {
+        this.applicationStartup = applicationStartup;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (event instanceof ApplicationStartingEvent) {
+            phases.put("jvm-to-main", ManagementFactory.getRuntimeMXBean().getUptime());
+            phases.put("starting", System.nanoTime());
+        } else if (event instanceof ApplicationEnvironmentPreparedEvent) {
+            phases.put("environment", System.nanoTime());
+        } else if (event instanceof ApplicationContextInitializedEvent) {
+            phases.put("context-initialized", System.nanoTime());
+        } else if (event instanceof ApplicationPreparedEvent) {
+            phases.put("sources-loaded", System.nanoTime());
+        } else if (event instanceof ApplicationStartedEvent) {
+            phases.put("context-refreshed", System.nanoTime());
+        } else if (event instanceof ApplicationReadyEvent readyEvent) {
+            phases.put("runners", System.nanoTime());
+            if (readyEvent.getApplicationContext().getEnvironment()
+                    .getProperty("app.startup.report", Boolean.class, false)) {
+                report();
+            }
+        }
+    }
+
+    private void report() {
+        StringBuilder sb = new StringBuilder("Startup timing breakdown:\n");
+        sb.append(String.format("  %-22s %6d ms%n", "jvm-to-main", phases.get("jvm-to-main")));
+
+        long previous = phases.get("starting");
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            if (phase.getKey().equals("jvm-to-main") || phase.getKey().equals("starting")) {
+                continue;
+            }
+            sb.append(String.format("  %-22s %6d ms%n", phase.getKey(),
+                    Duration.ofNanos(phase.getValue() - previous).toMillis()));
+            previous = phase.getValue();
+        }
+        sb.append(String.format("  %-22s %6d ms%n", "total (since JVM start)",
+                ManagementFactory.getRuntimeMXBean().getUptime()));
+
+        StartupTimeline timeline = applicationStartup.getBufferedTimeline();
+        sb.append("Slowest startup steps:\n");
+        timeline.getEvents().stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(TOP_STEPS)
+                .forEach(step -> sb.append(String.format("  %6d ms  %s %s%n",
+                        step.getDuration().toMillis(),
+                        step.getStartupStep().getName(),
+                        describe(step))));
+        log.info(sb.toString());
+    }
+
+    private String describe(StartupTimeline.TimelineEvent step) {
+        StringBuilder tags = new StringBuilder();
+        step.getStartupStep().getTags().forEach(tag -> {
+            if (tag.getKey().equals("beanName")) {
+                tags.append(tag.getValue());
+            }
+        });
+        return tags.toString();
+    }
+}
@@ -1,12 +1,28 @@
 package com.web.restapidemo.config;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.web.restapidemo.codec.ProtobufCatalogHttpMessageConverter;
 import com.web.restapidemo.interceptor.ApiKeyInterceptor;
 import com.web.restapidemo.interceptor.LoggingInterceptor;
+import com.web.restapidemo.interceptor.QueryBudgetInterceptor;
+import com.web.restapidemo.interceptor.ReadYourWritesInterceptor;
+import com.web.restapidemo.interceptor.StatementBudgetInterceptor;
+import com.web.restapidemo.metrics.TimedJacksonHttpMessageConverter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
     
@@ -16,6 +32,19 @@ public class WebConfig implements WebMvcConfigurer {
     @Autowired
     private LoggingInterceptor loggingInterceptor;
     
+    @Autowired
+    private ReadYourWritesInterceptor readYourWritesInterceptor;
+    
+    @Autowired
+    private StatementBudgetInterceptor statementBudgetInterceptor;
+    
+    @Autowired
+    private QueryBudgetInterceptor queryBudgetInterceptor;
+    
+    // Boot's builder carries the spring.jackson.* settings and registered modules
+    @Autowired
+    private Jackson2ObjectMapperBuilder jacksonBuilder;
+    
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         // First: Add API Key validation (must come first)
@@ -27,6 +56,44 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addInterceptor(loggingInterceptor)
                 .addPathPatterns("/api/**")
                 .excludePathPatterns("/swagger-ui/**", "/api-docs/**");
+        
+        // Third: Keep a client's reads on the primary shortly after it writes
+        registry.addInterceptor(readYourWritesInterceptor)
+                .addPathPatterns("/api/**");
+        
+        // Fourth: Flag requests that run more SQL statements than the budget (N+1)
+        registry.addInterceptor(statementBudgetInterceptor)
+                .addPathPatterns("/api/**");
+        
+        // Fifth: Per-endpoint query time budget; last, so its deadline is cleared before the api_log insert
+        registry.addInterceptor(queryBudgetInterceptor)
+                .addPathPatterns("/api/**");
+    }
+    
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Swap in a Jackson converter that records serialization time per request
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter jackson
+                    && !(jackson instanceof TimedJacksonHttpMessageConverter)) {
+                converters.set(i, new TimedJacksonHttpMessageConverter(jackson.getObjectMapper()));
+            }
+        }
+        
+        // Binary encodings chosen via Accept; appended after JSON so JSON stays the default
+        if (converters.stream().noneMatch(MappingJackson2CborHttpMessageConverter.class::isInstance)) {
+            converters.add(new MappingJackson2CborHttpMessageConverter(binaryMapper(new CBORFactory())));
+        }
+        if (converters.stream().noneMatch(MappingJackson2SmileHttpMessageConverter.class::isInstance)) {
+            converters.add(new MappingJackson2SmileHttpMessageConverter(binaryMapper(new SmileFactory())));
+        }
+        converters.add(new ProtobufCatalogHttpMessageConverter());
+    }
+    
+    private ObjectMapper binaryMapper(JsonFactory factory) {
+        ObjectMapper mapper = new ObjectMapper(factory);
+        jacksonBuilder.configure(mapper);
+        return mapper;
     }
 }
 
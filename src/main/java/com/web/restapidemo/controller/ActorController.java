@@ -1,7 +1,15 @@
 package com.web.restapidemo.controller;
 
+import com.web.restapidemo.bulkhead.Bulkheads;
+import com.web.restapidemo.datasource.QueryBudget;
 import com.web.restapidemo.entity.Actor;
+import com.web.restapidemo.readmodel.ActorView;
+import com.web.restapidemo.readmodel.ChangesPage;
 import com.web.restapidemo.service.ActorService;
+import com.web.restapidemo.service.CatalogChangesService;
+import com.web.restapidemo.service.CatalogSnapshotService;
+import com.web.restapidemo.service.FilmService;
+import com.web.restapidemo.snapshot.CatalogSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -9,43 +17,80 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/actors")
+@QueryBudget("catalog")
 public class ActorController {
     @Autowired
     ActorService actorService;
 
+    @Autowired
+    private CatalogChangesService catalogChangesService;
+
+    @Autowired
+    private Bulkheads bulkheads;
+
+    // Reads can be served from the catalog snapshot; see FilmController
+    @Autowired
+    private CatalogSnapshotService catalogSnapshots;
+
     @GetMapping
-    public List<Actor> findAll() {
-        return actorService.getAllActors();
+    public CompletableFuture<ResponseEntity<List<ActorView>>> findAll() {
+        return catalogSnapshots.read(() -> actorService.getAllActors(), CatalogSnapshot::actors);
+    }
+
+    @GetMapping(params = "ids")
+    public CompletableFuture<ResponseEntity<List<ActorView>>> findByIds(@RequestParam List<Integer> ids) {
+        if (ids.size() > FilmService.MAX_IDS) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return catalogSnapshots.read(() -> actorService.getActorsByIds(ids), snapshot -> snapshot.actorsByIds(ids));
+    }
+
+    // Delta sync; see FilmController.getFilmChanges
+    @GetMapping("/changes")
+    public CompletableFuture<ChangesPage<ActorView>> findChanges(@RequestParam(required = false) String since,
+                                                                 @RequestParam(required = false) Integer limit) {
+        return bulkheads.catalog().submit(() -> catalogChangesService.getActorChanges(since, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Actor> findById(@PathVariable Integer id) {
-        Optional<Actor> actor = actorService.getActorById(id);
-        return actor.map(ResponseEntity::ok)
-                .orElseGet(() -> ResponseEntity.notFound().build());
+    public CompletableFuture<ResponseEntity<Actor>> findById(@PathVariable Integer id) {
+        return catalogSnapshots.readEntity(() -> {
+            Optional<Actor> actor = actorService.getActorById(id);
+            return actor.map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        }, snapshot -> snapshot.actor(id)
+                .map(view -> ResponseEntity.ok(view.toEntity()))
+                .orElseGet(() -> ResponseEntity.notFound().build()));
     }
 
     @PostMapping
-    public ResponseEntity<Actor> createActor(@RequestBody Actor actor) {
-        Actor createdActor = actorService.createActor(actor);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdActor);
+    public CompletableFuture<ResponseEntity<Actor>> createActor(@RequestBody Actor actor) {
+        return bulkheads.catalog().submitWrite(() -> {
+            Actor createdActor = actorService.createActor(actor);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdActor);
+        });
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteActor(@PathVariable Integer id) {
-        actorService.deleteActorById(id);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<Void>> deleteActor(@PathVariable Integer id) {
+        return bulkheads.catalog().submitWrite(() -> {
+            actorService.deleteActorById(id);
+            return ResponseEntity.noContent().build();
+        });
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Actor> updateActor(@PathVariable Integer id, @RequestBody Actor actor) {
-        Optional<Actor> updatedActor = actorService.updateActor(id, actor);
+    public CompletableFuture<ResponseEntity<Actor>> updateActor(@PathVariable Integer id, @RequestBody Actor actor) {
+        return bulkheads.catalog().submitWrite(() -> {
+            Optional<Actor> updatedActor = actorService.updateActor(id, actor);
 
-        return updatedActor
-                .map(ResponseEntity::ok)
-                .orElseGet(() -> ResponseEntity.notFound().build());
+            return updatedActor
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        });
     }
 }
@@ -1,19 +1,25 @@
 package com.web.restapidemo.controller;
 
+import com.web.restapidemo.bulkhead.Bulkheads;
 import com.web.restapidemo.entity.ApiClient;
 import com.web.restapidemo.service.ApiClientService;
+import com.web.restapidemo.service.ClientCardinalityService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/admin/clients")
@@ -23,71 +29,109 @@ public class AdminController {
     @Autowired
     private ApiClientService apiClientService;
     
+    @Autowired
+    private ClientCardinalityService clientCardinalityService;
+    
+    // All client management runs on the admin bulkhead, away from catalog and log traffic
+    @Autowired
+    private Bulkheads bulkheads;
+    
     @Operation(summary = "Get all clients", description = "Retrieve list of all registered API clients")
     @GetMapping
-    public List<ApiClient> getAllClients() {
-        return apiClientService.getAllClients();
+    public CompletableFuture<List<ApiClient>> getAllClients() {
+        return bulkheads.admin().submit(() -> apiClientService.getAllClients());
     }
     
     @Operation(summary = "Get client by ID", description = "Retrieve a specific client by its ID")
     @GetMapping("/{id}")
-    public ResponseEntity<ApiClient> getClientById(
+    public CompletableFuture<ResponseEntity<ApiClient>> getClientById(
             @Parameter(description = "Client ID") @PathVariable Long id) {
-        Optional<ApiClient> client = apiClientService.getClientById(id);
-        return client.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        return bulkheads.admin().submit(() -> {
+            Optional<ApiClient> client = apiClientService.getClientById(id);
+            return client.map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        });
     }
     
     @Operation(summary = "Create new client", description = "Register a new API client and generate API key")
     @PostMapping
-    public ResponseEntity<ApiClient> createClient(@RequestBody ApiClient client) {
-        // Generate API key for the new client
-        ApiClient createdClient = apiClientService.createClient(client);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdClient);
+    public CompletableFuture<ResponseEntity<ApiClient>> createClient(@RequestBody ApiClient client) {
+        return bulkheads.admin().submitWrite(() -> {
+            // Generate API key for the new client
+            ApiClient createdClient = apiClientService.createClient(client);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdClient);
+        });
     }
     
     @Operation(summary = "Update client", description = "Update client information (API key is not changed)")
     @PutMapping("/{id}")
-    public ResponseEntity<ApiClient> updateClient(
+    public CompletableFuture<ResponseEntity<ApiClient>> updateClient(
             @Parameter(description = "Client ID") @PathVariable Long id,
             @RequestBody ApiClient clientDetails) {
-        Optional<ApiClient> updatedClient = apiClientService.updateClient(id, clientDetails);
-        return updatedClient.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        return bulkheads.admin().submitWrite(() -> {
+            Optional<ApiClient> updatedClient = apiClientService.updateClient(id, clientDetails);
+            return updatedClient.map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        });
     }
     
     @Operation(summary = "Delete client", description = "Remove a client from the system")
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteClient(
+    public CompletableFuture<ResponseEntity<Void>> deleteClient(
             @Parameter(description = "Client ID") @PathVariable Long id) {
-        if (apiClientService.getClientById(id).isPresent()) {
-            apiClientService.deleteClient(id);
-            return ResponseEntity.noContent().build();
-        }
-        return ResponseEntity.notFound().build();
+        return bulkheads.admin().submitWrite(() -> {
+            if (apiClientService.getClientById(id).isPresent()) {
+                apiClientService.deleteClient(id);
+                return ResponseEntity.noContent().build();
+            }
+            return ResponseEntity.notFound().build();
+        });
     }
     
     @Operation(summary = "Get active clients", description = "Retrieve only active clients")
     @GetMapping("/active")
-    public List<ApiClient> getActiveClients() {
-        return apiClientService.getActiveClients();
+    public CompletableFuture<List<ApiClient>> getActiveClients() {
+        return bulkheads.admin().submit(() -> apiClientService.getActiveClients());
     }
     
     @Operation(summary = "Get clients by type", description = "Filter clients by type (INTERNAL or EXTERNAL)")
     @GetMapping("/type/{type}")
-    public List<ApiClient> getClientsByType(
+    public CompletableFuture<List<ApiClient>> getClientsByType(
             @Parameter(description = "Client type (INTERNAL or EXTERNAL)", example = "INTERNAL")
             @PathVariable String type) {
-        return apiClientService.getClientsByType(type);
+        return bulkheads.admin().submit(() -> apiClientService.getClientsByType(type));
     }
     
     @Operation(summary = "Rotate API key", description = "Generate a new API key for an existing client")
     @PostMapping("/{id}/rotate-key")
-    public ResponseEntity<ApiClient> rotateApiKey(
+    public CompletableFuture<ResponseEntity<ApiClient>> rotateApiKey(
             @Parameter(description = "Client ID") @PathVariable Long id) {
-        Optional<ApiClient> client = apiClientService.rotateApiKey(id);
-        return client.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        return bulkheads.admin().submitWrite(() -> {
+            Optional<ApiClient> client = apiClientService.rotateApiKey(id);
+            return client.map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        });
+    }
+    
+    @Operation(summary = "Unique IPs and user agents", description = "Approximate distinct client IPs and user agents for a client over a date range (HyperLogLog, defaults to today)")
+    @GetMapping("/{id}/cardinality")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getClientCardinality(
+            @Parameter(description = "Client ID") @PathVariable Long id,
+            @Parameter(description = "First day (inclusive)", example = "2024-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (inclusive)", example = "2024-01-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return bulkheads.admin().submit(() -> {
+            if (apiClientService.getClientById(id).isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end;
+            if (start.isAfter(end)) {
+                return ResponseEntity.badRequest().build();
+            }
+            return ResponseEntity.ok(clientCardinalityService.estimate(id, start, end));
+        });
     }
 }
 
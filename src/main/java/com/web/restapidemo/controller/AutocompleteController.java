@@ -0,0 +1,39 @@
+package com.web.restapidemo.controller;
+
+import com.web.restapidemo.service.AutocompleteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/autocomplete")
+@Tag(name = "Autocomplete", description = "Typeahead suggestions for film titles and actor names")
+public class AutocompleteController {
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    @Operation(summary = "Suggest films and actors", description = "Prefix match against any word of a film title or actor name, served from memory")
+    @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully")
+    @GetMapping
+    public Map<String, Object> suggest(
+            @Parameter(description = "Typed prefix", example = "dino") @RequestParam String q,
+            @Parameter(description = "Restrict to film or actor") @RequestParam(required = false) String type,
+            @Parameter(description = "Maximum suggestions per type") @RequestParam(defaultValue = "10") int limit) {
+        return autocompleteService.suggest(q, type, limit);
+    }
+
+    @Operation(summary = "Get index stats", description = "Entry and node counts, estimated memory and lookup latency")
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        return autocompleteService.getStats();
+    }
+}
@@ -0,0 +1,66 @@
+package com.web.restapidemo.controller;
+
+import com.web.restapidemo.service.BatchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/batch")
+@Tag(name = "Batch", description = "Several read requests in one call")
+public class BatchController {
+
+    @Autowired
+    private BatchService batchService;
+
+    @Operation(summary = "Run read sub-requests", description = "Runs GET sub-requests against film, actor and autocomplete routes in parallel under one authentication and one log record; each result carries its own status")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch executed; see per-item status"),
+            @ApiResponse(responseCode = "400", description = "Empty batch or too many sub-requests")
+    })
+    @PostMapping
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> execute(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Sub-requests to run",
+                    required = true,
+                    content = @Content(
+                            examples = @ExampleObject(
+                                    name = "Screen data",
+                                    value = """
+                        {
+                            "requests": [
+                                {"id": "film", "method": "GET", "path": "/api/films/1"},
+                                {"id": "cast", "method": "GET", "path": "/api/actors?ids=1,2,3"},
+                                {"id": "similar", "method": "GET", "path": "/api/films/rating/PG-13"}
+                            ]
+                        }
+                        """
+                            )
+                    )
+            )
+            @RequestBody BatchService.BatchRequest request) {
+        if (request.requests() == null || request.requests().isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(Map.of("error", "requests must not be empty")));
+        }
+        if (request.requests().size() > batchService.getMaxRequests()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error",
+                    "At most " + batchService.getMaxRequests() + " sub-requests per batch")));
+        }
+        // Async like the bulkhead endpoints: no Tomcat thread waits for the items
+        return batchService.execute(request.requests())
+                .thenApply(results -> ResponseEntity.ok(Map.of("results", results)));
+    }
+}
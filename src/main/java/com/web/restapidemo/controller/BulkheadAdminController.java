@@ -0,0 +1,27 @@
+package com.web.restapidemo.controller;
+
+import com.web.restapidemo.bulkhead.Bulkheads;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/bulkheads")
+@Tag(name = "Bulkheads (Admin)", description = "Per endpoint group worker pools and saturation")
+public class BulkheadAdminController {
+
+    @Autowired
+    private Bulkheads bulkheads;
+
+    // Runs on the request thread so it still answers when every bulkhead is saturated
+    @Operation(summary = "Get bulkhead stats", description = "Threads, queue depth, saturation, rejections, timeouts and queue wait per group (catalog, logs, admin)")
+    @GetMapping
+    public Map<String, Object> getStats() {
+        return bulkheads.getStats();
+    }
+}
@@ -0,0 +1,26 @@
+package com.web.restapidemo.controller;
+
+import com.web.restapidemo.cache.CacheInvalidationBus;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+@Tag(name = "Cache (Admin)", description = "Local caches and cross-node invalidation")
+public class CacheAdminController {
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Operation(summary = "Get cache stats", description = "Per cache hit/miss/bypass counts, change log cursor, time since last poll and invalidation lag")
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        return cacheInvalidationBus.getStats();
+    }
+}
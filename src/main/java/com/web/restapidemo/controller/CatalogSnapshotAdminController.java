@@ -0,0 +1,42 @@
+package com.web.restapidemo.controller;
+
+import com.web.restapidemo.bulkhead.Bulkheads;
+import com.web.restapidemo.service.CatalogSnapshotService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/admin/catalog-snapshot")
+@Tag(name = "Catalog Snapshot (Admin)", description = "Local film and actor snapshot used for degraded reads")
+public class CatalogSnapshotAdminController {
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshots;
+
+    @Autowired
+    private Bulkheads bulkheads;
+
+    @Operation(summary = "Get snapshot status", description = "Snapshot file, age, record counts, whether the database is considered down and how many reads were served stale")
+    @GetMapping
+    public Map<String, Object> getStatus() {
+        return catalogSnapshots.getStatus();
+    }
+
+    @Operation(summary = "Refresh snapshot", description = "Rewrite the snapshot from the database now instead of waiting for app.catalog.snapshot.interval-ms")
+    @PostMapping("/refresh")
+    public CompletableFuture<Map<String, Object>> refresh() {
+        // Reads every film and actor, so it takes an admin worker rather than a Tomcat thread
+        return bulkheads.admin().submit(() -> {
+            catalogSnapshots.refresh();
+            return catalogSnapshots.getStatus();
+        });
+    }
+}
@@ -0,0 +1,32 @@
+package com.web.restapidemo.controller;
+
+import com.web.restapidemo.datasource.ReadWriteRoutingDataSource;
+import com.web.restapidemo.datasource.ReadYourWritesTracker;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/datasource")
+@Tag(name = "DataSource (Admin)", description = "Read/write routing and connection pool statistics")
+public class DataSourceAdminController {
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Operation(summary = "Get routing stats", description = "Primary/replica routing counts, replica ratio and pool usage")
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = routingDataSource.getStats();
+        stats.put("stickyClients", readYourWritesTracker.getTrackedClients());
+        return stats;
+    }
+}
@@ -1,7 +1,14 @@
 package com.web.restapidemo.controller;
 
+import com.web.restapidemo.bulkhead.Bulkheads;
+import com.web.restapidemo.datasource.QueryBudget;
 import com.web.restapidemo.entity.Film;
+import com.web.restapidemo.readmodel.ChangesPage;
+import com.web.restapidemo.readmodel.FilmView;
+import com.web.restapidemo.service.CatalogChangesService;
+import com.web.restapidemo.service.CatalogSnapshotService;
 import com.web.restapidemo.service.FilmService;
+import com.web.restapidemo.snapshot.CatalogSnapshot;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -18,22 +25,51 @@ import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/films")
+@QueryBudget("catalog")
 @Tag(name = "Film Management", description = "APIs for managing films in Sakila database")
 public class FilmController {
 
     @Autowired
     private FilmService filmService;
 
+    @Autowired
+    private CatalogChangesService catalogChangesService;
+
+    // Every endpoint except /stats (served from memory) runs on the catalog bulkhead
+    @Autowired
+    private Bulkheads bulkheads;
+
+    // Reads fall back to the local catalog snapshot (X-Catalog-Stale) when the database is down or slow
+    @Autowired
+    private CatalogSnapshotService catalogSnapshots;
+
     // API 1: Get all films
     @Operation(summary = "Get all films", description = "Retrieve a list of all films with optional pagination")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved films")
     @GetMapping
-    public List<Film> getAllFilms() {
-        return filmService.getAllFilms();
+    public CompletableFuture<ResponseEntity<List<FilmView>>> getAllFilms() {
+        return catalogSnapshots.read(() -> filmService.getAllFilms(), CatalogSnapshot::films);
+    }
+
+    // API 1b: Get several films by ID in one call
+    @Operation(summary = "Get films by IDs", description = "Retrieve up to " + FilmService.MAX_IDS + " films in one query, e.g. ?ids=1,2,3; unknown IDs are skipped")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Films found, in request order"),
+            @ApiResponse(responseCode = "400", description = "Too many IDs")
+    })
+    @GetMapping(params = "ids")
+    public CompletableFuture<ResponseEntity<List<FilmView>>> getFilmsByIds(
+            @Parameter(description = "Comma-separated film IDs", example = "1,2,3") @RequestParam List<Integer> ids) {
+        if (ids.size() > FilmService.MAX_IDS) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return catalogSnapshots.read(() -> filmService.getFilmsByIds(ids), snapshot -> snapshot.filmsByIds(ids));
     }
 
     // API 2: Get film by ID
@@ -43,18 +79,22 @@ public class FilmController {
             @ApiResponse(responseCode = "404", description = "Film not found")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Film> getFilmById(
+    public CompletableFuture<ResponseEntity<Film>> getFilmById(
             @Parameter(description = "Film ID", example = "1") @PathVariable Integer id) {
-        Optional<Film> film = filmService.getFilmById(id);
-        return film.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        return catalogSnapshots.readEntity(() -> {
+            Optional<Film> film = filmService.getFilmById(id);
+            return film.map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        }, snapshot -> snapshot.film(id)
+                .map(view -> ResponseEntity.ok(view.toEntity()))
+                .orElse(ResponseEntity.notFound().build()));
     }
 
     // API 3: Create new film
     @Operation(summary = "Create new film", description = "Add a new film to the database")
     @ApiResponse(responseCode = "201", description = "Film created successfully")
     @PostMapping
-    public ResponseEntity<Film> createFilm(
+    public CompletableFuture<ResponseEntity<Film>> createFilm(
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     description = "Film object to be created",
                     required = true,
@@ -78,8 +118,10 @@ public class FilmController {
                     )
             )
             @Valid @RequestBody Film film) {
-        Film createdFilm = filmService.createFilm(film);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdFilm);
+        return bulkheads.catalog().submitWrite(() -> {
+            Film createdFilm = filmService.createFilm(film);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdFilm);
+        });
     }
 
     // API 4: Update film
@@ -89,12 +131,14 @@ public class FilmController {
             @ApiResponse(responseCode = "404", description = "Film not found")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<Film> updateFilm(
+    public CompletableFuture<ResponseEntity<Film>> updateFilm(
             @Parameter(description = "Film ID") @PathVariable Integer id,
             @Valid @RequestBody Film film) {
-        Optional<Film> updatedFilm = filmService.updateFilm(id, film);
-        return updatedFilm.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        return bulkheads.catalog().submitWrite(() -> {
+            Optional<Film> updatedFilm = filmService.updateFilm(id, film);
+            return updatedFilm.map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        });
     }
 
     // API 5: Delete film
@@ -104,62 +148,89 @@ public class FilmController {
             @ApiResponse(responseCode = "404", description = "Film not found")
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteFilm(
+    public CompletableFuture<ResponseEntity<Void>> deleteFilm(
             @Parameter(description = "Film ID") @PathVariable Integer id) {
-        if (filmService.getFilmById(id).isPresent()) {
-            filmService.deleteFilm(id);
-            return ResponseEntity.noContent().build();
-        }
-        return ResponseEntity.notFound().build();
+        return bulkheads.catalog().submitWrite(() -> {
+            if (filmService.getFilmById(id).isPresent()) {
+                filmService.deleteFilm(id);
+                return ResponseEntity.noContent().build();
+            }
+            return ResponseEntity.notFound().build();
+        });
     }
 
     // API 6: Search films by title
     @Operation(summary = "Search films by title", description = "Search films containing the specified title (case-insensitive)")
     @ApiResponse(responseCode = "200", description = "Search completed successfully")
     @GetMapping("/search")
-    public List<Film> searchFilmsByTitle(
+    public CompletableFuture<ResponseEntity<List<FilmView>>> searchFilmsByTitle(
             @Parameter(description = "Title to search for", example = "matrix")
             @RequestParam String title) {
-        return filmService.searchByTitle(title);
+        return catalogSnapshots.read(() -> filmService.searchByTitle(title), snapshot -> snapshot.searchByTitle(title));
     }
 
     // API 7: Get films by rating
     @Operation(summary = "Get films by rating", description = "Retrieve all films with the specified rating")
     @ApiResponse(responseCode = "200", description = "Films retrieved successfully")
     @GetMapping("/rating/{rating}")
-    public List<Film> getFilmsByRating(
+    public CompletableFuture<ResponseEntity<List<FilmView>>> getFilmsByRating(
             @Parameter(description = "Film rating", example = "PG-13")
             @PathVariable String rating) {
-        return filmService.getFilmsByRating(rating);
+        return catalogSnapshots.read(() -> filmService.getFilmsByRating(rating), snapshot -> snapshot.filmsByRating(rating));
     }
 
     // API 8: Get films by release year
     @Operation(summary = "Get films by release year", description = "Retrieve all films released in the specified year")
     @ApiResponse(responseCode = "200", description = "Films retrieved successfully")
     @GetMapping("/year/{year}")
-    public List<Film> getFilmsByReleaseYear(
+    public CompletableFuture<ResponseEntity<List<FilmView>>> getFilmsByReleaseYear(
             @Parameter(description = "Release year", example = "2005")
             @PathVariable Integer year) {
-        return filmService.getFilmsByReleaseYear(year);
+        return catalogSnapshots.read(() -> filmService.getFilmsByReleaseYear(year),
+                snapshot -> snapshot.filmsByReleaseYear(year));
     }
 
     // API 9: Get films by rental rate range
     @Operation(summary = "Get films by rental rate range", description = "Retrieve films within specified rental rate range")
     @ApiResponse(responseCode = "200", description = "Films retrieved successfully")
     @GetMapping("/rental-range")
-    public List<Film> getFilmsByRentalRateRange(
+    public CompletableFuture<ResponseEntity<List<FilmView>>> getFilmsByRentalRateRange(
             @Parameter(description = "Minimum rental rate", example = "2.00") @RequestParam BigDecimal minRate,
             @Parameter(description = "Maximum rental rate", example = "5.00") @RequestParam BigDecimal maxRate) {
-        return filmService.getFilmsByRentalRateRange(minRate, maxRate);
+        return catalogSnapshots.read(() -> filmService.getFilmsByRentalRateRange(minRate, maxRate),
+                snapshot -> snapshot.filmsByRentalRateRange(minRate, maxRate));
     }
 
     // API 10: Get long films
     @Operation(summary = "Get long films", description = "Retrieve films longer than or equal to specified length")
     @ApiResponse(responseCode = "200", description = "Films retrieved successfully")
     @GetMapping("/long-films")
-    public List<Film> getLongFilms(
+    public CompletableFuture<ResponseEntity<List<FilmView>>> getLongFilms(
             @Parameter(description = "Minimum length in minutes", example = "120")
             @RequestParam Integer minLength) {
-        return filmService.getLongFilms(minLength);
+        return catalogSnapshots.read(() -> filmService.getLongFilms(minLength), snapshot -> snapshot.longFilms(minLength));
+    }
+
+    // API 11: Delta sync
+    @Operation(summary = "Get film changes", description = "Films created or updated and IDs deleted since the token, oldest first, in pages. "
+            + "Omit 'since' for a full sync; then keep calling with 'nextToken' (immediately while 'hasMore' is true)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Changes since the token"),
+            @ApiResponse(responseCode = "400", description = "Malformed token"),
+            @ApiResponse(responseCode = "410", description = "Token too old; resync without 'since'")
+    })
+    @GetMapping("/changes")
+    public CompletableFuture<ChangesPage<FilmView>> getFilmChanges(
+            @Parameter(description = "Opaque token from the previous page's nextToken") @RequestParam(required = false) String since,
+            @Parameter(description = "Maximum upserts and deletes per page", example = "500") @RequestParam(required = false) Integer limit) {
+        return bulkheads.catalog().submit(() -> catalogChangesService.getFilmChanges(since, limit));
+    }
+
+    // API 12: Catalog statistics
+    @Operation(summary = "Get catalog statistics", description = "Film counts by rating and release year, average rental rate and length distribution, maintained in memory")
+    @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        return filmService.getStats();
     }
 }
\ No newline at end of file
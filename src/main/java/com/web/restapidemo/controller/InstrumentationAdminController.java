@@ -0,0 +1,35 @@
+package com.web.restapidemo.controller;
+
+import com.web.restapidemo.metrics.RepositoryInstrumentation;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/instrumentation")
+@Tag(name = "Instrumentation (Admin)", description = "Repository call statistics and statement budget violations")
+public class InstrumentationAdminController {
+
+    @Autowired
+    private RepositoryInstrumentation repositoryInstrumentation;
+
+    @Operation(summary = "Get repository stats", description = "Per repository method calls and latency percentiles, plus requests over the SQL statement budget (likely N+1)")
+    @GetMapping
+    public Map<String, Object> getInstrumentation() {
+        return repositoryInstrumentation.snapshot();
+    }
+
+    @Operation(summary = "Reset repository stats", description = "Clear all collected counters and flagged requests")
+    @PostMapping("/reset")
+    public ResponseEntity<Void> reset() {
+        repositoryInstrumentation.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.web.restapidemo.controller;
+
+import com.web.restapidemo.jfr.ContinuousRecording;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/jfr")
+@Tag(name = "Flight Recorder (Admin)", description = "Continuous JFR recording with request, auth, repository and log events")
+public class JfrAdminController {
+
+    @Autowired
+    private ContinuousRecording continuousRecording;
+
+    @Operation(summary = "Get recording status", description = "Whether the continuous recording runs, its settings, retention, size and dump directory")
+    @GetMapping
+    public Map<String, Object> getStatus() {
+        return continuousRecording.getStatus();
+    }
+
+    @Operation(summary = "Dump recent recording", description = "Write the last N minutes (at most app.jfr.max-age-minutes) to a .jfr file on the server and return its path")
+    @PostMapping("/dump")
+    public Map<String, Object> dump(@RequestParam(defaultValue = "5") int minutes) {
+        return continuousRecording.dump(minutes);
+    }
+}
@@ -1,14 +1,27 @@
 package com.web.restapidemo.controller;
 
+import com.web.restapidemo.bulkhead.Bulkheads;
+import com.web.restapidemo.datasource.QueryBudget;
 import com.web.restapidemo.entity.LogEntry;
+import com.web.restapidemo.service.HeavyHitterService;
+import com.web.restapidemo.service.HeavyHitterService.Dimension;
+import com.web.restapidemo.service.HeavyHitterService.Metric;
 import com.web.restapidemo.service.LogService;
+import com.web.restapidemo.service.LogTailService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/logs")
@@ -17,31 +30,116 @@ public class LogController {
     @Autowired
     private LogService logService;
     
+    @Autowired
+    private LogTailService logTailService;
+    
+    @Autowired
+    private HeavyHitterService heavyHitterService;
+    
+    // api_log queries run on the logs bulkhead; tail and top-K are in-memory and stay on the request thread
+    @Autowired
+    private Bulkheads bulkheads;
+    
+    @Value("${app.logs.tail.timeout-ms:1800000}")
+    private long tailTimeoutMs;
+    
+    @Value("${app.logs.query.max-limit:10000}")
+    private int maxLimit;
+    
+    @QueryBudget("logs.search")
     @GetMapping("/search")
-    public List<LogEntry> searchLogs(@RequestParam String keyword) {
-        return logService.searchLogs(keyword);
+    public CompletableFuture<List<LogEntry>> searchLogs(@RequestParam String keyword,
+                                                    @RequestParam(defaultValue = "1000") int limit) {
+        int rows = clamp(limit);
+        return bulkheads.logs().submit(() -> logService.searchLogs(keyword, rows));
     }
     
+    @QueryBudget("logs.date-range")
     @GetMapping("/date-range")
-    public List<LogEntry> getLogsByDateRange(
+    public CompletableFuture<List<LogEntry>> getLogsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        return logService.findLogsByDateRange(startDate, endDate);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "1000") int limit) {
+        int rows = clamp(limit);
+        return bulkheads.logs().submit(() -> logService.findLogsByDateRange(startDate, endDate, rows));
     }
     
+    @QueryBudget("logs.filter")
     @GetMapping("/slow-requests")
-    public List<LogEntry> getSlowRequests(@RequestParam(defaultValue = "1000") Long thresholdMs) {
-        return logService.findSlowRequests(thresholdMs);
+    public CompletableFuture<List<LogEntry>> getSlowRequests(@RequestParam(defaultValue = "1000") Long thresholdMs,
+                                                         @RequestParam(defaultValue = "1000") int limit) {
+        int rows = clamp(limit);
+        return bulkheads.logs().submit(() -> logService.findSlowRequests(thresholdMs, rows));
     }
     
+    @QueryBudget("logs.filter")
     @GetMapping("/method/{method}")
-    public List<LogEntry> getLogsByMethod(@PathVariable String method) {
-        return logService.findByMethod(method);
+    public CompletableFuture<List<LogEntry>> getLogsByMethod(@PathVariable String method,
+                                                         @RequestParam(defaultValue = "1000") int limit) {
+        int rows = clamp(limit);
+        return bulkheads.logs().submit(() -> logService.findByMethod(method, rows));
     }
     
+    @QueryBudget("logs.filter")
     @GetMapping("/status/{status}")
-    public List<LogEntry> getLogsByStatus(@PathVariable Integer status) {
-        return logService.findByResponseStatus(status);
+    public CompletableFuture<List<LogEntry>> getLogsByStatus(@PathVariable Integer status,
+                                                         @RequestParam(defaultValue = "1000") int limit) {
+        int rows = clamp(limit);
+        return bulkheads.logs().submit(() -> logService.findByResponseStatus(status, rows));
+    }
+    
+    // Newest rows first; the limit is pushed down to every shard
+    private int clamp(int limit) {
+        return Math.max(1, Math.min(limit, maxLimit));
+    }
+    
+    // Live tail of new log entries (SSE), filtered server-side; never queries the database
+    @GetMapping(value = "/tail", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter tailLogs(
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) String method,
+            @RequestParam(required = false) String client,
+            @RequestParam(required = false) Long minExecutionTimeMs) {
+        if (!logTailService.canSubscribe()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many live tail subscribers");
+        }
+        return logTailService.subscribe(
+                new LogTailService.Filter(status, method, client, minExecutionTimeMs), tailTimeoutMs);
+    }
+    
+    // Shard layout and per-shard write counts of the api_log store
+    @GetMapping("/store/stats")
+    public Map<String, Object> getStoreStats() {
+        return logService.getStoreStats();
+    }
+    
+    @GetMapping("/tail/stats")
+    public Map<String, Object> getTailStats() {
+        return logTailService.getStats();
+    }
+    
+    // Streaming heavy hitters (approximate top-K, answered from memory)
+    @GetMapping("/top/uris")
+    public Map<String, Object> getTopUris(
+            @RequestParam(defaultValue = "REQUESTS") Metric metric,
+            @RequestParam(defaultValue = "60") Integer windowMinutes,
+            @RequestParam(defaultValue = "20") Integer limit) {
+        return heavyHitterService.top(Dimension.URI, metric, windowMinutes, limit);
+    }
+    
+    @GetMapping("/top/clients")
+    public Map<String, Object> getTopClients(
+            @RequestParam(defaultValue = "REQUESTS") Metric metric,
+            @RequestParam(defaultValue = "60") Integer windowMinutes,
+            @RequestParam(defaultValue = "20") Integer limit) {
+        return heavyHitterService.top(Dimension.CLIENT, metric, windowMinutes, limit);
+    }
+    
+    @GetMapping("/top/ips")
+    public Map<String, Object> getTopIps(
+            @RequestParam(defaultValue = "REQUESTS") Metric metric,
+            @RequestParam(defaultValue = "60") Integer windowMinutes,
+            @RequestParam(defaultValue = "20") Integer limit) {
+        return heavyHitterService.top(Dimension.IP, metric, windowMinutes, limit);
     }
 }
-
@@ -0,0 +1,26 @@
+package com.web.restapidemo.controller;
+
+import com.web.restapidemo.warmup.WarmupRunner;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/warmup")
+@Tag(name = "Warmup (Admin)", description = "Startup warmup progress")
+public class WarmupAdminController {
+
+    @Autowired
+    private WarmupRunner warmupRunner;
+
+    @Operation(summary = "Get warmup report", description = "State, current phase, per-phase results and per-round latency of the startup warmup; served while warmup is still running")
+    @GetMapping
+    public Map<String, Object> getReport() {
+        return warmupRunner.getReport();
+    }
+}
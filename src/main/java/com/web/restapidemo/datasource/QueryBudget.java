@@ -0,0 +1,20 @@
+package com.web.restapidemo.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Names the query time budget of a controller method (or of every method in a controller).
+ * The budget is read from app.query-budget.&lt;name&gt;-ms, falling back to
+ * app.query-budget.default-ms, which also applies to unannotated endpoints.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface QueryBudget {
+
+    String value();
+}
@@ -0,0 +1,156 @@
+package com.web.restapidemo.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query time budget of one request, enforced on every JDBC statement it executes (see
+ * TimingDataSource). Each statement gets the remaining budget as its JDBC query timeout,
+ * and a watchdog cancels it at the exact deadline. cancel() kills in-flight statements
+ * and fails later ones, e.g. when the client disconnects.
+ * Bound to the request thread by QueryBudgetInterceptor and carried over to bulkhead and
+ * batch workers; thread-safe, since a batch shares it between workers.
+ */
+@Slf4j
+public final class QueryDeadline {
+
+    private static final ThreadLocal<QueryDeadline> CURRENT = new ThreadLocal<>();
+
+    private static final ScheduledThreadPoolExecutor WATCHDOG = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread thread = new Thread(r, "query-deadline-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        // Most statements finish well before their deadline; drop their timers right away
+        WATCHDOG.setRemoveOnCancelPolicy(true);
+    }
+
+    private final String endpoint;
+    private final long budgetMs;
+    private final long deadlineNanos;
+    private final Set<Statement> inFlight = ConcurrentHashMap.newKeySet();
+    private volatile boolean exceeded;
+    private volatile String cancelReason;
+
+    private QueryDeadline(String endpoint, long budgetMs) {
+        this.endpoint = endpoint;
+        this.budgetMs = budgetMs;
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+    }
+
+    public static QueryDeadline start(String endpoint, long budgetMs) {
+        QueryDeadline deadline = new QueryDeadline(endpoint, budgetMs);
+        CURRENT.set(deadline);
+        return deadline;
+    }
+
+    public static QueryDeadline current() {
+        return CURRENT.get();
+    }
+
+    public static void bind(QueryDeadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Arm the budget for a statement about to execute; run the returned callback once it finishes
+     */
+    public Runnable beforeExecute(Statement statement) throws SQLException {
+        if (cancelReason != null) {
+            throw cancelled(null);
+        }
+        long remainingNanos = deadlineNanos - System.nanoTime();
+        if (remainingNanos <= 0) {
+            exceeded = true;
+            throw exceeded(null);
+        }
+        // Whole seconds only; a backstop enforced by the driver even if the watchdog is late
+        int seconds = (int) Math.max(1, (remainingNanos + 999_999_999L) / 1_000_000_000L);
+        int existing = statement.getQueryTimeout();
+        if (existing == 0 || existing > seconds) {
+            statement.setQueryTimeout(seconds);
+        }
+        inFlight.add(statement);
+        ScheduledFuture<?> timer = WATCHDOG.schedule(() -> {
+            if (inFlight.contains(statement)) {
+                exceeded = true;
+                cancelQuietly(statement);
+            }
+        }, remainingNanos, TimeUnit.NANOSECONDS);
+        return () -> {
+            inFlight.remove(statement);
+            timer.cancel(false);
+        };
+    }
+
+    /**
+     * Replace a failure caused by this deadline with one that names it. Timeouts become
+     * SQLTimeoutException, which Spring translates to QueryTimeoutException.
+     */
+    public SQLException translate(SQLException e) {
+        if (cancelReason != null) {
+            return cancelled(e);
+        }
+        if (exceeded || e instanceof SQLTimeoutException) {
+            exceeded = true;
+            return exceeded(e);
+        }
+        return e;
+    }
+
+    /**
+     * Kill in-flight statements and fail any further ones
+     */
+    public void cancel(String reason) {
+        cancelReason = reason;
+        for (Statement statement : inFlight) {
+            cancelQuietly(statement);
+        }
+    }
+
+    private void cancelQuietly(Statement statement) {
+        try {
+            statement.cancel();
+        } catch (SQLException e) {
+            log.debug("Could not cancel statement for {}: {}", endpoint, e.getMessage());
+        }
+    }
+
+    private SQLTimeoutException exceeded(Throwable cause) {
+        return new SQLTimeoutException("Query time budget of " + budgetMs + " ms exceeded for " + endpoint, "HYT00", cause);
+    }
+
+    private SQLException cancelled(Throwable cause) {
+        return new SQLException("Statement cancelled for " + endpoint + ": " + cancelReason, "70100", cause);
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public long getBudgetMs() {
+        return budgetMs;
+    }
+
+    public boolean isExceeded() {
+        return exceeded;
+    }
+
+    public String getCancelReason() {
+        return cancelReason;
+    }
+}
@@ -0,0 +1,112 @@
+package com.web.restapidemo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Routes read-only transactions to the replica pool and everything else to the primary.
+ * Must be wrapped in a LazyConnectionDataSourceProxy so the read-only flag is known
+ * before a physical connection is fetched.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final Map<String, DataSource> pools = new LinkedHashMap<>();
+    private final AtomicLong primaryRoutes = new AtomicLong();
+    private final AtomicLong replicaRoutes = new AtomicLong();
+    private final AtomicLong stickyRoutes = new AtomicLong();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        pools.put(PRIMARY, primary);
+        pools.put(REPLICA, replica);
+        setTargetDataSources(new LinkedHashMap<>(pools));
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Pin reads on the current thread to the primary (read-your-writes)
+     */
+    public static void forcePrimary() {
+        FORCE_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void clearForcePrimary() {
+        FORCE_PRIMARY.remove();
+    }
+
+    public static boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(FORCE_PRIMARY.get());
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        // Connections fetched outside a transaction (LazyConnectionDataSourceProxy reading the
+        // connection defaults, non-transactional statements) are routed but not counted
+        boolean counted = TransactionSynchronizationManager.isActualTransactionActive();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            count(counted, primaryRoutes);
+            return PRIMARY;
+        }
+        if (Boolean.TRUE.equals(FORCE_PRIMARY.get())) {
+            count(counted, stickyRoutes);
+            count(counted, primaryRoutes);
+            return PRIMARY;
+        }
+        count(counted, replicaRoutes);
+        return REPLICA;
+    }
+
+    private static void count(boolean counted, AtomicLong counter) {
+        if (counted) {
+            counter.incrementAndGet();
+        }
+    }
+
+    /**
+     * Routing counters and pool usage for the admin endpoint
+     */
+    public Map<String, Object> getStats() {
+        long primary = primaryRoutes.get();
+        long replica = replicaRoutes.get();
+        long total = primary + replica;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("primaryRoutes", primary);
+        stats.put("replicaRoutes", replica);
+        stats.put("stickyRoutes", stickyRoutes.get());
+        stats.put("replicaRatio", total == 0 ? 0.0 : (double) replica / total);
+        stats.put("replicaConfigured", pools.get(PRIMARY) != pools.get(REPLICA));
+
+        Map<String, Object> poolStats = new LinkedHashMap<>();
+        pools.forEach((name, dataSource) -> poolStats.put(name, describePool(dataSource)));
+        stats.put("pools", poolStats);
+        return stats;
+    }
+
+    private Map<String, Object> describePool(DataSource dataSource) {
+        Map<String, Object> pool = new LinkedHashMap<>();
+        if (dataSource instanceof HikariDataSource hikari) {
+            pool.put("poolName", hikari.getPoolName());
+            pool.put("maximumPoolSize", hikari.getMaximumPoolSize());
+            HikariPoolMXBean mxBean = hikari.getHikariPoolMXBean();
+            if (mxBean != null) {
+                pool.put("active", mxBean.getActiveConnections());
+                pool.put("idle", mxBean.getIdleConnections());
+                pool.put("total", mxBean.getTotalConnections());
+                pool.put("threadsAwaiting", mxBean.getThreadsAwaitingConnection());
+            }
+        }
+        return pool;
+    }
+}
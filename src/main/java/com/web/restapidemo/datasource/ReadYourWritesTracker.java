@@ -0,0 +1,46 @@
+package com.web.restapidemo.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which clients wrote recently so their reads can stay on the primary
+ * until the replica has had a chance to catch up.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    @Value("${app.datasource.read-your-writes-window-ms:5000}")
+    private long windowMs;
+
+    public void recordWrite(String clientKey) {
+        long now = System.currentTimeMillis();
+        lastWrites.put(clientKey, now);
+        if (lastWrites.size() > PRUNE_THRESHOLD) {
+            lastWrites.values().removeIf(writtenAt -> now - writtenAt > windowMs);
+        }
+    }
+
+    public boolean isSticky(String clientKey) {
+        Long writtenAt = lastWrites.get(clientKey);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - writtenAt > windowMs) {
+            lastWrites.remove(clientKey, writtenAt);
+            return false;
+        }
+        return true;
+    }
+
+    public int getTrackedClients() {
+        return lastWrites.size();
+    }
+}
@@ -0,0 +1,92 @@
+package com.web.restapidemo.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.jdbc.init.DataSourceScriptDatabaseInitializer;
+import org.springframework.boot.sql.init.DatabaseInitializationMode;
+import org.springframework.boot.sql.init.DatabaseInitializationSettings;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Versioned schema scripts, db/migration/V&lt;n&gt;__&lt;description&gt;.sql, applied in version order
+ * and each only once; applied versions are recorded in schema_version. Registered as a Boot
+ * database initializer, so the EntityManagerFactory (and ddl-auto=validate) waits for it.
+ * A database built earlier by ddl-auto=update already has these tables: baselineVersion marks
+ * versions up to it as applied without running them. Nodes migrating at the same moment race
+ * on the schema_version primary key, and the loser fails its startup instead of applying twice.
+ */
+@Slf4j
+public class SchemaMigrator extends DataSourceScriptDatabaseInitializer {
+
+    public static final String LOCATION = "classpath*:db/migration/V*__*.sql";
+
+    private static final Pattern SCRIPT = Pattern.compile("V(\\d+)__.+\\.sql");
+
+    private static final String CREATE_VERSION_TABLE = "CREATE TABLE IF NOT EXISTS schema_version ("
+            + "version INT NOT NULL PRIMARY KEY, script VARCHAR(200) NOT NULL, applied_at DATETIME NOT NULL)";
+
+    private final int baselineVersion;
+
+    public SchemaMigrator(DataSource dataSource, boolean enabled, int baselineVersion) {
+        super(dataSource, settings(enabled));
+        this.baselineVersion = baselineVersion;
+    }
+
+    private static DatabaseInitializationSettings settings(boolean enabled) {
+        DatabaseInitializationSettings settings = new DatabaseInitializationSettings();
+        settings.setSchemaLocations(List.of(LOCATION));
+        settings.setDataLocations(List.of());
+        settings.setMode(enabled ? DatabaseInitializationMode.ALWAYS : DatabaseInitializationMode.NEVER);
+        return settings;
+    }
+
+    @Override
+    protected void runScripts(Scripts scripts) {
+        JdbcTemplate jdbc = new JdbcTemplate(getDataSource());
+        jdbc.execute(CREATE_VERSION_TABLE);
+        Set<Integer> applied = new HashSet<>(jdbc.queryForList("SELECT version FROM schema_version", Integer.class));
+
+        List<Resource> ordered = new ArrayList<>();
+        scripts.forEach(ordered::add);
+        ordered.sort(Comparator.comparingInt(SchemaMigrator::version));
+        for (Resource script : ordered) {
+            int version = version(script);
+            if (!applied.add(version)) {
+                continue;
+            }
+            if (version <= baselineVersion) {
+                record(jdbc, version, script.getFilename() + " (baseline)");
+                continue;
+            }
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(script);
+            populator.setSqlScriptEncoding(scripts.getEncoding() != null ? scripts.getEncoding().name() : null);
+            populator.execute(getDataSource());
+            record(jdbc, version, script.getFilename());
+            log.info("Applied schema migration {}", script.getFilename());
+        }
+    }
+
+    private static void record(JdbcTemplate jdbc, int version, String script) {
+        jdbc.update("INSERT INTO schema_version (version, script, applied_at) VALUES (?, ?, ?)",
+                version, script, LocalDateTime.now());
+    }
+
+    static int version(Resource script) {
+        Matcher matcher = SCRIPT.matcher(String.valueOf(script.getFilename()));
+        if (!matcher.matches()) {
+            throw new IllegalStateException("Schema script name is not V<n>__<description>.sql: " + script.getFilename());
+        }
+        return Integer.parseInt(matcher.group(1));
+    }
+}
@@ -0,0 +1,135 @@
+package com.web.restapidemo.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes for request logs and API client usage on the telemetry pool, each in its own
+ * short transaction with a statement timeout. Its transaction manager is deliberately not a
+ * bean: a second PlatformTransactionManager would replace the JPA one in auto-configuration.
+ * Not wrapped in TimingDataSource, so these writes stay out of request timings and budgets.
+ * Request threads hand writes to submit(), a bounded queue drained by a few writer threads;
+ * when it is full the write is dropped and counted, never waited for.
+ */
+@Component
+@Slf4j
+public class TelemetryWriter {
+
+    @Autowired
+    @Qualifier("telemetryDataSource")
+    private DataSource telemetryDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.telemetry.write-timeout-seconds:2}")
+    private int writeTimeoutSeconds;
+
+    // At most the telemetry pool size; more threads would only wait for its connections
+    @Value("${app.telemetry.async.threads:2}")
+    private int asyncThreads;
+
+    @Value("${app.telemetry.async.queue:2000}")
+    private int asyncQueue;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTx;
+    private ThreadPoolExecutor asyncWriter;
+    private Timer succeeded;
+    private Timer failed;
+    private Counter dropped;
+
+    @PostConstruct
+    void init() {
+        jdbcTemplate = new JdbcTemplate(telemetryDataSource);
+        writeTx = new TransactionTemplate(new DataSourceTransactionManager(telemetryDataSource));
+        // Never joins a caller's transaction, so telemetry commits (or fails) on its own
+        writeTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        writeTx.setTimeout(writeTimeoutSeconds);
+        succeeded = Timer.builder("telemetry.writes")
+                .tag("outcome", "success")
+                .description("Request log and client usage writes on the telemetry pool")
+                .register(meterRegistry);
+        failed = Timer.builder("telemetry.writes")
+                .tag("outcome", "failure")
+                .description("Request log and client usage writes on the telemetry pool")
+                .register(meterRegistry);
+
+        AtomicInteger counter = new AtomicInteger();
+        asyncWriter = new ThreadPoolExecutor(asyncThreads, asyncThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(asyncQueue), r -> {
+            Thread thread = new Thread(r, "telemetry-writer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        dropped = Counter.builder("telemetry.dropped")
+                .description("Telemetry writes dropped because the async queue was full")
+                .register(meterRegistry);
+        Gauge.builder("telemetry.queued", asyncWriter, e -> e.getQueue().size())
+                .description("Telemetry writes waiting for a writer thread")
+                .register(meterRegistry);
+    }
+
+    // Give queued writes the length of one write timeout to drain before the pool closes
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        asyncWriter.shutdown();
+        asyncWriter.awaitTermination(writeTimeoutSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queue a write for the writer threads without blocking the caller. Returns false, and
+     * counts telemetry.dropped, when the queue is full. Failures are counted by the write
+     * itself (telemetry.writes{outcome=failure}) and only logged at debug here.
+     */
+    public boolean submit(Runnable write) {
+        try {
+            asyncWriter.execute(() -> {
+                try {
+                    write.run();
+                } catch (RuntimeException e) {
+                    log.debug("Telemetry write failed: {}", e.getMessage());
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Run one INSERT/UPDATE on the telemetry pool; failures (including pool timeouts) are rethrown
+     */
+    public int update(String sql, Object... args) {
+        long start = System.nanoTime();
+        try {
+            Integer rows = writeTx.execute(status -> jdbcTemplate.update(sql, args));
+            succeeded.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return rows != null ? rows : 0;
+        } catch (RuntimeException e) {
+            failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+}
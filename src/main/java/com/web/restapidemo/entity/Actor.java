@@ -10,7 +10,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "actor")
+@Table(name = "actor", indexes = @Index(name = "idx_actor_last_update", columnList = "last_update, actor_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,38 @@
+package com.web.restapidemo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marks a deleted film or actor so the changes feed can report the delete after the row is gone
+ */
+@Entity
+@Table(name = "catalog_tombstone",
+        indexes = @Index(name = "idx_catalog_tombstone_type_deleted", columnList = "entity_type, deleted_at, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogTombstone {
+
+    public static final String FILM = "film";
+    public static final String ACTOR = "actor";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Integer entityId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
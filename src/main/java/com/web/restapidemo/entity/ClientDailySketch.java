@@ -0,0 +1,40 @@
+package com.web.restapidemo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "api_client_daily_sketch",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"client_id", "day", "metric"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClientDailySketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "metric", nullable = false, length = 20)
+    private String metric; // CLIENT_IP, USER_AGENT
+
+    @Lob
+    @Column(name = "sketch", nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] sketch;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
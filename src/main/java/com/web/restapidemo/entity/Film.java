@@ -12,7 +12,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "film")
+@Table(name = "film", indexes = @Index(name = "idx_film_last_update", columnList = "last_update, film_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -87,8 +87,9 @@ public class Film {
     @Schema(description = "Tính năng đặc biệt", example = "Trailers,Commentaries")
     private String specialFeatures;
 
+    // Stamped by the application on insert and update, so edits reach the changes feed on any database
     @UpdateTimestamp
-    @Column(name = "last_update", nullable = false, updatable = false)
+    @Column(name = "last_update", nullable = false)
     @Schema(description = "Thời gian cập nhật cuối cùng", example = "2024-01-15T10:30:00")
     private LocalDateTime lastUpdate;
 }
\ No newline at end of file
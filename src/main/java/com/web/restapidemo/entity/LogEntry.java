@@ -45,5 +45,25 @@ public class LogEntry {
 
     @Column(name = "user_agent", length = 500)
     private String userAgent;
+
+    // Phase breakdown (microseconds); auth includes its own API key lookup
+    @Column(name = "auth_time_us")
+    private Long authTimeUs;
+
+    @Column(name = "db_wait_time_us")
+    private Long dbWaitTimeUs;
+
+    @Column(name = "sql_time_us")
+    private Long sqlTimeUs;
+
+    @Column(name = "sql_statement_count")
+    private Integer sqlStatementCount;
+
+    @Column(name = "serialization_time_us")
+    private Long serializationTimeUs;
+
+    // Per-statement detail, only for requests above app.timing.slow-threshold-ms
+    @Column(name = "timing_detail", columnDefinition = "TEXT")
+    private String timingDetail;
 }
 
@@ -1,5 +1,12 @@
 package com.web.restapidemo.handler;
 
+import com.web.restapidemo.bulkhead.BulkheadFullException;
+import com.web.restapidemo.bulkhead.BulkheadTimeoutException;
+import com.web.restapidemo.datasource.QueryDeadline;
+import com.web.restapidemo.interceptor.QueryBudgetInterceptor;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -23,4 +30,35 @@ public class GlobalExceptionHandler {
         });
         return ResponseEntity.badRequest().body(errors);
     }
+
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<Map<String, String>> handleBulkheadFull(BulkheadFullException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        error.put("group", ex.getGroup());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    // The request ran past the bulkhead timeout and may have done its work; no Retry-After
+    @ExceptionHandler(BulkheadTimeoutException.class)
+    public ResponseEntity<Map<String, String>> handleBulkheadTimeout(BulkheadTimeoutException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        error.put("group", ex.getGroup());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(error);
+    }
+
+    // Raised when a statement ran past the endpoint's query time budget (see QueryDeadline)
+    @ExceptionHandler({QueryTimeoutException.class, jakarta.persistence.QueryTimeoutException.class})
+    public ResponseEntity<Map<String, Object>> handleQueryTimeout(RuntimeException ex, HttpServletRequest request) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", "Query time budget exceeded");
+        if (request.getAttribute(QueryBudgetInterceptor.DEADLINE_ATTRIBUTE) instanceof QueryDeadline deadline) {
+            error.put("endpoint", deadline.getEndpoint());
+            error.put("budgetMs", deadline.getBudgetMs());
+        }
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(error);
+    }
 }
\ No newline at end of file
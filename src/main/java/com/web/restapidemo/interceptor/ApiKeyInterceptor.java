@@ -1,11 +1,16 @@
 package com.web.restapidemo.interceptor;
 
 import com.web.restapidemo.entity.ApiClient;
+import com.web.restapidemo.jfr.ApiKeyValidationEvent;
+import com.web.restapidemo.metrics.RequestTimings;
 import com.web.restapidemo.service.ApiClientService;
+import com.web.restapidemo.warmup.WarmupRunner;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
@@ -19,12 +24,23 @@ public class ApiKeyInterceptor implements HandlerInterceptor {
     @Autowired
     private ApiClientService apiClientService;
     
+    @Autowired
+    private WarmupRunner warmupRunner;
+    
+    @Autowired
+    private PenaltyBox penaltyBox;
+    
     private static final String API_KEY_HEADER = "X-API-Key";
     private static final String CLIENT_ID_HEADER = "X-Client-ID";
     
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         
+        // Async requests were authenticated on their first dispatch
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        
         // Skip validation for admin endpoints
         String path = request.getRequestURI();
         if (path.startsWith("/api/admin/clients") || 
@@ -34,6 +50,18 @@ public class ApiKeyInterceptor implements HandlerInterceptor {
             return true;
         }
         
+        // IPs that recently sent many invalid keys are turned away before any lookup
+        String clientIp = penaltyBox.clientIp(request);
+        long penaltyMs = penaltyBox.remainingMs(clientIp);
+        if (penaltyMs > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((penaltyMs + 999) / 1000));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\":\"Too many invalid API keys\",\"message\":\"Retry after the Retry-After delay\"}");
+            response.getWriter().flush();
+            return false;
+        }
+        
         // Extract API key from header
         String apiKey = request.getHeader(API_KEY_HEADER);
         String clientName = request.getHeader(CLIENT_ID_HEADER);
@@ -49,9 +77,19 @@ public class ApiKeyInterceptor implements HandlerInterceptor {
         }
         
         // Validate API key
-        Optional<ApiClient> clientOptional = apiClientService.validateApiKey(apiKey);
+        long authStart = System.nanoTime();
+        ApiKeyValidationEvent validationEvent = new ApiKeyValidationEvent();
+        validationEvent.begin();
+        // Startup warmup traffic takes the same path but is not counted as client usage or failures
+        boolean synthetic = warmupRunner.isSynthetic(request);
+        Optional<ApiClient> clientOptional = apiClientService.validateApiKey(apiKey, !synthetic);
+        RequestTimings.recordAuth(System.nanoTime() - authStart);
+        validationEvent.finish(clientOptional.map(ApiClient::getClientName).orElse(null), clientOptional.isPresent(), synthetic);
         
         if (clientOptional.isEmpty()) {
+            if (!synthetic) {
+                penaltyBox.recordFailure(clientIp);
+            }
             log.warn("Invalid API key attempted: {}", apiKey.substring(0, Math.min(apiKey.length(), 8)) + "...");
             response.setStatus(HttpStatus.UNAUTHORIZED.value());
             response.setContentType("application/json");
@@ -63,7 +101,7 @@ public class ApiKeyInterceptor implements HandlerInterceptor {
         ApiClient client = clientOptional.get();
         
         // Log successful authentication
-        log.info("Authenticated client: {} (Type: {}) for {} {}", 
+        log.debug("Authenticated client: {} (Type: {}) for {} {}", 
                 client.getClientName(), client.getClientType(), request.getMethod(), path);
         
         // Set client info as request attribute for logging
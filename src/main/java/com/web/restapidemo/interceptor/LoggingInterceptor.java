@@ -1,13 +1,24 @@
 package com.web.restapidemo.interceptor;
 
+import com.web.restapidemo.accesslog.AccessLogEvent;
 import com.web.restapidemo.entity.LogEntry;
+import com.web.restapidemo.metrics.RequestPhaseRecorder;
+import com.web.restapidemo.metrics.RequestTimings;
+import com.web.restapidemo.service.ClientCardinalityService;
+import com.web.restapidemo.service.HeavyHitterService;
 import com.web.restapidemo.service.LogService;
+import com.web.restapidemo.service.LogTailService;
+import com.web.restapidemo.warmup.WarmupRunner;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.time.LocalDateTime;
 
@@ -15,17 +26,41 @@ import java.time.LocalDateTime;
 @Component
 public class LoggingInterceptor implements HandlerInterceptor {
     
+    private static final Logger accessLog = LoggerFactory.getLogger("ACCESS");
+    
     @Autowired
     private LogService logService;
     
+    @Autowired
+    private LogTailService logTailService;
+    
+    @Autowired
+    private HeavyHitterService heavyHitterService;
+    
+    @Autowired
+    private ClientCardinalityService clientCardinalityService;
+    
+    @Autowired
+    private RequestPhaseRecorder requestPhaseRecorder;
+    
+    @Autowired
+    private WarmupRunner warmupRunner;
+    
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
-        request.setAttribute("startTime", System.currentTimeMillis());
+        // Async dispatches continue the original request; keep its start time
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            request.setAttribute("startTime", System.currentTimeMillis());
+        }
         return true;
     }
     
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        // Startup warmup traffic stays out of api_log, the live tail and analytics
+        if (warmupRunner.isSynthetic(request)) {
+            return;
+        }
         try {
             long startTime = (Long) request.getAttribute("startTime");
             long executionTime = System.currentTimeMillis() - startTime;
@@ -45,14 +80,16 @@ public class LoggingInterceptor implements HandlerInterceptor {
             String apiKey = request.getHeader("X-API-Key");
             Object apiClientObj = request.getAttribute("apiClient");
             String clientName = "UNKNOWN";
+            Long clientId = null;
             if (apiClientObj instanceof com.web.restapidemo.entity.ApiClient) {
                 com.web.restapidemo.entity.ApiClient apiClient = (com.web.restapidemo.entity.ApiClient) apiClientObj;
                 clientName = apiClient.getClientName();
+                clientId = apiClient.getId();
             }
             
-            // Log to file with client info
-            log.info("API Request - Client: {}, Method: {}, URI: {}, Status: {}, Execution Time: {}ms", 
-                    clientName, method, uri, statusCode, executionTime);
+            // Structured access log; formatting and file I/O happen on the appender's writer thread
+            accessLog.info("{}", new AccessLogEvent(System.currentTimeMillis(), clientName, method, uri,
+                    statusCode, executionTime, clientIp, userAgent));
             
             // Save to database
             LogEntry logEntry = LogEntry.builder()
@@ -67,8 +104,25 @@ public class LoggingInterceptor implements HandlerInterceptor {
                     .userAgent(userAgent)
                     .build();
             
+            // Attach the auth / DB wait / SQL / serialization breakdown
+            RequestTimings timings = RequestTimings.current();
+            if (timings != null) {
+                requestPhaseRecorder.apply(logEntry, timings, executionTime);
+            }
+            
             logService.saveLog(logEntry);
             
+            // Fan out to live tail subscribers (in-memory only)
+            logTailService.publish(clientName, logEntry);
+            
+            // Feed streaming top-K analytics, keyed by route template rather than raw URI
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uriTemplate = pattern != null ? pattern.toString() : request.getRequestURI();
+            heavyHitterService.record(uriTemplate, clientName, clientIp, statusCode);
+            
+            // Daily unique IP / user agent sketches per client
+            clientCardinalityService.record(clientId, clientIp, userAgent);
+            
         } catch (Exception e) {
             log.error("Error in logging interceptor", e);
         }
@@ -0,0 +1,133 @@
+package com.web.restapidemo.interceptor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-IP penalty box for invalid API keys. An IP with failure-threshold bad keys inside
+ * window-ms is rejected by ApiKeyInterceptor (and ReactiveApiKeyFilter) for penalty-ms, doubling on every repeat up
+ * to max-penalty-ms, without touching the key filter, cache or database.
+ * At most max-tracked-ips are tracked; beyond that new IPs are not tracked.
+ */
+@Component
+@Slf4j
+public class PenaltyBox {
+
+    private static final class Offender {
+        long windowStart;
+        int failures;
+        int strikes;
+        long penalizedUntil;
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.auth.penalty.failure-threshold:10}")
+    private int failureThreshold;
+
+    @Value("${app.auth.penalty.window-ms:60000}")
+    private long windowMs;
+
+    @Value("${app.auth.penalty.penalty-ms:60000}")
+    private long penaltyMs;
+
+    @Value("${app.auth.penalty.max-penalty-ms:3600000}")
+    private long maxPenaltyMs;
+
+    @Value("${app.auth.penalty.max-tracked-ips:100000}")
+    private int maxTrackedIps;
+
+    // X-Forwarded-For can be set by the caller, so it is only used behind a proxy that overwrites it
+    @Value("${app.auth.penalty.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    private final ConcurrentHashMap<String, Offender> offenders = new ConcurrentHashMap<>();
+    private Counter rejected;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("auth.penalty.tracked", offenders, map -> map.size())
+                .description("IPs with recent invalid API keys")
+                .register(meterRegistry);
+        rejected = Counter.builder("auth.penalty.rejected")
+                .description("Requests rejected because their IP is in the penalty box")
+                .register(meterRegistry);
+    }
+
+    public String clientIp(HttpServletRequest request) {
+        return clientIp(request.getHeader("X-Forwarded-For"), request.getRemoteAddr());
+    }
+
+    /**
+     * Same resolution for callers without a servlet request (the reactive read server)
+     */
+    public String clientIp(String forwardedFor, String remoteAddr) {
+        if (trustForwardedFor && forwardedFor != null && !forwardedFor.isBlank()) {
+            return forwardedFor.split(",")[0].trim();
+        }
+        return remoteAddr;
+    }
+
+    /**
+     * Milliseconds the IP remains boxed (counted as a rejection), or 0 if it may try a key
+     */
+    public long remainingMs(String ip) {
+        Offender offender = offenders.get(ip);
+        if (offender == null) {
+            return 0;
+        }
+        long remaining;
+        synchronized (offender) {
+            remaining = Math.max(0, offender.penalizedUntil - System.currentTimeMillis());
+        }
+        if (remaining > 0) {
+            rejected.increment();
+        }
+        return remaining;
+    }
+
+    public void recordFailure(String ip) {
+        if (offenders.size() >= maxTrackedIps && !offenders.containsKey(ip)) {
+            return;
+        }
+        Offender offender = offenders.computeIfAbsent(ip, key -> new Offender());
+        synchronized (offender) {
+            long now = System.currentTimeMillis();
+            if (now - offender.windowStart > windowMs) {
+                offender.windowStart = now;
+                offender.failures = 0;
+            }
+            if (++offender.failures >= failureThreshold) {
+                long penalty = Math.min(maxPenaltyMs, penaltyMs << Math.min(offender.strikes, 20));
+                offender.penalizedUntil = now + penalty;
+                offender.strikes++;
+                offender.failures = 0;
+                offender.windowStart = now;
+                log.warn("IP {} penalized for {} ms after repeated invalid API keys (strike {})", ip, penalty, offender.strikes);
+            }
+        }
+    }
+
+    // Forget IPs whose penalty and failure window have both expired; strikes reset after a quiet max-penalty-ms
+    @Scheduled(fixedDelayString = "${app.auth.penalty.cleanup-interval-ms:60000}")
+    public void cleanup() {
+        long now = System.currentTimeMillis();
+        offenders.entrySet().removeIf(entry -> {
+            Offender offender = entry.getValue();
+            synchronized (offender) {
+                return now > offender.penalizedUntil + maxPenaltyMs && now - offender.windowStart > windowMs;
+            }
+        });
+    }
+}
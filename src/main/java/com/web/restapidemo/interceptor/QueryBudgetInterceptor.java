@@ -0,0 +1,99 @@
+package com.web.restapidemo.interceptor;
+
+import com.web.restapidemo.datasource.QueryBudget;
+import com.web.restapidemo.datasource.QueryDeadline;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Starts the QueryDeadline of each API request from the handler's @QueryBudget. For async
+ * (bulkhead) requests, a client disconnect or async timeout reported by the container
+ * cancels the statements still running. Overruns and cancellations are logged and counted
+ * as query.budget.exceeded / query.cancelled.
+ */
+@Slf4j
+@Component
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String DEADLINE_ATTRIBUTE = QueryDeadline.class.getName();
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.query-budget.default-ms:10000}")
+    private long defaultBudgetMs;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        QueryBudget budget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+        if (budget == null) {
+            budget = handlerMethod.getBeanType().getAnnotation(QueryBudget.class);
+        }
+        long budgetMs = budget != null
+                ? environment.getProperty("app.query-budget." + budget.value() + "-ms", Long.class, defaultBudgetMs)
+                : defaultBudgetMs;
+        String endpoint = handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName();
+
+        QueryDeadline deadline = QueryDeadline.start(endpoint, budgetMs);
+        request.setAttribute(DEADLINE_ATTRIBUTE, deadline);
+        // CompletableFuture results are adapted to DeferredResult, so these callbacks cover bulkhead endpoints
+        WebAsyncUtils.getAsyncManager(request).registerDeferredResultInterceptor(DEADLINE_ATTRIBUTE,
+                new DeferredResultProcessingInterceptor() {
+                    @Override
+                    public <T> boolean handleError(NativeWebRequest webRequest, DeferredResult<T> result, Throwable t) {
+                        deadline.cancel("client disconnected");
+                        return true;
+                    }
+
+                    @Override
+                    public <T> boolean handleTimeout(NativeWebRequest webRequest, DeferredResult<T> result) {
+                        deadline.cancel("async request timed out");
+                        return true;
+                    }
+                });
+        return true;
+    }
+
+    // The request continues on a bulkhead worker, which carries the deadline over
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryDeadline.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryDeadline.clear();
+        if (!(request.getAttribute(DEADLINE_ATTRIBUTE) instanceof QueryDeadline deadline)) {
+            return;
+        }
+        if (deadline.getCancelReason() != null) {
+            meterRegistry.counter("query.cancelled", "endpoint", deadline.getEndpoint(),
+                    "reason", deadline.getCancelReason()).increment();
+            log.info("Cancelled queries of {} {} ({})", request.getMethod(), request.getRequestURI(),
+                    deadline.getCancelReason());
+        } else if (deadline.isExceeded()) {
+            meterRegistry.counter("query.budget.exceeded", "endpoint", deadline.getEndpoint()).increment();
+            log.warn("Query time budget of {} ms exceeded by {} {}", deadline.getBudgetMs(),
+                    request.getMethod(), request.getRequestURI());
+        }
+    }
+}
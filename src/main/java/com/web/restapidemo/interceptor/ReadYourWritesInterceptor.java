@@ -0,0 +1,52 @@
+package com.web.restapidemo.interceptor;
+
+import com.web.restapidemo.datasource.ReadWriteRoutingDataSource;
+import com.web.restapidemo.datasource.ReadYourWritesTracker;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+@Component
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (readYourWritesTracker.isSticky(clientKey(request))) {
+            ReadWriteRoutingDataSource.forcePrimary();
+        }
+        return true;
+    }
+
+    // Bulkhead endpoints continue on a worker (which carries the pinning over); free this thread
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReadWriteRoutingDataSource.clearForcePrimary();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReadWriteRoutingDataSource.clearForcePrimary();
+
+        // Only successful mutating calls start a sticky window
+        // POST /api/batch only carries reads, so it must not pin the client to the primary
+        if (isWrite(request.getMethod()) && !request.getRequestURI().startsWith("/api/batch")
+                && ex == null && response.getStatus() < 400) {
+            readYourWritesTracker.recordWrite(clientKey(request));
+        }
+    }
+
+    private boolean isWrite(String method) {
+        return "POST".equals(method) || "PUT".equals(method)
+                || "PATCH".equals(method) || "DELETE".equals(method);
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader("X-API-Key");
+        return apiKey != null && !apiKey.isEmpty() ? apiKey : request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,29 @@
+package com.web.restapidemo.interceptor;
+
+import com.web.restapidemo.metrics.RepositoryInstrumentation;
+import com.web.restapidemo.metrics.RequestTimings;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+@Component
+public class StatementBudgetInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private RepositoryInstrumentation repositoryInstrumentation;
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestTimings timings = RequestTimings.current();
+        if (timings == null || !repositoryInstrumentation.isEnabled()) {
+            return;
+        }
+        String handlerName = handler instanceof HandlerMethod handlerMethod
+                ? handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName()
+                : String.valueOf(handler);
+        repositoryInstrumentation.checkStatementBudget(handlerName, request.getMethod(), request.getRequestURI(), timings);
+    }
+}
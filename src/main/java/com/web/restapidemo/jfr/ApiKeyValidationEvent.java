@@ -0,0 +1,31 @@
+package com.web.restapidemo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("restapidemo.ApiKeyValidation")
+@Label("API Key Validation")
+@Category({"REST API Demo", "Auth"})
+public class ApiKeyValidationEvent extends Event {
+
+    @Label("Client")
+    String client;
+
+    @Label("Valid")
+    boolean valid;
+
+    @Label("Synthetic")
+    boolean synthetic;
+
+    public void finish(String client, boolean valid, boolean synthetic) {
+        end();
+        if (shouldCommit()) {
+            this.client = client;
+            this.valid = valid;
+            this.synthetic = synthetic;
+            commit();
+        }
+    }
+}
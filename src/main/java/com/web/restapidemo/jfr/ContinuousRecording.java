@@ -0,0 +1,162 @@
+package com.web.restapidemo.jfr;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Always-on flight recording with the JDK "default" settings (GC, locks, I/O, sampling; about
+ * 1% overhead) plus this application's events, kept on disk for max-age-minutes.
+ * dump() writes the last N minutes to a .jfr file for JDK Mission Control or `jfr print`.
+ * Request events are recorded above request-threshold-ms; key validation, repository and log
+ * insert events above span-threshold-ms, so fast calls cost only the enabled check.
+ */
+@Component
+@Slf4j
+public class ContinuousRecording {
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Value("${app.jfr.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.jfr.settings:default}")
+    private String settings;
+
+    @Value("${app.jfr.max-age-minutes:30}")
+    private long maxAgeMinutes;
+
+    @Value("${app.jfr.max-size-mb:250}")
+    private long maxSizeMb;
+
+    @Value("${app.jfr.request-threshold-ms:0}")
+    private long requestThresholdMs;
+
+    @Value("${app.jfr.span-threshold-ms:1}")
+    private long spanThresholdMs;
+
+    @Value("${app.jfr.dump-dir:${java.io.tmpdir}/rest-api-demo-jfr}")
+    private String dumpDir;
+
+    @Value("${app.jfr.max-dumps:10}")
+    private int maxDumps;
+
+    private Recording recording;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        if (!FlightRecorder.isAvailable()) {
+            log.warn("Flight recorder not available in this JVM; continuous recording disabled");
+            return;
+        }
+        try {
+            Recording started = new Recording(Configuration.getConfiguration(settings));
+            started.setName("rest-api-demo-continuous");
+            started.setToDisk(true);
+            started.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+            started.setMaxSize(maxSizeMb * 1024 * 1024);
+            started.enable(RequestEvent.class).withThreshold(Duration.ofMillis(requestThresholdMs));
+            started.enable(ApiKeyValidationEvent.class).withThreshold(Duration.ofMillis(spanThresholdMs));
+            started.enable(RepositoryCallEvent.class).withThreshold(Duration.ofMillis(spanThresholdMs));
+            started.enable(LogPersistEvent.class).withThreshold(Duration.ofMillis(spanThresholdMs));
+            started.start();
+            recording = started;
+            log.info("Continuous flight recording started (settings '{}', last {} min, at most {} MB)",
+                    settings, maxAgeMinutes, maxSizeMb);
+        } catch (Exception e) {
+            // Missing settings file or a JVM without JFR: the application runs without it
+            log.warn("Could not start continuous flight recording: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    public boolean isRecording() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    /**
+     * Write the last minutes of recorded data (capped at max-age-minutes) to a new file in dump-dir.
+     * Older dump files beyond max-dumps are deleted.
+     */
+    public synchronized Map<String, Object> dump(int minutes) {
+        if (!isRecording()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Continuous flight recording is not running");
+        }
+        long window = Math.max(1, Math.min(minutes, maxAgeMinutes));
+        Path dir = Paths.get(dumpDir);
+        Path file = dir.resolve("recording-" + LocalDateTime.now().format(FILE_TIME) + "-" + window + "m.jfr");
+        try {
+            Files.createDirectories(dir);
+            // A snapshot is a read-only view of the data on disk; trimming it does not affect the recording
+            try (Recording snapshot = FlightRecorder.getFlightRecorder().takeSnapshot()) {
+                snapshot.setMaxAge(Duration.ofMinutes(window));
+                snapshot.dump(file);
+            }
+            pruneDumps(dir);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not write recording: " + e.getMessage());
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("file", file.toAbsolutePath().toString());
+        result.put("minutes", window);
+        result.put("bytes", file.toFile().length());
+        log.info("Dumped last {} min of flight recording to {}", window, file);
+        return result;
+    }
+
+    private void pruneDumps(Path dir) throws IOException {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(dir)) {
+            dumps = files.filter(path -> path.getFileName().toString().startsWith("recording-"))
+                    .sorted()
+                    .toList();
+        }
+        for (int i = 0; i < dumps.size() - maxDumps; i++) {
+            Files.deleteIfExists(dumps.get(i));
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("recording", isRecording());
+        status.put("settings", settings);
+        status.put("maxAgeMinutes", maxAgeMinutes);
+        status.put("maxSizeMb", maxSizeMb);
+        status.put("dumpDir", Paths.get(dumpDir).toAbsolutePath().toString());
+        if (recording != null) {
+            status.put("startedAt", recording.getStartTime());
+            status.put("sizeBytes", recording.getSize());
+        }
+        return status;
+    }
+}
@@ -0,0 +1,56 @@
+package com.web.restapidemo.jfr;
+
+import com.web.restapidemo.entity.ApiClient;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Emits a RequestEvent per request while a flight recording has it enabled; otherwise
+ * costs one isEnabled() check. Async requests carry the event across dispatches.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 11)
+public class JfrRequestFilter extends OncePerRequestFilter {
+
+    private static final String ATTRIBUTE = RequestEvent.class.getName();
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestEvent event = (RequestEvent) request.getAttribute(ATTRIBUTE);
+        if (event == null) {
+            RequestEvent started = new RequestEvent();
+            if (started.isEnabled()) {
+                started.begin();
+                request.setAttribute(ATTRIBUTE, started);
+                event = started;
+            }
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (event != null && !request.isAsyncStarted()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                Object client = request.getAttribute("apiClient");
+                event.finish(request.getMethod(),
+                        pattern != null ? pattern.toString() : request.getRequestURI(),
+                        client instanceof ApiClient apiClient ? apiClient.getClientName() : null,
+                        response.getStatus());
+            }
+        }
+    }
+}
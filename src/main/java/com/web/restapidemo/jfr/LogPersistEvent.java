@@ -0,0 +1,27 @@
+package com.web.restapidemo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("restapidemo.LogPersist")
+@Label("Request Log Insert")
+@Category({"REST API Demo", "Data"})
+public class LogPersistEvent extends Event {
+
+    @Label("Shard")
+    String shard;
+
+    @Label("Failed")
+    boolean failed;
+
+    public void finish(String shard, boolean failed) {
+        end();
+        if (shouldCommit()) {
+            this.shard = shard;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.web.restapidemo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("restapidemo.RepositoryCall")
+@Label("Repository Call")
+@Category({"REST API Demo", "Data"})
+public class RepositoryCallEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Failed")
+    boolean failed;
+
+    public void finish(String method, boolean failed) {
+        end();
+        if (shouldCommit()) {
+            this.method = method;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.web.restapidemo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One HTTP request from the first dispatch to the end of the last one (async requests
+ * span several threads; the event is committed on the final one)
+ */
+@Name("restapidemo.Request")
+@Label("HTTP Request")
+@Category({"REST API Demo", "HTTP"})
+@Description("Servlet request lifecycle")
+public class RequestEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Route")
+    @Description("Matched route template, or the raw path when no handler matched")
+    String route;
+
+    @Label("Client")
+    String client;
+
+    @Label("Status")
+    int status;
+
+    public void finish(String method, String route, String client, int status) {
+        end();
+        if (shouldCommit()) {
+            this.method = method;
+            this.route = route;
+            this.client = client;
+            this.status = status;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.web.restapidemo.logstore;
+
+import com.web.restapidemo.datasource.QueryDeadline;
+import com.web.restapidemo.datasource.TelemetryWriter;
+import com.web.restapidemo.entity.LogEntry;
+import com.web.restapidemo.jfr.LogPersistEvent;
+import com.web.restapidemo.metrics.TimingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * api_log over one or more databases. Inserts go to one shard chosen by time bucket or
+ * client IP hash; queries run on every relevant shard in parallel, each sorted newest first
+ * with the limit pushed down, and are merged into one newest-first list of at most limit rows.
+ * Without configured shards the main database is the only shard: inserts use the telemetry
+ * pool, reads a read-only transaction so the routing data source can send them to the replica.
+ * Plain JDBC: shards are not part of the JPA persistence unit.
+ */
+@Slf4j
+public class ShardedLogStore implements AutoCloseable {
+
+    private static final String COLUMNS = "id, timestamp, method, uri, request_body, response_status, response_body, "
+            + "execution_time_ms, client_ip, user_agent, auth_time_us, db_wait_time_us, sql_time_us, "
+            + "sql_statement_count, serialization_time_us, timing_detail";
+
+    private static final String INSERT = "INSERT INTO api_log (timestamp, method, uri, request_body, response_status, "
+            + "response_body, execution_time_ms, client_ip, user_agent, auth_time_us, db_wait_time_us, sql_time_us, "
+            + "sql_statement_count, serialization_time_us, timing_detail) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Same shape as the JPA mapping of LogEntry; TEXT and DATETIME(6) are accepted by MySQL and H2
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS api_log ("
+            + "id BIGINT AUTO_INCREMENT PRIMARY KEY, timestamp DATETIME(6) NOT NULL, method VARCHAR(10), "
+            + "uri VARCHAR(500), request_body TEXT, response_status INT, response_body TEXT, execution_time_ms BIGINT, "
+            + "client_ip VARCHAR(50), user_agent VARCHAR(500), auth_time_us BIGINT, db_wait_time_us BIGINT, "
+            + "sql_time_us BIGINT, sql_statement_count INT, serialization_time_us BIGINT, timing_detail TEXT)";
+
+    private static final String CREATE_INDEX = "CREATE INDEX idx_api_log_timestamp ON api_log (timestamp)";
+
+    private static final Comparator<LogEntry> NEWEST_FIRST =
+            Comparator.comparing(LogEntry::getTimestamp, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private static final RowMapper<LogEntry> ROW_MAPPER = (rs, rowNum) -> LogEntry.builder()
+            .id(rs.getLong("id"))
+            .timestamp(rs.getObject("timestamp", LocalDateTime.class))
+            .method(rs.getString("method"))
+            .uri(rs.getString("uri"))
+            .requestBody(rs.getString("request_body"))
+            .responseStatus(rs.getObject("response_status", Integer.class))
+            .responseBody(rs.getString("response_body"))
+            .executionTimeMs(rs.getObject("execution_time_ms", Long.class))
+            .clientIp(rs.getString("client_ip"))
+            .userAgent(rs.getString("user_agent"))
+            .authTimeUs(rs.getObject("auth_time_us", Long.class))
+            .dbWaitTimeUs(rs.getObject("db_wait_time_us", Long.class))
+            .sqlTimeUs(rs.getObject("sql_time_us", Long.class))
+            .sqlStatementCount(rs.getObject("sql_statement_count", Integer.class))
+            .serializationTimeUs(rs.getObject("serialization_time_us", Long.class))
+            .timingDetail(rs.getString("timing_detail"))
+            .build();
+
+    private record Shard(String name, JdbcTemplate jdbc, TransactionTemplate readTx, Consumer<Object[]> insert,
+                         AtomicLong writes, AtomicLong writeFailures) {
+    }
+
+    private final List<Shard> shards = new ArrayList<>();
+    private final List<HikariDataSource> ownedPools = new ArrayList<>();
+    private final LogShardProperties.Strategy strategy;
+    private final long bucketSeconds;
+    private final ExecutorService queryExecutor;
+
+    /**
+     * @param mainDataSource         reads of the single shard when none are configured
+     * @param mainTransactionManager read-only transactions for the single-shard case
+     * @param telemetryWriter        inserts of the single shard
+     */
+    public ShardedLogStore(LogShardProperties properties, DataSource mainDataSource,
+                           PlatformTransactionManager mainTransactionManager, TelemetryWriter telemetryWriter) {
+        this.strategy = properties.getStrategy();
+        this.bucketSeconds = Math.max(1, properties.getTimeBucketHours()) * 3600L;
+
+        if (properties.getShards().isEmpty()) {
+            TransactionTemplate readTx = new TransactionTemplate(mainTransactionManager);
+            readTx.setReadOnly(true);
+            shards.add(new Shard("main", new JdbcTemplate(mainDataSource), readTx,
+                    args -> telemetryWriter.update(INSERT, args), new AtomicLong(), new AtomicLong()));
+        } else {
+            for (LogShardProperties.Shard config : properties.getShards()) {
+                String name = config.getName() != null ? config.getName() : "log-shard-" + shards.size();
+                HikariDataSource pool = new HikariDataSource();
+                pool.setPoolName(name);
+                pool.setJdbcUrl(config.getJdbcUrl());
+                pool.setUsername(config.getUsername());
+                pool.setPassword(config.getPassword());
+                pool.setMaximumPoolSize(config.getMaximumPoolSize());
+                ownedPools.add(pool);
+                // Timing wrapper: shard statements run under the request's query budget too
+                DataSource dataSource = new TimingDataSource(pool);
+                JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+                TransactionTemplate readTx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+                readTx.setReadOnly(true);
+                shards.add(new Shard(name, jdbc, readTx, args -> jdbc.update(INSERT, args),
+                        new AtomicLong(), new AtomicLong()));
+                if (properties.isInitSchema()) {
+                    initSchema(name, jdbc);
+                }
+            }
+        }
+
+        int threads = Math.max(1, Math.min(properties.getQueryThreads(), shards.size() * 4));
+        queryExecutor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "log-shard-query");
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("api_log store: {} shard(s) {}, routing by {}", shards.size(),
+                shards.stream().map(Shard::name).toList(), strategy);
+    }
+
+    private static void initSchema(String name, JdbcTemplate jdbc) {
+        jdbc.execute(CREATE_TABLE);
+        try {
+            jdbc.execute(CREATE_INDEX);
+        } catch (DataAccessException e) {
+            // Neither MySQL nor H2 (in every mode) accepts CREATE INDEX IF NOT EXISTS; assume it exists
+            log.debug("api_log index on {} not created: {}", name, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        queryExecutor.shutdownNow();
+        ownedPools.forEach(HikariDataSource::close);
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public boolean isSharded() {
+        return !ownedPools.isEmpty();
+    }
+
+    public void save(LogEntry entry) {
+        Shard shard = shards.get(shardFor(entry));
+        LogPersistEvent event = new LogPersistEvent();
+        event.begin();
+        try {
+            shard.insert().accept(new Object[]{entry.getTimestamp(), entry.getMethod(), entry.getUri(),
+                    entry.getRequestBody(), entry.getResponseStatus(), entry.getResponseBody(),
+                    entry.getExecutionTimeMs(), entry.getClientIp(), entry.getUserAgent(), entry.getAuthTimeUs(), entry.getDbWaitTimeUs(), entry.getSqlTimeUs(),
+                    entry.getSqlStatementCount(), entry.getSerializationTimeUs(), entry.getTimingDetail()});
+            shard.writes().incrementAndGet();
+            event.finish(shard.name(), false);
+        } catch (RuntimeException e) {
+            shard.writeFailures().incrementAndGet();
+            event.finish(shard.name(), true);
+            throw e;
+        }
+    }
+
+    int shardFor(LogEntry entry) {
+        if (shards.size() == 1) {
+            return 0;
+        }
+        if (strategy == LogShardProperties.Strategy.CLIENT) {
+            String ip = entry.getClientIp() != null ? entry.getClientIp() : "";
+            return Math.floorMod(ip.hashCode(), shards.size());
+        }
+        LocalDateTime timestamp = entry.getTimestamp() != null ? entry.getTimestamp() : LocalDateTime.now();
+        return bucketShard(bucket(timestamp));
+    }
+
+    private long bucket(LocalDateTime timestamp) {
+        return Math.floorDiv(timestamp.toEpochSecond(ZoneOffset.UTC), bucketSeconds);
+    }
+
+    private int bucketShard(long bucket) {
+        return (int) Math.floorMod(bucket, (long) shards.size());
+    }
+
+    // Time routing: only the shards whose buckets overlap [start, end]
+    private Collection<Shard> shardsFor(LocalDateTime start, LocalDateTime end) {
+        if (strategy != LogShardProperties.Strategy.TIME || shards.size() == 1) {
+            return shards;
+        }
+        long first = bucket(start);
+        long last = bucket(end);
+        if (last < first || last - first + 1 >= shards.size()) {
+            return last < first ? List.of() : shards;
+        }
+        Set<Shard> covered = new LinkedHashSet<>();
+        for (long b = first; b <= last; b++) {
+            covered.add(shards.get(bucketShard(b)));
+        }
+        return covered;
+    }
+
+    public List<LogEntry> search(String keyword, int limit) {
+        String pattern = "%" + keyword + "%";
+        return query(shards, "uri LIKE ? OR request_body LIKE ?", limit, pattern, pattern);
+    }
+
+    public List<LogEntry> findByDateRange(LocalDateTime start, LocalDateTime end, int limit) {
+        return query(shardsFor(start, end), "timestamp BETWEEN ? AND ?", limit, start, end);
+    }
+
+    public List<LogEntry> findSlowerThan(long thresholdMs, int limit) {
+        return query(shards, "execution_time_ms > ?", limit, thresholdMs);
+    }
+
+    public List<LogEntry> findByMethod(String method, int limit) {
+        return query(shards, "method = ?", limit, method);
+    }
+
+    public List<LogEntry> findByStatus(int status, int limit) {
+        return query(shards, "response_status = ?", limit, status);
+    }
+
+    private List<LogEntry> query(Collection<Shard> targets, String where, int limit, Object... args) {
+        String sql = "SELECT " + COLUMNS + " FROM api_log WHERE " + where + " ORDER BY timestamp DESC LIMIT ?";
+        Object[] params = Arrays.copyOf(args, args.length + 1);
+        params[args.length] = limit;
+        if (targets.isEmpty()) {
+            return List.of();
+        }
+        if (targets.size() == 1) {
+            Shard shard = targets.iterator().next();
+            return shard.readTx().execute(status -> shard.jdbc().query(sql, ROW_MAPPER, params));
+        }
+
+        // Workers run the caller's query budget so a slow shard is cancelled like any other statement
+        QueryDeadline deadline = QueryDeadline.current();
+        List<Future<List<LogEntry>>> futures = new ArrayList<>(targets.size());
+        for (Shard shard : targets) {
+            futures.add(queryExecutor.submit(() -> {
+                QueryDeadline.bind(deadline);
+                try {
+                    return shard.readTx().execute(status -> shard.jdbc().query(sql, ROW_MAPPER, params));
+                } finally {
+                    QueryDeadline.clear();
+                }
+            }));
+        }
+        List<List<LogEntry>> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<List<LogEntry>> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying log shards", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Log shard query failed", e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return mergeNewestFirst(results, limit);
+    }
+
+    /**
+     * k-way merge of lists that are each sorted newest first, keeping the first limit rows
+     */
+    static List<LogEntry> mergeNewestFirst(List<List<LogEntry>> sorted, int limit) {
+        record Cursor(List<LogEntry> rows, int index) {
+            LogEntry head() {
+                return rows.get(index);
+            }
+        }
+        PriorityQueue<Cursor> heap = new PriorityQueue<>(Math.max(1, sorted.size()),
+                (a, b) -> NEWEST_FIRST.compare(a.head(), b.head()));
+        for (List<LogEntry> rows : sorted) {
+            if (!rows.isEmpty()) {
+                heap.add(new Cursor(rows, 0));
+            }
+        }
+        List<LogEntry> merged = new ArrayList<>(Math.min(limit, sorted.stream().mapToInt(List::size).sum()));
+        while (merged.size() < limit && !heap.isEmpty()) {
+            Cursor cursor = heap.poll();
+            merged.add(cursor.head());
+            if (cursor.index() + 1 < cursor.rows().size()) {
+                heap.add(new Cursor(cursor.rows(), cursor.index() + 1));
+            }
+        }
+        return merged;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("strategy", strategy);
+        Map<String, Object> perShard = new LinkedHashMap<>();
+        for (Shard shard : shards) {
+            perShard.put(shard.name(), Map.of("writes", shard.writes().get(), "writeFailures", shard.writeFailures().get()));
+        }
+        stats.put("shards", perShard);
+        return stats;
+    }
+}
@@ -0,0 +1,156 @@
+package com.web.restapidemo.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per repository method call counts and latency histograms, plus requests that went over
+ * the SQL statement budget (likely N+1), attributed to their handler.
+ */
+@Component
+public class RepositoryInstrumentation {
+
+    private static final int MAX_FLAGGED = 100;
+
+    @Value("${app.instrumentation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.instrumentation.statement-budget:20}")
+    private int statementBudget;
+
+    private final Map<String, MethodStats> methods = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> overBudgetByHandler = new ConcurrentHashMap<>();
+    private final Deque<Map<String, Object>> flagged = new ArrayDeque<>();
+
+    /**
+     * Lock-free stats with a log2 histogram of microseconds (bucket i holds [2^(i-1), 2^i) us)
+     */
+    private static final class MethodStats {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(40);
+
+        void record(long nanos, boolean failed) {
+            calls.increment();
+            if (failed) {
+                errors.increment();
+            }
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+            int bucket = Math.min(64 - Long.numberOfLeadingZeros(micros), histogram.length() - 1);
+            histogram.incrementAndGet(bucket);
+        }
+
+        Map<String, Object> describe() {
+            long count = calls.sum();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("calls", count);
+            stats.put("errors", errors.sum());
+            stats.put("meanUs", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalNanos.sum() / count));
+            stats.put("p50Us", percentile(count, 0.50));
+            stats.put("p95Us", percentile(count, 0.95));
+            stats.put("p99Us", percentile(count, 0.99));
+            stats.put("maxUs", TimeUnit.NANOSECONDS.toMicros(maxNanos.get()));
+            return stats;
+        }
+
+        // Upper bound of the bucket holding the requested rank
+        private long percentile(long count, double p) {
+            long rank = (long) Math.ceil(count * p);
+            long seen = 0;
+            for (int i = 0; i < histogram.length(); i++) {
+                seen += histogram.get(i);
+                if (seen >= rank && seen > 0) {
+                    return 1L << i;
+                }
+            }
+            return 0;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void recordInvocation(String repositoryMethod, long nanos, boolean failed) {
+        methods.computeIfAbsent(repositoryMethod, key -> new MethodStats()).record(nanos, failed);
+    }
+
+    /**
+     * Flag the request if it ran more statements than the budget allows
+     */
+    public void checkStatementBudget(String handler, String method, String uri, RequestTimings timings) {
+        if (timings.getStatementCount() <= statementBudget) {
+            return;
+        }
+        overBudgetByHandler.computeIfAbsent(handler, key -> new LongAdder()).increment();
+
+        Map<String, Integer> repeated = new TreeMap<>();
+        for (RequestTimings.StatementTiming statement : timings.getStatements()) {
+            if (statement.sql() != null) {
+                repeated.merge(statement.sql(), 1, Integer::sum);
+            }
+        }
+        repeated.values().removeIf(times -> times < 2);
+
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("timestamp", LocalDateTime.now());
+        entry.put("handler", handler);
+        entry.put("request", method + " " + uri);
+        entry.put("statements", timings.getStatementCount());
+        entry.put("repositoryCalls", timings.getRepositoryCalls());
+        entry.put("repeatedStatements", repeated);
+        synchronized (flagged) {
+            if (flagged.size() >= MAX_FLAGGED) {
+                flagged.removeFirst();
+            }
+            flagged.addLast(entry);
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> repositories = new TreeMap<>();
+        methods.forEach((name, stats) -> repositories.put(name, stats.describe()));
+
+        Map<String, Long> byHandler = new TreeMap<>();
+        overBudgetByHandler.forEach((handler, count) -> byHandler.put(handler, count.sum()));
+
+        List<Map<String, Object>> recent;
+        synchronized (flagged) {
+            recent = new ArrayList<>(flagged);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("statementBudget", statementBudget);
+        result.put("repositories", repositories);
+        result.put("overBudgetByHandler", byHandler);
+        result.put("recentOverBudget", recent);
+        return result;
+    }
+
+    public void reset() {
+        methods.clear();
+        overBudgetByHandler.clear();
+        synchronized (flagged) {
+            flagged.clear();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.web.restapidemo.metrics;
+
+import com.web.restapidemo.jfr.RepositoryCallEvent;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Times every call on a Spring Data repository proxy (also as a RepositoryCallEvent for JFR)
+ */
+public class RepositoryInvocationInterceptor implements MethodInterceptor {
+
+    private final String repositoryName;
+    private final ObjectProvider<RepositoryInstrumentation> instrumentationProvider;
+    private volatile RepositoryInstrumentation instrumentation;
+
+    public RepositoryInvocationInterceptor(String repositoryName, ObjectProvider<RepositoryInstrumentation> instrumentation) {
+        this.repositoryName = repositoryName;
+        this.instrumentationProvider = instrumentation;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String key = repositoryName + "." + invocation.getMethod().getName();
+        RequestTimings.recordRepositoryCall(key);
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            instrumentation().recordInvocation(key, System.nanoTime() - start, failed);
+            event.finish(key, failed);
+        }
+    }
+
+    // Resolved on first use: repositories are created before the instrumentation bean
+    private RepositoryInstrumentation instrumentation() {
+        RepositoryInstrumentation resolved = instrumentation;
+        if (resolved == null) {
+            resolved = instrumentationProvider.getObject();
+            instrumentation = resolved;
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,103 @@
+package com.web.restapidemo.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.web.restapidemo.entity.LogEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copies a request's phase breakdown onto its LogEntry and into Micrometer.
+ * Every request updates counters and timers; only requests slower than the threshold
+ * get the per-statement detail rendered and stored.
+ */
+@Component
+@Slf4j
+public class RequestPhaseRecorder {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.timing.slow-threshold-ms:500}")
+    private long slowThresholdMs;
+
+    private Timer authTimer;
+    private Timer connectionWaitTimer;
+    private Timer sqlTimer;
+    private Timer serializationTimer;
+    private DistributionSummary statementsPerRequest;
+    private Counter slowRequests;
+
+    @PostConstruct
+    void registerMeters() {
+        authTimer = phaseTimer("auth");
+        connectionWaitTimer = phaseTimer("db.connection.wait");
+        sqlTimer = phaseTimer("db.sql");
+        serializationTimer = phaseTimer("serialization");
+        statementsPerRequest = DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("SQL statements executed per request")
+                .register(meterRegistry);
+        slowRequests = Counter.builder("http.server.requests.slow")
+                .description("Requests above app.timing.slow-threshold-ms (sampled with full detail)")
+                .register(meterRegistry);
+    }
+
+    private Timer phaseTimer(String phase) {
+        return Timer.builder("http.server.requests.phase")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
+    public void apply(LogEntry logEntry, RequestTimings timings, long executionTimeMs) {
+        logEntry.setAuthTimeUs(TimeUnit.NANOSECONDS.toMicros(timings.getAuthNanos()));
+        logEntry.setDbWaitTimeUs(TimeUnit.NANOSECONDS.toMicros(timings.getConnectionWaitNanos()));
+        logEntry.setSqlTimeUs(TimeUnit.NANOSECONDS.toMicros(timings.getSqlNanos()));
+        logEntry.setSqlStatementCount(timings.getStatementCount());
+        logEntry.setSerializationTimeUs(TimeUnit.NANOSECONDS.toMicros(timings.getSerializationNanos()));
+
+        authTimer.record(timings.getAuthNanos(), TimeUnit.NANOSECONDS);
+        connectionWaitTimer.record(timings.getConnectionWaitNanos(), TimeUnit.NANOSECONDS);
+        sqlTimer.record(timings.getSqlNanos(), TimeUnit.NANOSECONDS);
+        serializationTimer.record(timings.getSerializationNanos(), TimeUnit.NANOSECONDS);
+        statementsPerRequest.record(timings.getStatementCount());
+
+        if (executionTimeMs >= slowThresholdMs) {
+            slowRequests.increment();
+            logEntry.setTimingDetail(renderDetail(timings));
+        }
+    }
+
+    private String renderDetail(RequestTimings timings) {
+        Map<String, Object> detail = new LinkedHashMap<>();
+        detail.put("connections", timings.getConnectionCount());
+        List<Map<String, Object>> statements = timings.getStatements().stream()
+                .map(statement -> {
+                    Map<String, Object> item = new LinkedHashMap<>();
+                    item.put("sql", statement.sql());
+                    item.put("us", TimeUnit.NANOSECONDS.toMicros(statement.nanos()));
+                    return item;
+                })
+                .toList();
+        detail.put("statements", statements);
+        try {
+            return objectMapper.writeValueAsString(detail);
+        } catch (Exception e) {
+            log.warn("Could not render timing detail", e);
+            return null;
+        }
+    }
+}
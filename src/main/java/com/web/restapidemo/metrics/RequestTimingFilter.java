@@ -0,0 +1,44 @@
+package com.web.restapidemo.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds a RequestTimings to the request thread for the whole servlet chain. Async requests
+ * (bulkhead endpoints, SSE) keep the same instance across their dispatches.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    private static final String ATTRIBUTE = RequestTimings.class.getName();
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTimings timings = (RequestTimings) request.getAttribute(ATTRIBUTE);
+        if (timings == null) {
+            request.setAttribute(ATTRIBUTE, RequestTimings.start());
+        } else {
+            RequestTimings.bind(timings);
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTimings.clear();
+        }
+    }
+}
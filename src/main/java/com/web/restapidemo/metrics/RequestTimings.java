@@ -0,0 +1,165 @@
+package com.web.restapidemo.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-request phase counters, bound to the request thread by RequestTimingFilter.
+ * Static recorders are no-ops outside a request (scheduled jobs, startup).
+ * Not thread-safe: an async request hands it from thread to thread, never sharing it.
+ * Parts of a request running in parallel (batch items) each record into their own
+ * unbound() timings, which the request adds to its own once they are finished.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+    private static final int MAX_STATEMENTS = 50;
+
+    public record StatementTiming(String sql, long nanos) {
+    }
+
+    private final long startNanos = System.nanoTime();
+    private long authNanos;
+    private long connectionWaitNanos;
+    private int connectionCount;
+    private long sqlNanos;
+    private int statementCount;
+    private long serializationNanos;
+    private final List<StatementTiming> statements = new ArrayList<>();
+    private Map<String, Integer> repositoryCalls;
+
+    public static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    /**
+     * Timings not bound to any thread, for one parallel part of a request
+     */
+    public static RequestTimings unbound() {
+        return new RequestTimings();
+    }
+
+    /**
+     * Continue an existing request on another thread (bulkhead worker, async dispatch)
+     */
+    public static void bind(RequestTimings timings) {
+        CURRENT.set(timings);
+    }
+
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static void recordAuth(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.authNanos += nanos;
+        }
+    }
+
+    public static void recordConnectionWait(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.connectionWaitNanos += nanos;
+            timings.connectionCount++;
+        }
+    }
+
+    public static void recordStatement(String sql, long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.sqlNanos += nanos;
+            timings.statementCount++;
+            // Keep only references; the detail is rendered only if the request turns out slow
+            if (timings.statements.size() < MAX_STATEMENTS) {
+                timings.statements.add(new StatementTiming(sql, nanos));
+            }
+        }
+    }
+
+    public static void recordRepositoryCall(String repositoryMethod) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            if (timings.repositoryCalls == null) {
+                timings.repositoryCalls = new HashMap<>();
+            }
+            timings.repositoryCalls.merge(repositoryMethod, 1, Integer::sum);
+        }
+    }
+
+    public static void recordSerialization(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.serializationNanos += nanos;
+        }
+    }
+
+    /**
+     * Add the counters of a finished part; elapsed time stays the request's own
+     */
+    public void add(RequestTimings part) {
+        authNanos += part.authNanos;
+        connectionWaitNanos += part.connectionWaitNanos;
+        connectionCount += part.connectionCount;
+        sqlNanos += part.sqlNanos;
+        statementCount += part.statementCount;
+        serializationNanos += part.serializationNanos;
+        for (StatementTiming statement : part.statements) {
+            if (statements.size() >= MAX_STATEMENTS) {
+                break;
+            }
+            statements.add(statement);
+        }
+        if (part.repositoryCalls != null) {
+            if (repositoryCalls == null) {
+                repositoryCalls = new HashMap<>();
+            }
+            part.repositoryCalls.forEach((method, calls) -> repositoryCalls.merge(method, calls, Integer::sum));
+        }
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public long getAuthNanos() {
+        return authNanos;
+    }
+
+    public long getConnectionWaitNanos() {
+        return connectionWaitNanos;
+    }
+
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    public long getSqlNanos() {
+        return sqlNanos;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getSerializationNanos() {
+        return serializationNanos;
+    }
+
+    public Map<String, Integer> getRepositoryCalls() {
+        return repositoryCalls != null ? Collections.unmodifiableMap(repositoryCalls) : Collections.emptyMap();
+    }
+
+    public List<StatementTiming> getStatements() {
+        return Collections.unmodifiableList(statements);
+    }
+}
@@ -0,0 +1,26 @@
+package com.web.restapidemo.reactive;
+
+import com.web.restapidemo.entity.ApiClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class ReactiveApiClientRepository {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Mono<ApiClient> findByApiKey(String apiKey) {
+        return databaseClient.sql("SELECT id, client_name, status, client_type FROM api_client WHERE api_key = :apiKey")
+                .bind("apiKey", apiKey)
+                .map(row -> ApiClient.builder()
+                        .id(row.get("id", Long.class))
+                        .clientName(row.get("client_name", String.class))
+                        .status(row.get("status", String.class))
+                        .clientType(row.get("client_type", String.class))
+                        .build())
+                .one();
+    }
+}
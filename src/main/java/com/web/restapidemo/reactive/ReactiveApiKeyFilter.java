@@ -0,0 +1,112 @@
+package com.web.restapidemo.reactive;
+
+import com.web.restapidemo.entity.ApiClient;
+import com.web.restapidemo.interceptor.PenaltyBox;
+import com.web.restapidemo.service.ApiClientService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Non-blocking port of ApiKeyInterceptor for the reactive read server. Shares its penalty box
+ * and issued-key filter, so only keys that pass both reach the R2DBC lookup.
+ */
+@Component
+@Slf4j
+public class ReactiveApiKeyFilter implements WebFilter {
+
+    private static final String API_KEY_HEADER = "X-API-Key";
+
+    @Autowired
+    private ReactiveApiClientRepository apiClientRepository;
+
+    @Autowired
+    private ApiClientService apiClientService;
+
+    @Autowired
+    private PenaltyBox penaltyBox;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+
+        // IPs that recently sent many invalid keys are turned away before any lookup
+        String clientIp = clientIp(request);
+        long penaltyMs = penaltyBox.remainingMs(clientIp);
+        if (penaltyMs > 0) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf((penaltyMs + 999) / 1000));
+            return write(response,
+                    "{\"error\":\"Too many invalid API keys\",\"message\":\"Retry after the Retry-After delay\"}");
+        }
+
+        String apiKey = request.getHeaders().getFirst(API_KEY_HEADER);
+
+        if (apiKey == null || apiKey.isEmpty()) {
+            log.warn("API key missing for request: {} {}", request.getMethod(), path);
+            return unauthorized(exchange.getResponse(),
+                    "{\"error\":\"Missing API key\",\"message\":\"Please provide X-API-Key header\"}");
+        }
+
+        // Random keys from credential stuffing end here instead of in findByApiKey
+        if (!apiClientService.passesKeyFilter(apiKey)) {
+            return invalidKey(exchange.getResponse(), clientIp, apiKey);
+        }
+
+        return apiClientRepository.findByApiKey(apiKey)
+                .filter(client -> "ACTIVE".equals(client.getStatus()))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(clientOptional -> {
+                    if (clientOptional.isEmpty()) {
+                        return invalidKey(exchange.getResponse(), clientIp, apiKey);
+                    }
+                    ApiClient client = clientOptional.get();
+                    exchange.getAttributes().put("apiClient", client);
+                    apiClientService.recordUsage(client.getId());
+                    return chain.filter(exchange);
+                });
+    }
+
+    private String clientIp(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        // Unix-socket or mocked requests have no address; they share one penalty slot
+        String remoteAddr = remote == null ? "unknown"
+                : remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+        return penaltyBox.clientIp(request.getHeaders().getFirst("X-Forwarded-For"), remoteAddr);
+    }
+
+    private Mono<Void> invalidKey(ServerHttpResponse response, String clientIp, String apiKey) {
+        penaltyBox.recordFailure(clientIp);
+        log.warn("Invalid API key attempted: {}", apiKey.substring(0, Math.min(apiKey.length(), 8)) + "...");
+        return unauthorized(response,
+                "{\"error\":\"Invalid API key\",\"message\":\"The provided API key is invalid or inactive\"}");
+    }
+
+    private Mono<Void> unauthorized(ServerHttpResponse response, String body) {
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        return write(response, body);
+    }
+
+    private Mono<Void> write(ServerHttpResponse response, String body) {
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(buffer));
+    }
+}
@@ -0,0 +1,47 @@
+package com.web.restapidemo.reactive;
+
+import com.web.restapidemo.entity.Film;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterparts of FilmController's read endpoints, returning the same JSON
+ */
+@Component
+public class ReactiveFilmHandler {
+
+    @Autowired
+    private ReactiveFilmRepository filmRepository;
+
+    public Mono<ServerResponse> getAllFilms(ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(filmRepository.findAll(), Film.class);
+    }
+
+    public Mono<ServerResponse> getFilmById(ServerRequest request) {
+        Integer id;
+        try {
+            id = Integer.valueOf(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().build();
+        }
+        return filmRepository.findById(id)
+                .flatMap(film -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(film))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    public Mono<ServerResponse> searchFilmsByTitle(ServerRequest request) {
+        return request.queryParam("title")
+                .map(title -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(filmRepository.findByTitleContainingIgnoreCase(title), Film.class))
+                .orElseGet(() -> ServerResponse.badRequest().build());
+    }
+}
@@ -0,0 +1,80 @@
+package com.web.restapidemo.reactive;
+
+import com.web.restapidemo.entity.Film;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.Year;
+
+/**
+ * Film reads over R2DBC, mapped onto the same Film type the JPA path returns
+ */
+@Repository
+public class ReactiveFilmRepository {
+
+    private static final String SELECT_FILM = "SELECT film_id, title, description, release_year, language_id, "
+            + "original_language_id, rental_duration, rental_rate, length, replacement_cost, rating, "
+            + "special_features, last_update FROM film";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Flux<Film> findAll() {
+        return databaseClient.sql(SELECT_FILM)
+                .map(this::toFilm)
+                .all();
+    }
+
+    public Mono<Film> findById(Integer id) {
+        return databaseClient.sql(SELECT_FILM + " WHERE film_id = :id")
+                .bind("id", id)
+                .map(this::toFilm)
+                .one();
+    }
+
+    public Flux<Film> findByTitleContainingIgnoreCase(String title) {
+        return databaseClient.sql(SELECT_FILM + " WHERE UPPER(title) LIKE UPPER(:pattern)")
+                .bind("pattern", "%" + escapeLike(title) + "%")
+                .map(this::toFilm)
+                .all();
+    }
+
+    private Film toFilm(Readable row) {
+        Film film = new Film();
+        film.setFilmId(toInteger(row.get("film_id")));
+        film.setTitle(row.get("title", String.class));
+        film.setDescription(row.get("description", String.class));
+        film.setReleaseYear(toInteger(row.get("release_year")));
+        film.setLanguageId(toInteger(row.get("language_id")));
+        film.setOriginalLanguageId(toInteger(row.get("original_language_id")));
+        film.setRentalDuration(toInteger(row.get("rental_duration")));
+        film.setRentalRate(row.get("rental_rate", BigDecimal.class));
+        film.setLength(toInteger(row.get("length")));
+        film.setReplacementCost(row.get("replacement_cost", BigDecimal.class));
+        film.setRating(row.get("rating", String.class));
+        film.setSpecialFeatures(row.get("special_features", String.class));
+        film.setLastUpdate(row.get("last_update", LocalDateTime.class));
+        return film;
+    }
+
+    // Unsigned TINYINT/SMALLINT and YEAR columns decode to different numeric types
+    private Integer toInteger(Object value) {
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        if (value instanceof Year year) {
+            return year.getValue();
+        }
+        return null;
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,109 @@
+package com.web.restapidemo.reactive;
+
+import com.web.restapidemo.accesslog.AccessLogEvent;
+import com.web.restapidemo.entity.ApiClient;
+import com.web.restapidemo.entity.LogEntry;
+import com.web.restapidemo.service.ClientCardinalityService;
+import com.web.restapidemo.service.HeavyHitterService;
+import com.web.restapidemo.service.LogService;
+import com.web.restapidemo.service.LogTailService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking port of LoggingInterceptor. The api_log insert is queued on the telemetry
+ * writer like the servlet path's, so it never holds an R2DBC connection that reads need.
+ */
+@Component
+public class ReactiveLoggingFilter implements WebFilter {
+
+    private static final Logger accessLog = LoggerFactory.getLogger("ACCESS");
+
+    @Autowired
+    private LogService logService;
+
+    @Autowired
+    private LogTailService logTailService;
+
+    @Autowired
+    private HeavyHitterService heavyHitterService;
+
+    @Autowired
+    private ClientCardinalityService clientCardinalityService;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long startTime = System.currentTimeMillis();
+        return chain.filter(exchange)
+                .doFinally(signal -> saveLog(exchange, System.currentTimeMillis() - startTime));
+    }
+
+    private void saveLog(ServerWebExchange exchange, long executionTime) {
+        ServerHttpRequest request = exchange.getRequest();
+        String method = request.getMethod().name();
+        String uri = request.getPath().value();
+        String queryString = request.getURI().getRawQuery();
+        if (queryString != null) {
+            uri += "?" + queryString;
+        }
+
+        int statusCode = exchange.getResponse().getStatusCode() != null
+                ? exchange.getResponse().getStatusCode().value() : 200;
+        String apiKey = request.getHeaders().getFirst("X-API-Key");
+        Object apiClientObj = exchange.getAttribute("apiClient");
+        String clientName = apiClientObj instanceof ApiClient apiClient ? apiClient.getClientName() : "UNKNOWN";
+
+        String clientIp = getClientIp(request);
+        String userAgent = request.getHeaders().getFirst("User-Agent");
+        accessLog.info("{}", new AccessLogEvent(System.currentTimeMillis(), clientName, method, uri,
+                statusCode, executionTime, clientIp, userAgent));
+
+        LogEntry logEntry = LogEntry.builder()
+                .timestamp(LocalDateTime.now())
+                .method(method)
+                .uri(uri)
+                .requestBody(apiKey != null ? "API Key: " + apiKey.substring(0, Math.min(8, apiKey.length())) + "..." : "")
+                .responseStatus(statusCode)
+                .responseBody("")
+                .executionTimeMs(executionTime)
+                .clientIp(clientIp)
+                .userAgent(userAgent)
+                .build();
+
+        logService.saveLog(logEntry);
+        logTailService.publish(clientName, logEntry);
+
+        Object pattern = exchange.getAttribute(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE);
+        heavyHitterService.record(pattern != null ? pattern.toString() : request.getPath().value(),
+                clientName, logEntry.getClientIp(), statusCode);
+        if (apiClientObj instanceof ApiClient apiClient) {
+            clientCardinalityService.record(apiClient.getId(), logEntry.getClientIp(), logEntry.getUserAgent());
+        }
+    }
+
+    private String getClientIp(ServerHttpRequest request) {
+        String ip = request.getHeaders().getFirst("X-Forwarded-For");
+        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
+            ip = request.getHeaders().getFirst("Proxy-Client-IP");
+        }
+        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
+            ip = request.getHeaders().getFirst("WL-Proxy-Client-IP");
+        }
+        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
+            InetSocketAddress remoteAddress = request.getRemoteAddress();
+            ip = remoteAddress != null ? remoteAddress.getAddress().getHostAddress() : null;
+        }
+        return ip;
+    }
+}
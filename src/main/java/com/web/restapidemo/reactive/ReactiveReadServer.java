@@ -0,0 +1,96 @@
+package com.web.restapidemo.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Serves the film read endpoints on a separate Netty port with a small event-loop pool,
+ * next to the servlet stack. Paths and JSON match FilmController so clients only switch port.
+ */
+@Component
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+@Slf4j
+public class ReactiveReadServer implements SmartLifecycle {
+
+    @Autowired
+    private ReactiveFilmHandler filmHandler;
+
+    @Autowired
+    private ReactiveApiKeyFilter apiKeyFilter;
+
+    @Autowired
+    private ReactiveLoggingFilter loggingFilter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.reactive.port:8081}")
+    private int port;
+
+    @Value("${app.reactive.event-loop-threads:2}")
+    private int eventLoopThreads;
+
+    private LoopResources loopResources;
+    private volatile DisposableServer server;
+
+    @Override
+    public void start() {
+        RouterFunction<ServerResponse> routes = RouterFunctions.route()
+                .GET("/api/films/search", filmHandler::searchFilmsByTitle)
+                .GET("/api/films/{id}", filmHandler::getFilmById)
+                .GET("/api/films", filmHandler::getAllFilms)
+                .build();
+
+        // Filters run in registration order: API key first, then logging (as in WebConfig)
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper, MediaType.APPLICATION_JSON));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper, MediaType.APPLICATION_JSON));
+                })
+                .webFilter(apiKeyFilter)
+                .webFilter(loggingFilter)
+                .build();
+
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(routes, strategies);
+        loopResources = LoopResources.create("reactive-read", eventLoopThreads, true);
+        server = HttpServer.create()
+                .port(port)
+                .runOn(loopResources)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Reactive film read API started on port {} with {} event-loop threads", port, eventLoopThreads);
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+            server = null;
+        }
+        if (loopResources != null) {
+            loopResources.disposeLater().block();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.web.restapidemo.readmodel;
+
+import com.web.restapidemo.entity.Actor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable actor row for read endpoints (see ActorRepository.ACTOR_VIEW); same JSON shape as Actor
+ */
+public record ActorView(int id, String firstName, String lastName, LocalDateTime lastUpdate) {
+
+    public static ActorView of(Actor actor) {
+        return new ActorView(actor.getId(), actor.getFirstName(), actor.getLastName(), actor.getLastUpdate());
+    }
+
+    public Actor toEntity() {
+        return new Actor(id, firstName, lastName, lastUpdate);
+    }
+}
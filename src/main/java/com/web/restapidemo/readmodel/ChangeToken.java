@@ -0,0 +1,46 @@
+package com.web.restapidemo.readmodel;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in a changes feed: the last (lastUpdate, id) returned from the live rows and
+ * the last (deletedAt, id) returned from the tombstones. Clients treat it as opaque.
+ */
+public record ChangeToken(LocalDateTime updatedAt, long updatedId, LocalDateTime deletedAt, long deletedId) {
+
+    private static final String VERSION = "1";
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * Start of a full sync: every live row, plus deletes from {@code deletesFrom} on.
+     * Older tombstones are for rows the client has never seen.
+     */
+    public static ChangeToken initial(LocalDateTime deletesFrom) {
+        return new ChangeToken(BEGINNING, 0, deletesFrom, 0);
+    }
+
+    public String encode() {
+        String raw = String.join("|", VERSION, updatedAt.toString(), String.valueOf(updatedId),
+                deletedAt.toString(), String.valueOf(deletedId));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static ChangeToken decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Unsupported change token");
+            }
+            return new ChangeToken(LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]),
+                    LocalDateTime.parse(parts[3]), Long.parseLong(parts[4]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed change token", e);
+        }
+    }
+}
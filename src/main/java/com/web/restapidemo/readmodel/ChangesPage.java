@@ -0,0 +1,10 @@
+package com.web.restapidemo.readmodel;
+
+import java.util.List;
+
+/**
+ * One page of a changes feed. Apply upserts, then deletes, then call again with nextToken;
+ * hasMore means the next call will return more without waiting.
+ */
+public record ChangesPage<T>(List<T> upserts, List<Integer> deletes, String nextToken, boolean hasMore) {
+}
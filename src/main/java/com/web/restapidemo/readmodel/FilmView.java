@@ -0,0 +1,42 @@
+package com.web.restapidemo.readmodel;
+
+import com.web.restapidemo.entity.Film;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable film row for read endpoints, built directly from JPQL constructor expressions
+ * (see FilmRepository.FILM_VIEW) so no managed entity, snapshot or persistence context entry
+ * is created. Serializes to the same JSON shape as Film.
+ */
+public record FilmView(int filmId, String title, String description, Integer releaseYear, int languageId,
+                       Integer originalLanguageId, int rentalDuration, BigDecimal rentalRate, Integer length,
+                       BigDecimal replacementCost, Rating rating, SpecialFeatures specialFeatures,
+                       LocalDateTime lastUpdate) {
+
+    // Column types as selected by JPQL
+    public FilmView(Integer filmId, String title, String description, Integer releaseYear, Integer languageId,
+                    Integer originalLanguageId, Integer rentalDuration, BigDecimal rentalRate, Integer length,
+                    BigDecimal replacementCost, String rating, String specialFeatures, LocalDateTime lastUpdate) {
+        this(filmId.intValue(), title, description, releaseYear, languageId.intValue(), originalLanguageId,
+                rentalDuration.intValue(), rentalRate, length, replacementCost, Rating.fromLabel(rating),
+                SpecialFeatures.parse(specialFeatures), lastUpdate);
+    }
+
+    public static FilmView of(Film film) {
+        return new FilmView(film.getFilmId(), film.getTitle(), film.getDescription(), film.getReleaseYear(),
+                film.getLanguageId(), film.getOriginalLanguageId(), film.getRentalDuration(), film.getRentalRate(),
+                film.getLength(), film.getReplacementCost(), film.getRating(), film.getSpecialFeatures(),
+                film.getLastUpdate());
+    }
+
+    /**
+     * Detached Film with the same values, for endpoints that return the entity
+     */
+    public Film toEntity() {
+        return new Film(filmId, title, description, releaseYear, languageId, originalLanguageId, rentalDuration,
+                rentalRate, length, replacementCost, rating != null ? rating.getLabel() : null,
+                specialFeatures != null ? specialFeatures.toString() : null, lastUpdate);
+    }
+}
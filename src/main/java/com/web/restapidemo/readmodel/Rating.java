@@ -0,0 +1,51 @@
+package com.web.restapidemo.readmodel;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Optional;
+
+/**
+ * MPAA rating as stored in film.rating; serialized with its database label ("PG-13")
+ */
+public enum Rating {
+    G("G"),
+    PG("PG"),
+    PG_13("PG-13"),
+    R("R"),
+    NC_17("NC-17");
+
+    private static final Rating[] VALUES = values();
+
+    private final String label;
+
+    Rating(String label) {
+        this.label = label;
+    }
+
+    @JsonValue
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Case-insensitive, like the column's collation ("pg-13" finds PG_13)
+     */
+    public static Optional<Rating> find(String label) {
+        for (Rating rating : VALUES) {
+            if (rating.label.equalsIgnoreCase(label)) {
+                return Optional.of(rating);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Rating for a column value; null and blank (allowed by Film's @Pattern) map to null
+     */
+    public static Rating fromLabel(String label) {
+        if (label == null || label.isBlank()) {
+            return null;
+        }
+        return find(label).orElseThrow(() -> new IllegalArgumentException("Unknown rating '" + label + "'"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.web.restapidemo.readmodel;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * film.special_features (a MySQL SET of four values) as a bitset. All 16 combinations are
+ * shared instances, so a row costs one reference instead of a String per film.
+ * Serializes back to the comma-separated column text.
+ */
+public final class SpecialFeatures {
+
+    // Bit order follows the SET definition, which is also the order MySQL returns members in
+    private static final String[] NAMES = {"Trailers", "Commentaries", "Deleted Scenes", "Behind the Scenes"};
+
+    private static final SpecialFeatures[] ALL = new SpecialFeatures[1 << NAMES.length];
+
+    static {
+        for (int bits = 0; bits < ALL.length; bits++) {
+            ALL[bits] = new SpecialFeatures(bits);
+        }
+    }
+
+    private final int bits;
+    private final String text;
+
+    private SpecialFeatures(int bits) {
+        this.bits = bits;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < NAMES.length; i++) {
+            if ((bits & (1 << i)) != 0) {
+                if (!sb.isEmpty()) {
+                    sb.append(',');
+                }
+                sb.append(NAMES[i]);
+            }
+        }
+        this.text = sb.toString();
+    }
+
+    public static SpecialFeatures of(int bits) {
+        return ALL[bits & (ALL.length - 1)];
+    }
+
+    /**
+     * Parse the column text; null stays null. Unknown members are ignored, as MySQL drops them on insert.
+     */
+    public static SpecialFeatures parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        int bits = 0;
+        int start = 0;
+        while (start <= value.length()) {
+            int end = value.indexOf(',', start);
+            if (end < 0) {
+                end = value.length();
+            }
+            String name = value.substring(start, end).trim();
+            for (int i = 0; i < NAMES.length; i++) {
+                if (NAMES[i].equalsIgnoreCase(name)) {
+                    bits |= 1 << i;
+                }
+            }
+            start = end + 1;
+        }
+        return ALL[bits];
+    }
+
+    public int getBits() {
+        return bits;
+    }
+
+    public boolean has(String name) {
+        for (int i = 0; i < NAMES.length; i++) {
+            if (NAMES[i].equalsIgnoreCase(name)) {
+                return (bits & (1 << i)) != 0;
+            }
+        }
+        return false;
+    }
+
+    @JsonValue
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -1,6 +1,32 @@
 package com.web.restapidemo.repository;
 
 import com.web.restapidemo.entity.Actor;
+import com.web.restapidemo.readmodel.ActorView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ActorRepository extends JpaRepository<Actor, Integer> { }
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ActorRepository extends JpaRepository<Actor, Integer> {
+
+    String ACTOR_VIEW = "SELECT new com.web.restapidemo.readmodel.ActorView(a.id, a.firstName, a.lastName, a.lastUpdate) FROM Actor a";
+
+    @Query("SELECT a.id, a.firstName, a.lastName FROM Actor a")
+    List<Object[]> findIdAndNames();
+
+    @Query(ACTOR_VIEW)
+    List<ActorView> findAllViews();
+
+    @Query(ACTOR_VIEW + " WHERE a.id IN :ids")
+    List<ActorView> findViewsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Changes feed; see FilmRepository.findViewsChangedSince
+    @Query(ACTOR_VIEW + " WHERE (a.lastUpdate > :since OR (a.lastUpdate = :since AND a.id > :afterId))"
+            + " AND a.lastUpdate < :horizon ORDER BY a.lastUpdate, a.id")
+    List<ActorView> findViewsChangedSince(@Param("since") LocalDateTime since, @Param("afterId") int afterId,
+                                          @Param("horizon") LocalDateTime horizon, Pageable pageable);
+}
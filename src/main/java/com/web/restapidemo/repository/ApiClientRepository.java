@@ -2,6 +2,7 @@ package com.web.restapidemo.repository;
 
 import com.web.restapidemo.entity.ApiClient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,6 +13,10 @@ public interface ApiClientRepository extends JpaRepository<ApiClient, Long> {
     
     Optional<ApiClient> findByApiKey(String apiKey);
     
+    // Every issued key, whatever the client status; feeds the negative-lookup filter
+    @Query("SELECT c.apiKey FROM ApiClient c")
+    List<String> findAllApiKeys();
+    
     Optional<ApiClient> findByClientName(String clientName);
     
     List<ApiClient> findByStatus(String status);
@@ -0,0 +1,27 @@
+package com.web.restapidemo.repository;
+
+import com.web.restapidemo.entity.CacheChangeEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CacheChangeEventRepository extends JpaRepository<CacheChangeEvent, Long> {
+
+    List<CacheChangeEvent> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM CacheChangeEvent e")
+    long findMaxId();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CacheChangeEvent e WHERE e.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
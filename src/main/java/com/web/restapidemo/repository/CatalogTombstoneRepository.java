@@ -0,0 +1,30 @@
+package com.web.restapidemo.repository;
+
+import com.web.restapidemo.entity.CatalogTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CatalogTombstoneRepository extends JpaRepository<CatalogTombstone, Long> {
+
+    // Keyset page after (since, afterId), up to but excluding the horizon
+    @Query("SELECT t FROM CatalogTombstone t WHERE t.entityType = :type"
+            + " AND (t.deletedAt > :since OR (t.deletedAt = :since AND t.id > :afterId)) AND t.deletedAt < :horizon"
+            + " ORDER BY t.deletedAt, t.id")
+    List<CatalogTombstone> findChangedSince(@Param("type") String type, @Param("since") LocalDateTime since,
+                                            @Param("afterId") long afterId, @Param("horizon") LocalDateTime horizon,
+                                            Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CatalogTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,21 @@
+package com.web.restapidemo.repository;
+
+import com.web.restapidemo.entity.ClientDailySketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ClientDailySketchRepository extends JpaRepository<ClientDailySketch, Long> {
+
+    // Row lock so flushes from several nodes merge into the stored sketch one after another
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ClientDailySketch> findForUpdateByClientIdAndDayAndMetric(Long clientId, LocalDate day, String metric);
+
+    List<ClientDailySketch> findByClientIdAndDayBetween(Long clientId, LocalDate from, LocalDate to);
+}
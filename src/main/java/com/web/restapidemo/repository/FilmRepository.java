@@ -1,17 +1,26 @@
 package com.web.restapidemo.repository;
 
 import com.web.restapidemo.entity.Film;
+import com.web.restapidemo.readmodel.FilmView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface FilmRepository extends JpaRepository<Film, Integer> {
 
+    // Read model: rows go straight into FilmView, bypassing entity hydration and dirty-check snapshots
+    String FILM_VIEW = "SELECT new com.web.restapidemo.readmodel.FilmView(f.filmId, f.title, f.description, "
+            + "f.releaseYear, f.languageId, f.originalLanguageId, f.rentalDuration, f.rentalRate, f.length, "
+            + "f.replacementCost, f.rating, f.specialFeatures, f.lastUpdate) FROM Film f";
+
     List<Film> findByTitleContainingIgnoreCase(String title);
     List<Film> findByRating(String rating);
     List<Film> findByReleaseYear(Integer releaseYear);
@@ -22,4 +31,39 @@ public interface FilmRepository extends JpaRepository<Film, Integer> {
 
     @Query("SELECT f FROM Film f WHERE f.length >= :minLength")
     List<Film> findByLengthGreaterThanEqual(@Param("minLength") Integer minLength);
+
+    // Only the columns FilmStatsService aggregates: rating, releaseYear, rentalRate, length
+    @Query("SELECT f.rating, f.releaseYear, f.rentalRate, f.length FROM Film f")
+    List<Object[]> findStatsFacts();
+
+    @Query("SELECT f.filmId, f.title FROM Film f")
+    List<Object[]> findIdAndTitle();
+
+    @Query(FILM_VIEW)
+    List<FilmView> findAllViews();
+
+    @Query(FILM_VIEW + " WHERE f.filmId IN :ids")
+    List<FilmView> findViewsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Caller escapes % and _ in the pattern with a backslash, as derived Containing queries do
+    @Query(FILM_VIEW + " WHERE LOWER(f.title) LIKE LOWER(CONCAT('%', :title, '%')) ESCAPE '\\'")
+    List<FilmView> findViewsByTitleContaining(@Param("title") String title);
+
+    @Query(FILM_VIEW + " WHERE f.rating = :rating")
+    List<FilmView> findViewsByRating(@Param("rating") String rating);
+
+    @Query(FILM_VIEW + " WHERE f.releaseYear = :releaseYear")
+    List<FilmView> findViewsByReleaseYear(@Param("releaseYear") Integer releaseYear);
+
+    @Query(FILM_VIEW + " WHERE f.rentalRate BETWEEN :minRate AND :maxRate")
+    List<FilmView> findViewsByRentalRateBetween(@Param("minRate") BigDecimal minRate, @Param("maxRate") BigDecimal maxRate);
+
+    @Query(FILM_VIEW + " WHERE f.length >= :minLength")
+    List<FilmView> findViewsByLengthAtLeast(@Param("minLength") Integer minLength);
+
+    // Changes feed: keyset page after (since, afterId), up to but excluding the horizon (idx_film_last_update)
+    @Query(FILM_VIEW + " WHERE (f.lastUpdate > :since OR (f.lastUpdate = :since AND f.filmId > :afterId))"
+            + " AND f.lastUpdate < :horizon ORDER BY f.lastUpdate, f.filmId")
+    List<FilmView> findViewsChangedSince(@Param("since") LocalDateTime since, @Param("afterId") int afterId,
+                                         @Param("horizon") LocalDateTime horizon, Pageable pageable);
 }
\ No newline at end of file
@@ -1,39 +1,74 @@
 package com.web.restapidemo.service;
 
 import com.web.restapidemo.entity.Actor;
+import com.web.restapidemo.entity.CatalogTombstone;
+import com.web.restapidemo.readmodel.ActorView;
 import com.web.restapidemo.repository.ActorRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ActorService {
     @Autowired
     private ActorRepository actorRepository;
 
-    public List<Actor> getAllActors(){
-        return actorRepository.findAll();
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    @Autowired
+    private CatalogChangesService catalogChangesService;
+
+    // Reads use ActorView projections; see FilmService
+    @Transactional(readOnly = true)
+    public List<ActorView> getAllActors(){
+        return actorRepository.findAllViews();
     }
 
+    @Transactional(readOnly = true)
     public Optional<Actor> getActorById(Integer id){
         return actorRepository.findById(id);
     }
 
+    // One IN query, request order, unknown ids skipped
+    @Transactional(readOnly = true)
+    public List<ActorView> getActorsByIds(List<Integer> ids){
+        Map<Integer, ActorView> byId = actorRepository.findViewsByIdIn(new LinkedHashSet<>(ids)).stream()
+                .collect(Collectors.toMap(ActorView::id, Function.identity()));
+        return ids.stream().distinct().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
     public Actor createActor(Actor actor){
-        return actorRepository.save(actor);
+        Actor saved = actorRepository.save(actor);
+        autocompleteService.onCatalogChanged();
+        return saved;
     }
 
+    // The tombstone lets /api/actors/changes report the delete
+    @Transactional
     public void deleteActorById(int id){
-        actorRepository.deleteById(id);
+        actorRepository.findById(id).ifPresent(actor -> {
+            actorRepository.delete(actor);
+            catalogChangesService.recordDelete(CatalogTombstone.ACTOR, id);
+            autocompleteService.onCatalogChanged();
+        });
     }
 
     public Optional<Actor> updateActor(Integer id,  Actor actor){
         return actorRepository.findById(id).map(existingActor -> {
             existingActor.setFirstName(actor.getFirstName());
             existingActor.setLastName(actor.getLastName());
-            return actorRepository.save(existingActor);
+            Actor saved = actorRepository.save(existingActor);
+            autocompleteService.onCatalogChanged();
+            return saved;
         });
     }
 
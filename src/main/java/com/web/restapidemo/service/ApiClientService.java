@@ -1,10 +1,21 @@
 package com.web.restapidemo.service;
 
+import com.web.restapidemo.analytics.BloomFilter;
+import com.web.restapidemo.cache.CacheInvalidationBus;
+import com.web.restapidemo.cache.LocalCache;
 import com.web.restapidemo.entity.ApiClient;
+import com.web.restapidemo.datasource.ReadWriteRoutingDataSource;
+import com.web.restapidemo.datasource.TelemetryWriter;
 import com.web.restapidemo.repository.ApiClientRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
@@ -18,9 +29,53 @@ public class ApiClientService {
     @Autowired
     private ApiClientRepository apiClientRepository;
     
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Usage counters go to the telemetry pool, not the one serving catalog queries
+    @Autowired
+    private TelemetryWriter telemetryWriter;
+    
+    @Value("${app.cache.api-clients.max-entries:10000}")
+    private int cacheMaxEntries;
+    
+    @Value("${app.cache.api-clients.ttl-ms:300000}")
+    private long cacheTtlMs;
+    
+    @Value("${app.auth.key-filter.enabled:true}")
+    private boolean keyFilterEnabled;
+    
+    @Value("${app.auth.key-filter.false-positive-rate:0.001}")
+    private double keyFilterFalsePositiveRate;
+    
+    // Keyed by API key; evicted on every node when a client is updated, rotated or deleted
+    public static final String CACHE_NAME = "api-client";
+    
+    // Newly issued keys are published under this name so every node adds them to its key filter
+    public static final String ISSUED_KEYS = "api-key-issued";
+    
+    private LocalCache<ApiClient> clientsByKey;
+    
+    // Negative-lookup filter over every issued key; null until first built
+    private volatile BloomFilter issuedKeys;
+    private volatile BloomFilter rebuilding;
+    private Counter filterRejections;
+    
     private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
     private static final int API_KEY_LENGTH = 32;
     
+    @PostConstruct
+    void initCache() {
+        clientsByKey = cacheInvalidationBus.register(CACHE_NAME, cacheMaxEntries, cacheTtlMs);
+        cacheInvalidationBus.subscribe(ISSUED_KEYS, this::addIssuedKey);
+        filterRejections = Counter.builder("auth.key.filter.rejected")
+                .description("API keys rejected by the issued-key filter without a database lookup")
+                .register(meterRegistry);
+    }
+    
     /**
      * Generate a random API key
      */
@@ -38,13 +93,24 @@ public class ApiClientService {
      * Validate API key
      */
     public Optional<ApiClient> validateApiKey(String apiKey) {
+        return validateApiKey(apiKey, true);
+    }
+    
+    /**
+     * Validate API key; recordUsage=false for synthetic warmup traffic, which must not count towards billing
+     */
+    public Optional<ApiClient> validateApiKey(String apiKey, boolean recordUsage) {
         if (apiKey == null || apiKey.isEmpty()) {
             return Optional.empty();
         }
         
-        Optional<ApiClient> client = apiClientRepository.findByApiKey(apiKey);
-        if (client.isPresent()) {
-            ApiClient c = client.get();
+        // Random keys from credential stuffing end here instead of in findByApiKey
+        if (!passesKeyFilter(apiKey)) {
+            return Optional.empty();
+        }
+        
+        ApiClient c = clientsByKey.get(apiKey, key -> apiClientRepository.findByApiKey(key).orElse(null));
+        if (c != null) {
             
             // Check if client is active
             if (!"ACTIVE".equals(c.getStatus())) {
@@ -53,9 +119,9 @@ public class ApiClientService {
             }
             
             // Update last used time and increment request count
-            c.setLastUsedAt(LocalDateTime.now());
-            c.setRequestCount(c.getRequestCount() + 1);
-            apiClientRepository.save(c);
+            if (recordUsage) {
+                recordUsage(c.getId());
+            }
             
             return Optional.of(c);
         }
@@ -63,9 +129,99 @@ public class ApiClientService {
         return Optional.empty();
     }
     
+    /**
+     * Usage tracking as a single UPDATE, so cached clients are never written back whole.
+     * Queued on the telemetry writer: a failed or dropped update costs one count, never
+     * request latency. Also used by the reactive read server.
+     */
+    public void recordUsage(Long clientId) {
+        LocalDateTime usedAt = LocalDateTime.now();
+        telemetryWriter.submit(() -> telemetryWriter.update("UPDATE api_client SET last_used_at = ?, "
+                + "request_count = request_count + 1 WHERE id = ?", usedAt, clientId));
+    }
+    
+    /**
+     * Issued-key filter check for paths that do their own lookup (the reactive read server);
+     * a false result is counted as a filter rejection
+     */
+    public boolean passesKeyFilter(String apiKey) {
+        if (mightBeIssued(apiKey)) {
+            return true;
+        }
+        filterRejections.increment();
+        return false;
+    }
+    
+    /**
+     * False only for keys that were never issued, or were deleted before the last rebuild.
+     * Keys issued on other nodes arrive through the invalidation bus, so while it is not
+     * polling (or before the first build) every key is looked up.
+     */
+    private boolean mightBeIssued(String apiKey) {
+        BloomFilter filter = issuedKeys;
+        return filter == null || !cacheInvalidationBus.isFresh() || filter.mightContain(apiKey);
+    }
+    
+    private void addIssuedKey(String apiKey) {
+        // A key committed after the rebuild's query must still reach the new filter. Reading
+        // rebuilding first means that if it is already cleared, issuedKeys is the new filter.
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.add(apiKey);
+        }
+        BloomFilter filter = issuedKeys;
+        if (filter != null) {
+            filter.add(apiKey);
+        }
+    }
+    
+    /**
+     * Rebuild the issued-key filter from the table, dropping deleted and rotated-out keys
+     * and resizing for growth. Reads the primary: a lagging replica could miss a new key.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.auth.key-filter.rebuild-interval-ms:600000}")
+    public void rebuildKeyFilter() {
+        if (!keyFilterEnabled) {
+            return;
+        }
+        ReadWriteRoutingDataSource.forcePrimary();
+        try {
+            // Twice the current count keeps the false-positive rate near target as keys are added
+            long expected = Math.max(1000, apiClientRepository.count() * 2);
+            BloomFilter next = new BloomFilter(expected, keyFilterFalsePositiveRate, new SecureRandom().nextLong());
+            rebuilding = next;
+            List<String> keys = apiClientRepository.findAllApiKeys();
+            keys.forEach(next::add);
+            issuedKeys = next;
+            log.debug("Rebuilt API key filter: {} keys, {} bits, {} hashes", keys.size(), next.getBits(), next.getHashes());
+        } catch (Exception e) {
+            log.warn("Error rebuilding API key filter: {}", e.getMessage());
+        } finally {
+            rebuilding = null;
+            ReadWriteRoutingDataSource.clearForcePrimary();
+        }
+    }
+    
+    /**
+     * Load active clients into the key cache (startup warmup); fills at most half of it
+     */
+    @Transactional(readOnly = true)
+    public int preloadCache() {
+        int loaded = 0;
+        for (ApiClient client : apiClientRepository.findByStatus("ACTIVE")) {
+            if (loaded >= cacheMaxEntries / 2) {
+                break;
+            }
+            clientsByKey.get(client.getApiKey(), key -> client);
+            loaded++;
+        }
+        return loaded;
+    }
+    
     /**
      * Get all clients
      */
+    @Transactional(readOnly = true)
     public List<ApiClient> getAllClients() {
         return apiClientRepository.findAll();
     }
@@ -73,6 +229,7 @@ public class ApiClientService {
     /**
      * Get client by ID
      */
+    @Transactional(readOnly = true)
     public Optional<ApiClient> getClientById(Long id) {
         return apiClientRepository.findById(id);
     }
@@ -86,14 +243,18 @@ public class ApiClientService {
         client.setCreatedAt(LocalDateTime.now());
         client.setRequestCount(0L);
         client.setStatus("ACTIVE");
-        return apiClientRepository.save(client);
+        ApiClient saved = apiClientRepository.save(client);
+        cacheInvalidationBus.publish(ISSUED_KEYS, apiKey);
+        return saved;
     }
     
     /**
      * Update client
      */
+    @Transactional
     public Optional<ApiClient> updateClient(Long id, ApiClient clientDetails) {
         return apiClientRepository.findById(id).map(existingClient -> {
+            cacheInvalidationBus.publish(CACHE_NAME, existingClient.getApiKey());
             existingClient.setClientName(clientDetails.getClientName());
             existingClient.setDescription(clientDetails.getDescription());
             existingClient.setStatus(clientDetails.getStatus());
@@ -106,13 +267,18 @@ public class ApiClientService {
     /**
      * Delete client
      */
+    @Transactional
     public void deleteClient(Long id) {
-        apiClientRepository.deleteById(id);
+        apiClientRepository.findById(id).ifPresent(client -> {
+            apiClientRepository.delete(client);
+            cacheInvalidationBus.publish(CACHE_NAME, client.getApiKey());
+        });
     }
     
     /**
      * Get active clients only
      */
+    @Transactional(readOnly = true)
     public List<ApiClient> getActiveClients() {
         return apiClientRepository.findByStatus("ACTIVE");
     }
@@ -120,6 +286,7 @@ public class ApiClientService {
     /**
      * Get clients by type
      */
+    @Transactional(readOnly = true)
     public List<ApiClient> getClientsByType(String type) {
         return apiClientRepository.findByClientType(type);
     }
@@ -127,10 +294,14 @@ public class ApiClientService {
     /**
      * Rotate API key for a client
      */
+    @Transactional
     public Optional<ApiClient> rotateApiKey(Long id) {
         return apiClientRepository.findById(id).map(client -> {
+            // The old key must stop working on every node
+            cacheInvalidationBus.publish(CACHE_NAME, client.getApiKey());
             String newApiKey = generateApiKey();
             client.setApiKey(newApiKey);
+            cacheInvalidationBus.publish(ISSUED_KEYS, newApiKey);
             log.info("API key rotated for client: {}", client.getClientName());
             return apiClientRepository.save(client);
         });
@@ -0,0 +1,178 @@
+package com.web.restapidemo.service;
+
+import com.web.restapidemo.analytics.PrefixIndex;
+import com.web.restapidemo.repository.ActorRepository;
+import com.web.restapidemo.repository.FilmRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Typeahead over film titles and actor names, served from immutable PrefixIndex
+ * instances. Catalog writes schedule a debounced rebuild on a background thread; the new
+ * indexes replace the old ones in a single volatile write, so lookups never block.
+ */
+@Service
+@Slf4j
+public class AutocompleteService {
+
+    @Autowired
+    private FilmRepository filmRepository;
+
+    @Autowired
+    private ActorRepository actorRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.autocomplete.top-k:10}")
+    private int topK;
+
+    @Value("${app.autocomplete.rebuild-delay-ms:1000}")
+    private long rebuildDelayMs;
+
+    private volatile Indexes indexes;
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private ScheduledExecutorService rebuilder;
+    private Timer lookupTimer;
+
+    private record Indexes(PrefixIndex films, PrefixIndex actors, LocalDateTime builtAt, long buildTimeMs) {
+    }
+
+    @PostConstruct
+    void init() {
+        rebuilder = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "autocomplete-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lookupTimer = Timer.builder("autocomplete.lookup")
+                .description("Autocomplete index lookup time")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void buildOnStartup() {
+        rebuilder.execute(this::rebuild);
+    }
+
+    /**
+     * Called after film or actor writes; bursts of changes collapse into one rebuild
+     */
+    public void onCatalogChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleRebuild();
+                }
+            });
+        } else {
+            scheduleRebuild();
+        }
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuilder.schedule(() -> {
+                // Clear first so writes during the rebuild schedule another one
+                rebuildPending.set(false);
+                rebuild();
+            }, rebuildDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void rebuild() {
+        try {
+            long start = System.nanoTime();
+            List<PrefixIndex.Suggestion> films = new ArrayList<>();
+            for (Object[] row : filmRepository.findIdAndTitle()) {
+                films.add(new PrefixIndex.Suggestion((Integer) row[0], (String) row[1]));
+            }
+            List<PrefixIndex.Suggestion> actors = new ArrayList<>();
+            for (Object[] row : actorRepository.findIdAndNames()) {
+                actors.add(new PrefixIndex.Suggestion((Integer) row[0], row[1] + " " + row[2]));
+            }
+            Indexes built = new Indexes(PrefixIndex.build(films, topK), PrefixIndex.build(actors, topK),
+                    LocalDateTime.now(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            indexes = built;
+            log.info("Autocomplete index rebuilt: {} films, {} actors in {}ms",
+                    built.films().size(), built.actors().size(), built.buildTimeMs());
+        } catch (Exception e) {
+            log.error("Error rebuilding autocomplete index", e);
+        }
+    }
+
+    /**
+     * Suggestions for a prefix; type is "film", "actor" or null for both
+     */
+    public Map<String, Object> suggest(String query, String type, int limit) {
+        Indexes current = indexes;
+        int max = Math.max(1, Math.min(limit, topK));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("query", query);
+        if (current == null) {
+            result.put("ready", false);
+            return result;
+        }
+        long start = System.nanoTime();
+        if (type == null || "film".equalsIgnoreCase(type)) {
+            result.put("films", current.films().lookup(query, max));
+        }
+        if (type == null || "actor".equalsIgnoreCase(type)) {
+            result.put("actors", current.actors().lookup(query, max));
+        }
+        lookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        Indexes current = indexes;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", current != null);
+        stats.put("topK", topK);
+        if (current != null) {
+            stats.put("films", indexStats(current.films()));
+            stats.put("actors", indexStats(current.actors()));
+            stats.put("builtAt", current.builtAt());
+            stats.put("buildTimeMs", current.buildTimeMs());
+        }
+        stats.put("lookups", lookupTimer.count());
+        stats.put("lookupMeanMicros", lookupTimer.mean(TimeUnit.MICROSECONDS));
+        stats.put("lookupMaxMicros", lookupTimer.max(TimeUnit.MICROSECONDS));
+        return stats;
+    }
+
+    private static Map<String, Object> indexStats(PrefixIndex index) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", index.size());
+        stats.put("nodes", index.nodeCount());
+        stats.put("estimatedBytes", index.estimatedBytes());
+        return stats;
+    }
+}
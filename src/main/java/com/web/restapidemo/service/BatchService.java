@@ -0,0 +1,278 @@
+package com.web.restapidemo.service;
+
+import com.web.restapidemo.bulkhead.Bulkhead;
+import com.web.restapidemo.bulkhead.BulkheadFullException;
+import com.web.restapidemo.bulkhead.BulkheadTimeoutException;
+import com.web.restapidemo.bulkhead.Bulkheads;
+import com.web.restapidemo.metrics.RequestTimings;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Runs a list of read sub-requests in parallel for POST /api/batch. The batch is
+ * authenticated and logged once by the normal interceptor chain; sub-requests are
+ * resolved against a fixed table of read routes and call the services directly, so
+ * they skip API-key validation, logging and the api_log insert. They run on the catalog
+ * bulkhead like the endpoints they stand for, but at most app.batch.parallelism of one
+ * batch's items are submitted at a time, so a large batch cannot fill the catalog queue
+ * or take all its workers. Items that find the bulkhead full get 503; items not finished
+ * when the batch times out get 504 and their statements are cancelled.
+ */
+@Service
+@Slf4j
+public class BatchService {
+
+    @Autowired
+    private FilmService filmService;
+
+    @Autowired
+    private ActorService actorService;
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    @Autowired
+    private Bulkheads bulkheads;
+
+    @Value("${app.batch.max-requests:50}")
+    private int maxRequests;
+
+    @Value("${app.batch.timeout-ms:10000}")
+    private long timeoutMs;
+
+    @Value("${app.batch.parallelism:2}")
+    private int parallelism;
+
+    private final List<Route> routes = new ArrayList<>();
+
+    public record BatchRequest(List<BatchItem> requests) {
+    }
+
+    public record BatchItem(String id, String method, String path) {
+    }
+
+    public record BatchResult(String id, int status, Object body) {
+    }
+
+    private record Outcome(int status, Object body) {
+
+        static Outcome ok(Object body) {
+            return new Outcome(200, body);
+        }
+
+        static Outcome error(HttpStatus status, String message) {
+            return new Outcome(status.value(), Map.of("error", message));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Outcome handle(Map<String, String> pathVariables, MultiValueMap<String, String> query);
+    }
+
+    private record Route(PathPattern pattern, Handler handler) {
+    }
+
+    @PostConstruct
+    void init() {
+        // Literal paths before templated ones so /api/films/stats doesn't match /{id}
+        route("/api/films/stats", (vars, query) -> Outcome.ok(filmService.getStats()));
+        route("/api/films/search", (vars, query) -> Outcome.ok(filmService.searchByTitle(required(query, "title"))));
+        route("/api/films/rental-range", (vars, query) -> Outcome.ok(filmService.getFilmsByRentalRateRange(
+                new BigDecimal(required(query, "minRate")), new BigDecimal(required(query, "maxRate")))));
+        route("/api/films/long-films", (vars, query) ->
+                Outcome.ok(filmService.getLongFilms(Integer.valueOf(required(query, "minLength")))));
+        route("/api/films/rating/{rating}", (vars, query) -> Outcome.ok(filmService.getFilmsByRating(vars.get("rating"))));
+        route("/api/films/year/{year}", (vars, query) ->
+                Outcome.ok(filmService.getFilmsByReleaseYear(Integer.valueOf(vars.get("year")))));
+        route("/api/films/{id}", (vars, query) -> filmService.getFilmById(Integer.valueOf(vars.get("id")))
+                .map(Outcome::ok)
+                .orElseGet(() -> Outcome.error(HttpStatus.NOT_FOUND, "Film not found")));
+        route("/api/films", (vars, query) -> query.containsKey("ids")
+                ? ids(query).map(filmService::getFilmsByIds)
+                : Outcome.ok(filmService.getAllFilms()));
+        route("/api/actors/{id}", (vars, query) -> actorService.getActorById(Integer.valueOf(vars.get("id")))
+                .map(Outcome::ok)
+                .orElseGet(() -> Outcome.error(HttpStatus.NOT_FOUND, "Actor not found")));
+        route("/api/actors", (vars, query) -> query.containsKey("ids")
+                ? ids(query).map(actorService::getActorsByIds)
+                : Outcome.ok(actorService.getAllActors()));
+        route("/api/autocomplete", (vars, query) -> Outcome.ok(autocompleteService.suggest(required(query, "q"),
+                query.getFirst("type"), query.containsKey("limit") ? Integer.parseInt(query.getFirst("limit")) : 10)));
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    /**
+     * Execute the items on the catalog bulkhead, app.batch.parallelism at a time; results keep the
+     * request order. Completes once every item has an outcome or the batch timeout passes.
+     */
+    public CompletableFuture<List<BatchResult>> execute(List<BatchItem> items) {
+        // The bulkhead carries the caller's read-your-writes pinning and query budget onto its workers
+        Bulkhead.Context context = Bulkhead.Context.capture();
+        List<CompletableFuture<Outcome>> outcomes = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            outcomes.add(new CompletableFuture<>());
+        }
+        // Each item records into its own timings; set once the item is no longer running
+        AtomicReferenceArray<RequestTimings> finished = new AtomicReferenceArray<>(items.size());
+        AtomicInteger next = new AtomicInteger();
+        for (int lane = 0; lane < Math.min(parallelism, items.size()); lane++) {
+            runNext(items, outcomes, finished, next, context);
+        }
+
+        return CompletableFuture.allOf(outcomes.toArray(CompletableFuture[]::new))
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .handle((ignored, timeout) -> {
+                    if (timeout != null) {
+                        outcomes.forEach(outcome ->
+                                outcome.complete(Outcome.error(HttpStatus.GATEWAY_TIMEOUT, "Sub-request timed out")));
+                        if (context.deadline() != null) {
+                            context.deadline().cancel("batch timed out");
+                        }
+                    }
+                    List<BatchResult> results = new ArrayList<>(items.size());
+                    for (int i = 0; i < items.size(); i++) {
+                        Outcome outcome = outcomes.get(i).join();
+                        results.add(new BatchResult(items.get(i).id(), outcome.status(), outcome.body()));
+                        RequestTimings timings = finished.get(i);
+                        if (timings != null && context.timings() != null) {
+                            context.timings().add(timings);
+                        }
+                    }
+                    return results;
+                });
+    }
+
+    // Submit the next unstarted item; its completion submits the one after, so each lane holds one bulkhead slot
+    private void runNext(List<BatchItem> items, List<CompletableFuture<Outcome>> outcomes,
+                         AtomicReferenceArray<RequestTimings> finished, AtomicInteger next, Bulkhead.Context context) {
+        int i = next.getAndIncrement();
+        // Past the end, or the batch already timed out
+        if (i >= items.size() || outcomes.get(i).isDone()) {
+            return;
+        }
+        BatchItem item = items.get(i);
+        RequestTimings timings = RequestTimings.unbound();
+        CompletableFuture<Outcome> call;
+        try {
+            call = bulkheads.catalog().submitPart(() -> dispatch(item), context.withTimings(timings));
+        } catch (BulkheadFullException e) {
+            outcomes.get(i).complete(Outcome.error(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage()));
+            runNext(items, outcomes, finished, next, context);
+            return;
+        }
+        call.whenComplete((outcome, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause == null) {
+                finished.set(i, timings);
+                outcomes.get(i).complete(outcome);
+            } else if (cause instanceof BulkheadTimeoutException) {
+                // Still running on its worker; its timings are not safe to read
+                outcomes.get(i).complete(Outcome.error(HttpStatus.GATEWAY_TIMEOUT, "Sub-request timed out"));
+            } else if (cause instanceof BulkheadFullException) {
+                finished.set(i, timings);
+                outcomes.get(i).complete(Outcome.error(HttpStatus.SERVICE_UNAVAILABLE, cause.getMessage()));
+            } else {
+                finished.set(i, timings);
+                log.error("Batch sub-request failed: {}", item.path(), cause);
+                outcomes.get(i).complete(Outcome.error(HttpStatus.INTERNAL_SERVER_ERROR, "Internal error"));
+            }
+            runNext(items, outcomes, finished, next, context);
+        });
+    }
+
+    private Outcome dispatch(BatchItem item) {
+        if (item.path() == null || !item.path().startsWith("/")) {
+            return Outcome.error(HttpStatus.BAD_REQUEST, "path is required");
+        }
+        if (item.method() != null && !"GET".equalsIgnoreCase(item.method())) {
+            return Outcome.error(HttpStatus.METHOD_NOT_ALLOWED, "Only GET sub-requests are supported");
+        }
+
+        UriComponents uri = UriComponentsBuilder.fromUriString(item.path()).build();
+        PathContainer path = PathContainer.parsePath(uri.getPath() != null ? uri.getPath() : "/");
+        MultiValueMap<String, String> query = new LinkedMultiValueMap<>();
+        uri.getQueryParams().forEach((name, values) -> values.forEach(value ->
+                query.add(decode(name), value != null ? decode(value) : "")));
+
+        for (Route route : routes) {
+            PathPattern.PathMatchInfo match = route.pattern().matchAndExtract(path);
+            if (match != null) {
+                Map<String, String> vars = new LinkedHashMap<>();
+                match.getUriVariables().forEach((name, value) -> vars.put(name, decode(value)));
+                try {
+                    return route.handler().handle(vars, query);
+                } catch (IllegalArgumentException e) {
+                    // Includes NumberFormatException from malformed ids/years/rates
+                    return Outcome.error(HttpStatus.BAD_REQUEST, e.getMessage() != null ? e.getMessage() : "Bad request");
+                }
+            }
+        }
+        return Outcome.error(HttpStatus.NOT_FOUND, "No batchable route for " + uri.getPath());
+    }
+
+    private void route(String pattern, Handler handler) {
+        routes.add(new Route(PathPatternParser.defaultInstance.parse(pattern), handler));
+    }
+
+    private static String required(MultiValueMap<String, String> query, String name) {
+        String value = query.getFirst(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing parameter '" + name + "'");
+        }
+        return value;
+    }
+
+    private static IdsQuery ids(MultiValueMap<String, String> query) {
+        List<Integer> ids = query.get("ids").stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .map(Integer::valueOf)
+                .toList();
+        return new IdsQuery(ids);
+    }
+
+    private record IdsQuery(List<Integer> ids) {
+
+        Outcome map(Function<List<Integer>, ?> lookup) {
+            if (ids.size() > FilmService.MAX_IDS) {
+                return Outcome.error(HttpStatus.BAD_REQUEST, "At most " + FilmService.MAX_IDS + " ids");
+            }
+            return Outcome.ok(lookup.apply(ids));
+        }
+    }
+
+    private static String decode(String value) {
+        return UriUtils.decode(value, StandardCharsets.UTF_8);
+    }
+}
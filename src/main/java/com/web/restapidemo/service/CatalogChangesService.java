@@ -0,0 +1,153 @@
+package com.web.restapidemo.service;
+
+import com.web.restapidemo.entity.CatalogTombstone;
+import com.web.restapidemo.readmodel.ActorView;
+import com.web.restapidemo.readmodel.ChangeToken;
+import com.web.restapidemo.readmodel.ChangesPage;
+import com.web.restapidemo.readmodel.FilmView;
+import com.web.restapidemo.repository.ActorRepository;
+import com.web.restapidemo.repository.CatalogTombstoneRepository;
+import com.web.restapidemo.repository.FilmRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Delta sync for catalog mirrors (GET /api/films/changes, /api/actors/changes).
+ * Live rows are read in (lastUpdate, id) order and deletes come from catalog_tombstone,
+ * both as keyset pages, so a poll costs the number of changed rows rather than the table size.
+ * Rows newer than now - settle-ms are held back: a transaction that stamped lastUpdate
+ * but has not committed yet would otherwise be skipped once the token moved past it.
+ * The horizon uses this node's clock while lastUpdate comes from whichever node wrote the row
+ * (or the database clock, for writes outside the application), so settle-ms must also cover
+ * the clock skew between them; a row stamped further behind than that can be missed.
+ */
+@Service
+@Slf4j
+public class CatalogChangesService {
+
+    @Autowired
+    private FilmRepository filmRepository;
+
+    @Autowired
+    private ActorRepository actorRepository;
+
+    @Autowired
+    private CatalogTombstoneRepository tombstoneRepository;
+
+    @Value("${app.catalog.changes.page-size:500}")
+    private int defaultPageSize;
+
+    @Value("${app.catalog.changes.max-page-size:2000}")
+    private int maxPageSize;
+
+    @Value("${app.catalog.changes.settle-ms:5000}")
+    private long settleMs;
+
+    @Value("${app.catalog.changes.tombstone-retention-days:30}")
+    private long retentionDays;
+
+    @FunctionalInterface
+    private interface KeysetQuery<T> {
+        List<T> find(LocalDateTime since, long afterId, LocalDateTime horizon, Pageable pageable);
+    }
+
+    private record Page<T>(List<T> rows, boolean hasMore, LocalDateTime at, long id) {
+    }
+
+    /**
+     * Record a delete; joins the caller's transaction so it commits or rolls back with the delete
+     */
+    public void recordDelete(String entityType, Integer id) {
+        tombstoneRepository.save(CatalogTombstone.builder()
+                .entityType(entityType)
+                .entityId(id)
+                .deletedAt(LocalDateTime.now())
+                .build());
+    }
+
+    // Read-write so the routing data source stays on the primary; replica lag could hide a change for good
+    @Transactional
+    public ChangesPage<FilmView> getFilmChanges(String since, Integer limit) {
+        return changes(CatalogTombstone.FILM, since, limit,
+                (from, afterId, horizon, page) -> filmRepository.findViewsChangedSince(from, (int) afterId, horizon, page),
+                FilmView::lastUpdate, FilmView::filmId);
+    }
+
+    @Transactional
+    public ChangesPage<ActorView> getActorChanges(String since, Integer limit) {
+        return changes(CatalogTombstone.ACTOR, since, limit,
+                (from, afterId, horizon, page) -> actorRepository.findViewsChangedSince(from, (int) afterId, horizon, page),
+                ActorView::lastUpdate, ActorView::id);
+    }
+
+    private <T> ChangesPage<T> changes(String entityType, String since, Integer limit, KeysetQuery<T> live,
+                                       Function<T, LocalDateTime> updatedAt, ToLongFunction<T> id) {
+        LocalDateTime horizon = LocalDateTime.now().minusNanos(settleMs * 1_000_000);
+        ChangeToken token = since == null || since.isBlank() ? ChangeToken.initial(horizon) : decode(since, horizon);
+        int size = Math.max(1, Math.min(limit != null ? limit : defaultPageSize, maxPageSize));
+
+        Page<T> upserts = page(live, token.updatedAt(), token.updatedId(), horizon, size, updatedAt, id);
+        Page<CatalogTombstone> deletes = page(
+                (from, afterId, until, page) -> tombstoneRepository.findChangedSince(entityType, from, afterId, until, page),
+                token.deletedAt(), token.deletedId(), horizon, size, CatalogTombstone::getDeletedAt, CatalogTombstone::getId);
+
+        ChangeToken next = new ChangeToken(upserts.at(), upserts.id(), deletes.at(), deletes.id());
+        return new ChangesPage<>(upserts.rows(),
+                deletes.rows().stream().map(CatalogTombstone::getEntityId).toList(),
+                next.encode(), upserts.hasMore() || deletes.hasMore());
+    }
+
+    private static <T> Page<T> page(KeysetQuery<T> query, LocalDateTime since, long afterId, LocalDateTime horizon,
+                                    int size, Function<T, LocalDateTime> at, ToLongFunction<T> id) {
+        List<T> rows = query.find(since, afterId, horizon, PageRequest.of(0, size + 1));
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            T last = rows.get(size - 1);
+            return new Page<>(rows, true, at.apply(last), id.applyAsLong(last));
+        }
+        // Everything before the horizon has been returned; the next call starts there
+        if (horizon.isAfter(since)) {
+            return new Page<>(rows, false, horizon, 0);
+        }
+        return new Page<>(rows, false, since, afterId);
+    }
+
+    private ChangeToken decode(String since, LocalDateTime horizon) {
+        ChangeToken token;
+        try {
+            token = ChangeToken.decode(since);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        // Tombstones before the token may already be purged, so deletes could be missed
+        if (token.deletedAt().isBefore(horizon.minusDays(retentionDays))) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Change token expired; resync without 'since'");
+        }
+        return token;
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.changes.cleanup-interval-ms:3600000}")
+    public void cleanup() {
+        try {
+            int deleted = tombstoneRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays));
+            if (deleted > 0) {
+                log.debug("Removed {} catalog tombstones", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("Error cleaning catalog tombstones: {}", e.getMessage());
+        }
+    }
+}
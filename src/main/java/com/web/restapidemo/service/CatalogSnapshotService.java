@@ -0,0 +1,307 @@
+package com.web.restapidemo.service;
+
+import com.web.restapidemo.bulkhead.BulkheadFullException;
+import com.web.restapidemo.bulkhead.BulkheadTimeoutException;
+import com.web.restapidemo.bulkhead.Bulkheads;
+import com.web.restapidemo.readmodel.ActorView;
+import com.web.restapidemo.readmodel.FilmView;
+import com.web.restapidemo.snapshot.CatalogSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Degraded catalog reads. Every interval-ms all films and actors are written to a local
+ * snapshot file (see CatalogSnapshot), which is memory-mapped; the newest existing file is
+ * mapped at startup, before the first read. Each version gets its own file, path.<version>,
+ * since a mapped file cannot be replaced or deleted on Windows; older versions are deleted
+ * once unmapped, and retried on the next refresh if the platform still holds them. Catalog read endpoints run through read(): when the
+ * database is unreachable, the catalog bulkhead is full, or no answer arrives within
+ * slow-threshold-ms, the response comes from the snapshot with X-Catalog-Stale: true and
+ * the snapshot time. After a connection failure reads skip the database for retry-ms.
+ * Writes and the changes feed always need the database.
+ */
+@Service
+@Slf4j
+public class CatalogSnapshotService {
+
+    public static final String STALE_HEADER = "X-Catalog-Stale";
+    public static final String SNAPSHOT_TIME_HEADER = "X-Catalog-Snapshot-Time";
+
+    @Autowired
+    private FilmService filmService;
+
+    @Autowired
+    private ActorService actorService;
+
+    @Autowired
+    private Bulkheads bulkheads;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.catalog.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.catalog.snapshot.path:data/catalog.snapshot}")
+    private String path;
+
+    @Value("${app.catalog.snapshot.slow-threshold-ms:1000}")
+    private long slowThresholdMs;
+
+    @Value("${app.catalog.snapshot.retry-ms:5000}")
+    private long retryMs;
+
+    private volatile CatalogSnapshot current;
+    private volatile Path currentFile;
+    private volatile long databaseDownUntil;
+    private volatile String lastFailure;
+    private Counter servedUnavailable;
+    private Counter servedSlow;
+
+    @PostConstruct
+    void init() {
+        servedUnavailable = Counter.builder("catalog.snapshot.served").tag("reason", "unavailable")
+                .description("Catalog reads answered from the snapshot because the database was unreachable")
+                .register(meterRegistry);
+        servedSlow = Counter.builder("catalog.snapshot.served").tag("reason", "slow")
+                .description("Catalog reads answered from the snapshot because the database was slow or saturated")
+                .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.age", this, service -> service.ageSeconds())
+                .description("Seconds since the mapped catalog snapshot was taken")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+        for (Path file : versions()) {
+            long start = System.nanoTime();
+            try {
+                current = CatalogSnapshot.open(file);
+                currentFile = file;
+                log.info("Mapped catalog snapshot from {} ({} films, {} actors) in {} ms", current.getCreatedAt(),
+                        current.getFilmCount(), current.getActorCount(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                break;
+            } catch (Exception e) {
+                log.warn("Ignoring unreadable catalog snapshot {}: {}", file.toAbsolutePath(), e.getMessage());
+            }
+        }
+        deleteOldVersions();
+    }
+
+    /**
+     * Write a new snapshot version from the database; skipped when the content is unchanged.
+     * Synchronized so the scheduled and admin-triggered refreshes never pick the same file.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.catalog.snapshot.interval-ms:300000}")
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<FilmView> films = filmService.getAllFilms();
+            List<ActorView> actors = actorService.getAllActors();
+            databaseDownUntil = 0;
+            byte[] bytes = CatalogSnapshot.encode(films, actors, LocalDateTime.now(ZoneOffset.UTC));
+            CatalogSnapshot fresh = CatalogSnapshot.wrap(bytes);
+            CatalogSnapshot mapped = current;
+            if (mapped != null && mapped.getChecksum() == fresh.getChecksum()
+                    && mapped.getSizeBytes() == fresh.getSizeBytes()) {
+                return;
+            }
+            // Never the mapped file's name: versions only grow, even if the clock steps back
+            long version = Math.max(fresh.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli(),
+                    currentFile != null ? version(currentFile) + 1 : 0);
+            Path file = Paths.get(path + "." + version);
+            CatalogSnapshot.write(file, bytes);
+            current = CatalogSnapshot.open(file);
+            currentFile = file;
+            log.debug("Wrote catalog snapshot: {} films, {} actors, {} bytes", films.size(), actors.size(), bytes.length);
+        } catch (Exception e) {
+            log.warn("Could not refresh catalog snapshot: {}", e.getMessage());
+        } finally {
+            deleteOldVersions();
+        }
+    }
+
+    // Snapshot files for path, newest first
+    private List<Path> versions() {
+        Path base = Paths.get(path).toAbsolutePath();
+        String prefix = base.getFileName() + ".";
+        if (!Files.isDirectory(base.getParent())) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(base.getParent())) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix) && version(file) >= 0)
+                    .sorted(Comparator.comparingLong(CatalogSnapshotService::version).reversed())
+                    .toList();
+        } catch (IOException e) {
+            log.warn("Could not list catalog snapshots in {}: {}", base.getParent(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    // Numeric suffix of path.<version>, or -1 for anything else (such as write temp files)
+    private static long version(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(name.lastIndexOf('.') + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Windows refuses to delete a file whose mapping has not been collected yet; those stay for the next refresh
+    private void deleteOldVersions() {
+        Path keep = currentFile;
+        for (Path file : versions()) {
+            if (keep != null && file.equals(keep.toAbsolutePath())) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.debug("Old catalog snapshot {} not deleted yet: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Run a catalog read on the catalog bulkhead, answering from the snapshot when the database cannot
+     */
+    public <T> CompletableFuture<ResponseEntity<T>> read(Supplier<T> live, Function<CatalogSnapshot, T> fromSnapshot) {
+        return readEntity(() -> ResponseEntity.ok(live.get()), snapshot -> ResponseEntity.ok(fromSnapshot.apply(snapshot)));
+    }
+
+    public <T> CompletableFuture<ResponseEntity<T>> readEntity(Supplier<ResponseEntity<T>> live,
+                                                               Function<CatalogSnapshot, ResponseEntity<T>> fromSnapshot) {
+        CatalogSnapshot snapshot = current;
+        if (snapshot != null && System.currentTimeMillis() < databaseDownUntil) {
+            servedUnavailable.increment();
+            return CompletableFuture.completedFuture(stale(snapshot, fromSnapshot));
+        }
+
+        CompletableFuture<ResponseEntity<T>> call;
+        try {
+            call = bulkheads.catalog().submit(live);
+        } catch (BulkheadFullException e) {
+            if (snapshot == null) {
+                throw e;
+            }
+            servedSlow.increment();
+            return CompletableFuture.completedFuture(stale(snapshot, fromSnapshot));
+        }
+
+        CompletableFuture<ResponseEntity<T>> result = new CompletableFuture<>();
+        call.whenComplete((response, error) -> {
+            if (error == null) {
+                result.complete(response);
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            boolean unavailable = isUnavailable(cause);
+            if (unavailable) {
+                databaseDownUntil = System.currentTimeMillis() + retryMs;
+                lastFailure = cause.getMessage();
+            }
+            CatalogSnapshot fallback = current;
+            if (fallback != null && (unavailable || cause instanceof BulkheadFullException
+                    || cause instanceof BulkheadTimeoutException || cause instanceof QueryTimeoutException)) {
+                if (result.complete(stale(fallback, fromSnapshot))) {
+                    (unavailable ? servedUnavailable : servedSlow).increment();
+                }
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+        // The database call keeps running (bounded by its query budget); its result is dropped
+        if (snapshot != null && slowThresholdMs > 0) {
+            CompletableFuture.delayedExecutor(slowThresholdMs, TimeUnit.MILLISECONDS).execute(() -> {
+                if (!result.isDone() && result.complete(stale(snapshot, fromSnapshot))) {
+                    servedSlow.increment();
+                }
+            });
+        }
+        return result;
+    }
+
+    private static <T> ResponseEntity<T> stale(CatalogSnapshot snapshot,
+                                               Function<CatalogSnapshot, ResponseEntity<T>> fromSnapshot) {
+        ResponseEntity<T> response = fromSnapshot.apply(snapshot);
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(STALE_HEADER, "true")
+                .header(SNAPSHOT_TIME_HEADER, snapshot.getCreatedAt().toInstant(ZoneOffset.UTC).toString())
+                .body(response.getBody());
+    }
+
+    // Connection-level failures: pool exhausted or timed out, connection refused or lost (SQLState class 08)
+    private static boolean isUnavailable(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof DataAccessResourceFailureException || e instanceof CannotCreateTransactionException
+                    || e instanceof SQLTransientConnectionException) {
+                return true;
+            }
+            if (e instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double ageSeconds() {
+        CatalogSnapshot snapshot = current;
+        return snapshot == null ? Double.NaN
+                : Duration.between(snapshot.getCreatedAt(), LocalDateTime.now(ZoneOffset.UTC)).toMillis() / 1000.0;
+    }
+
+    public Map<String, Object> getStatus() {
+        CatalogSnapshot snapshot = current;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        Path file = currentFile;
+        status.put("path", (file != null ? file : Paths.get(path)).toAbsolutePath().toString());
+        status.put("formatVersion", CatalogSnapshot.FORMAT_VERSION);
+        status.put("createdAt", snapshot != null ? snapshot.getCreatedAt() : null);
+        status.put("ageSeconds", ageSeconds());
+        status.put("films", snapshot != null ? snapshot.getFilmCount() : null);
+        status.put("actors", snapshot != null ? snapshot.getActorCount() : null);
+        status.put("sizeBytes", snapshot != null ? snapshot.getSizeBytes() : null);
+        status.put("databaseDown", System.currentTimeMillis() < databaseDownUntil);
+        status.put("lastFailure", lastFailure);
+        status.put("servedUnavailable", (long) servedUnavailable.count());
+        status.put("servedSlow", (long) servedSlow.count());
+        return status;
+    }
+}
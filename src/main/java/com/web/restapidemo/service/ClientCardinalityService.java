@@ -0,0 +1,212 @@
+package com.web.restapidemo.service;
+
+import com.web.restapidemo.analytics.HyperLogLog;
+import com.web.restapidemo.entity.ClientDailySketch;
+import com.web.restapidemo.repository.ClientDailySketchRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Unique client IPs and user agents per API client per day, kept as HyperLogLog sketches.
+ * Sketches are updated in memory from the logging path, flushed periodically to
+ * api_client_daily_sketch in binary form, and merged to answer multi-day ranges.
+ * A day stays dirty until its write commits; several nodes may flush the same day, and
+ * since merging sketches is idempotent a conflicting insert is simply retried as a merge.
+ */
+@Service
+@Slf4j
+public class ClientCardinalityService {
+
+    public static final String CLIENT_IP = "CLIENT_IP";
+    public static final String USER_AGENT = "USER_AGENT";
+
+    @Autowired
+    private ClientDailySketchRepository sketchRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.analytics.cardinality.precision:14}")
+    private int precision;
+
+    private final Map<DayKey, DailySketches> live = new ConcurrentHashMap<>();
+    private TransactionTemplate writeTx;
+
+    private record DayKey(Long clientId, LocalDate day) {
+    }
+
+    private record Pending(long version, byte[] clientIps, byte[] userAgents) {
+    }
+
+    private static final class DailySketches {
+        private final HyperLogLog clientIps;
+        private final HyperLogLog userAgents;
+        private long version;
+        private long flushedVersion;
+
+        DailySketches(int precision) {
+            this.clientIps = new HyperLogLog(precision);
+            this.userAgents = new HyperLogLog(precision);
+        }
+
+        synchronized void add(String clientIp, String userAgent) {
+            if (clientIp != null) {
+                clientIps.add(clientIp);
+            }
+            if (userAgent != null) {
+                userAgents.add(userAgent);
+            }
+            version++;
+        }
+
+        synchronized Pending snapshotIfDirty() {
+            if (version == flushedVersion) {
+                return null;
+            }
+            return new Pending(version, clientIps.toBytes(), userAgents.toBytes());
+        }
+
+        // Updates recorded after the snapshot keep the day dirty
+        synchronized void markFlushed(long flushed) {
+            flushedVersion = Math.max(flushedVersion, flushed);
+        }
+
+        synchronized HyperLogLog copy(String metric) {
+            return HyperLogLog.fromBytes(CLIENT_IP.equals(metric) ? clientIps.toBytes() : userAgents.toBytes());
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        writeTx = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Record one request; called from the logging path
+     */
+    public void record(Long clientId, String clientIp, String userAgent) {
+        if (clientId == null) {
+            return;
+        }
+        live.computeIfAbsent(new DayKey(clientId, LocalDate.now()), key -> new DailySketches(precision))
+                .add(clientIp, userAgent);
+    }
+
+    /**
+     * Persist dirty sketches, merging with what is already stored for that day.
+     * Each day is written in its own transaction; a failed day stays dirty for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.cardinality.flush-interval-ms:60000}")
+    public void flush() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        live.forEach((key, sketches) -> {
+            Pending pending = sketches.snapshotIfDirty();
+            if (pending != null) {
+                try {
+                    save(key, pending);
+                    sketches.markFlushed(pending.version());
+                } catch (Exception e) {
+                    log.warn("Could not flush cardinality sketches for client {} on {}: {}",
+                            key.clientId(), key.day(), e.getMessage());
+                }
+            }
+            // Past days are complete once flushed; stop holding them in memory
+            if (key.day().isBefore(yesterday) && pending == null) {
+                live.remove(key, sketches);
+            }
+        });
+    }
+
+    private void save(DayKey key, Pending pending) {
+        try {
+            writeTx.executeWithoutResult(status -> upsertDay(key, pending));
+        } catch (DataIntegrityViolationException e) {
+            // Another node inserted the day first; its row exists now, so merge into it
+            writeTx.executeWithoutResult(status -> upsertDay(key, pending));
+        }
+    }
+
+    private void upsertDay(DayKey key, Pending pending) {
+        upsert(key, CLIENT_IP, pending.clientIps());
+        upsert(key, USER_AGENT, pending.userAgents());
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Error flushing cardinality sketches on shutdown", e);
+        }
+    }
+
+    private void upsert(DayKey key, String metric, byte[] bytes) {
+        ClientDailySketch row = sketchRepository
+                .findForUpdateByClientIdAndDayAndMetric(key.clientId(), key.day(), metric)
+                .orElseGet(() -> ClientDailySketch.builder()
+                        .clientId(key.clientId())
+                        .day(key.day())
+                        .metric(metric)
+                        .build());
+        HyperLogLog sketch = HyperLogLog.fromBytes(bytes);
+        if (row.getSketch() != null) {
+            HyperLogLog stored = HyperLogLog.fromBytes(row.getSketch());
+            if (stored.getPrecision() == sketch.getPrecision()) {
+                sketch.merge(stored);
+            } else {
+                log.warn("Replacing {} sketch for client {} on {}: precision changed", metric, key.clientId(), key.day());
+            }
+        }
+        row.setSketch(sketch.toBytes());
+        row.setUpdatedAt(LocalDateTime.now());
+        sketchRepository.save(row);
+    }
+
+    /**
+     * Unique IPs and user agents for a client over [from, to], by merging daily sketches
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> estimate(Long clientId, LocalDate from, LocalDate to) {
+        HyperLogLog clientIps = new HyperLogLog(precision);
+        HyperLogLog userAgents = new HyperLogLog(precision);
+
+        for (ClientDailySketch row : sketchRepository.findByClientIdAndDayBetween(clientId, from, to)) {
+            HyperLogLog stored = HyperLogLog.fromBytes(row.getSketch());
+            if (stored.getPrecision() != precision) {
+                continue;
+            }
+            (CLIENT_IP.equals(row.getMetric()) ? clientIps : userAgents).merge(stored);
+        }
+        // Include updates not flushed yet; merging is idempotent so overlap is harmless
+        live.forEach((key, sketches) -> {
+            if (key.clientId().equals(clientId) && !key.day().isBefore(from) && !key.day().isAfter(to)) {
+                clientIps.merge(sketches.copy(CLIENT_IP));
+                userAgents.merge(sketches.copy(USER_AGENT));
+            }
+        });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("clientId", clientId);
+        result.put("from", from);
+        result.put("to", to);
+        result.put("uniqueClientIps", clientIps.estimate());
+        result.put("uniqueUserAgents", userAgents.estimate());
+        result.put("relativeStandardError", 1.04 / Math.sqrt(1 << precision));
+        return result;
+    }
+}
@@ -1,36 +1,114 @@
 package com.web.restapidemo.service;
 
+import com.web.restapidemo.cache.CacheInvalidationBus;
+import com.web.restapidemo.cache.LocalCache;
+import com.web.restapidemo.entity.CatalogTombstone;
 import com.web.restapidemo.entity.Film;
+import com.web.restapidemo.readmodel.FilmView;
+import com.web.restapidemo.readmodel.Rating;
 import com.web.restapidemo.repository.FilmRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.validation.Valid;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class FilmService {
 
+    // Upper bound for multi-get (?ids=) on films and actors
+    public static final int MAX_IDS = 100;
+
+    // Single films by id; evicted on every node when a film is updated or deleted
+    public static final String CACHE_NAME = "film";
+
     @Autowired
     private FilmRepository filmRepository;
 
-    public List<Film> getAllFilms() {
-        return filmRepository.findAll();
+    @Autowired
+    private FilmStatsService filmStatsService;
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private CatalogChangesService catalogChangesService;
+
+    @Value("${app.cache.films.max-entries:2000}")
+    private int cacheMaxEntries;
+
+    @Value("${app.cache.films.ttl-ms:600000}")
+    private long cacheTtlMs;
+
+    private LocalCache<Film> filmsById;
+
+    @PostConstruct
+    void initCache() {
+        filmsById = cacheInvalidationBus.register(CACHE_NAME, cacheMaxEntries, cacheTtlMs);
+    }
+
+    // List reads use the FilmView read model: constructor projections in a read-only transaction,
+    // no managed entities, and the session is closed before serialization (open-in-view is off)
+    @Transactional(readOnly = true)
+    public List<FilmView> getAllFilms() {
+        return filmRepository.findAllViews();
     }
 
+    @Transactional(readOnly = true)
     public Optional<Film> getFilmById(Integer id) {
-        return filmRepository.findById(id);
+        return Optional.ofNullable(filmsById.get(String.valueOf(id), key -> filmRepository.findById(id).orElse(null)));
+    }
+
+    /**
+     * Load up to limit films, in id order, into the by-id cache (startup warmup); fills at most half of it.
+     * A Sakila-sized catalog fits entirely.
+     */
+    @Transactional(readOnly = true)
+    public int preloadCache(int limit) {
+        List<Film> films = filmRepository.findAll(PageRequest.of(0, Math.max(1, Math.min(limit, cacheMaxEntries / 2)),
+                Sort.by("filmId"))).getContent();
+        films.forEach(film -> filmsById.get(String.valueOf(film.getFilmId()), key -> film));
+        return films.size();
+    }
+
+    /**
+     * Films for the given ids in one IN query, returned in request order; unknown ids are skipped
+     */
+    @Transactional(readOnly = true)
+    public List<FilmView> getFilmsByIds(List<Integer> ids) {
+        Map<Integer, FilmView> byId = filmRepository.findViewsByIdIn(new LinkedHashSet<>(ids)).stream()
+                .collect(Collectors.toMap(FilmView::filmId, Function.identity()));
+        return ids.stream().distinct().map(byId::get).filter(Objects::nonNull).toList();
     }
 
     public Film createFilm(@Valid Film film) {
-        return filmRepository.save(film);
+        Film saved = filmRepository.save(film);
+        filmStatsService.onCreated(saved);
+        autocompleteService.onCatalogChanged();
+        return saved;
     }
 
+    @Transactional
     public Optional<Film> updateFilm(Integer id, @Valid Film filmDetails) {
         return filmRepository.findById(id).map(existingFilm -> {
+            FilmStatsService.FilmFacts before = FilmStatsService.FilmFacts.of(existingFilm);
+            boolean titleChanged = !existingFilm.getTitle().equals(filmDetails.getTitle());
             existingFilm.setTitle(filmDetails.getTitle());
             existingFilm.setDescription(filmDetails.getDescription());
             existingFilm.setReleaseYear(filmDetails.getReleaseYear());
@@ -42,32 +120,59 @@ public class FilmService {
             existingFilm.setReplacementCost(filmDetails.getReplacementCost());
             existingFilm.setRating(filmDetails.getRating());
             existingFilm.setSpecialFeatures(filmDetails.getSpecialFeatures());
-            return filmRepository.save(existingFilm);
+            Film saved = filmRepository.save(existingFilm);
+            cacheInvalidationBus.publish(CACHE_NAME, String.valueOf(id));
+            filmStatsService.onUpdated(before, saved);
+            if (titleChanged) {
+                autocompleteService.onCatalogChanged();
+            }
+            return saved;
         });
     }
 
+    @Transactional
     public void deleteFilm(Integer id) {
-        filmRepository.deleteById(id);
+        filmRepository.findById(id).ifPresent(film -> {
+            filmRepository.delete(film);
+            cacheInvalidationBus.publish(CACHE_NAME, String.valueOf(id));
+            catalogChangesService.recordDelete(CatalogTombstone.FILM, id);
+            filmStatsService.onDeleted(FilmStatsService.FilmFacts.of(film));
+            autocompleteService.onCatalogChanged();
+        });
+    }
+
+    // Served from memory; no transaction or connection needed
+    public Map<String, Object> getStats() {
+        return filmStatsService.getStats();
     }
 
     // Search methods
-    public List<Film> searchByTitle(String title) {
-        return filmRepository.findByTitleContainingIgnoreCase(title);
+    @Transactional(readOnly = true)
+    public List<FilmView> searchByTitle(String title) {
+        String escaped = title.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return filmRepository.findViewsByTitleContaining(escaped);
     }
 
-    public List<Film> getFilmsByRating(String rating) {
-        return filmRepository.findByRating(rating);
+    // Unknown ratings match nothing; no query needed
+    @Transactional(readOnly = true)
+    public List<FilmView> getFilmsByRating(String rating) {
+        return Rating.find(rating)
+                .map(r -> filmRepository.findViewsByRating(r.getLabel()))
+                .orElse(List.of());
     }
 
-    public List<Film> getFilmsByReleaseYear(Integer year) {
-        return filmRepository.findByReleaseYear(year);
+    @Transactional(readOnly = true)
+    public List<FilmView> getFilmsByReleaseYear(Integer year) {
+        return filmRepository.findViewsByReleaseYear(year);
     }
 
-    public List<Film> getFilmsByRentalRateRange(BigDecimal minRate, BigDecimal maxRate) {
-        return filmRepository.findByRentalRateBetween(minRate, maxRate);
+    @Transactional(readOnly = true)
+    public List<FilmView> getFilmsByRentalRateRange(BigDecimal minRate, BigDecimal maxRate) {
+        return filmRepository.findViewsByRentalRateBetween(minRate, maxRate);
     }
 
-    public List<Film> getLongFilms(Integer minLength) {
-        return filmRepository.findByLengthGreaterThanEqual(minLength);
+    @Transactional(readOnly = true)
+    public List<FilmView> getLongFilms(Integer minLength) {
+        return filmRepository.findViewsByLengthAtLeast(minLength);
     }
 }
\ No newline at end of file
@@ -0,0 +1,260 @@
+package com.web.restapidemo.service;
+
+import com.web.restapidemo.entity.Film;
+import com.web.restapidemo.repository.FilmRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Catalog statistics (counts by rating and release year, average rental rate, length
+ * distribution) held in memory. Built once at startup, then kept current by applying
+ * +1/-1 deltas from FilmService writes; reads return a pre-rendered snapshot.
+ * A periodic check rebuilds from the database and replaces the aggregates if they drifted.
+ */
+@Service
+@Slf4j
+public class FilmStatsService {
+
+    @Autowired
+    private FilmRepository filmRepository;
+
+    @Value("${app.films.stats.length-bucket-minutes:30}")
+    private int lengthBucketMinutes;
+
+    private Aggregates aggregates;
+    private long version;
+    private long driftCorrections;
+    private LocalDateTime lastVerifiedAt;
+    private volatile Map<String, Object> snapshot;
+
+    /**
+     * The fields the statistics depend on, captured before and after a write
+     */
+    public record FilmFacts(String rating, Integer releaseYear, BigDecimal rentalRate, Integer length) {
+
+        public static FilmFacts of(Film film) {
+            return new FilmFacts(film.getRating(), film.getReleaseYear(), film.getRentalRate(), film.getLength());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void build() {
+        Aggregates built = load();
+        synchronized (this) {
+            aggregates = built;
+            version++;
+            lastVerifiedAt = LocalDateTime.now();
+            publish();
+        }
+        log.info("Film statistics built from {} films", built.count);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> current = snapshot;
+        if (current == null) {
+            build();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    public void onCreated(Film film) {
+        afterCommit(null, FilmFacts.of(film));
+    }
+
+    public void onUpdated(FilmFacts before, Film after) {
+        FilmFacts facts = FilmFacts.of(after);
+        if (!before.equals(facts)) {
+            afterCommit(before, facts);
+        }
+    }
+
+    public void onDeleted(FilmFacts before) {
+        afterCommit(before, null);
+    }
+
+    /**
+     * Recompute from the database and replace the in-memory aggregates if they disagree.
+     * Skipped when a write lands while the scan is running; the next run picks it up.
+     */
+    @Scheduled(initialDelayString = "${app.films.stats.verify-interval-ms:600000}",
+            fixedDelayString = "${app.films.stats.verify-interval-ms:600000}")
+    @Transactional(readOnly = true)
+    public void verify() {
+        long startVersion;
+        synchronized (this) {
+            if (aggregates == null) {
+                return;
+            }
+            startVersion = version;
+        }
+        Aggregates fresh = load();
+        synchronized (this) {
+            if (version != startVersion) {
+                log.debug("Film statistics changed during verification; retrying next run");
+                return;
+            }
+            if (!fresh.sameAs(aggregates)) {
+                log.warn("Film statistics drifted from the database; rebuilding ({} in memory, {} in DB)",
+                        aggregates.count, fresh.count);
+                aggregates = fresh;
+                version++;
+                driftCorrections++;
+            }
+            lastVerifiedAt = LocalDateTime.now();
+            publish();
+        }
+    }
+
+    // Apply only once the write is durable, so rolled-back writes never skew the numbers
+    private void afterCommit(FilmFacts removed, FilmFacts added) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(removed, added);
+                }
+            });
+        } else {
+            apply(removed, added);
+        }
+    }
+
+    private synchronized void apply(FilmFacts removed, FilmFacts added) {
+        if (aggregates == null) {
+            // Not built yet; the startup build will include this write
+            return;
+        }
+        if (removed != null) {
+            aggregates.apply(removed, -1);
+        }
+        if (added != null) {
+            aggregates.apply(added, 1);
+        }
+        version++;
+        publish();
+    }
+
+    private Aggregates load() {
+        Aggregates loaded = new Aggregates(lengthBucketMinutes);
+        for (Object[] row : filmRepository.findStatsFacts()) {
+            loaded.apply(new FilmFacts((String) row[0], (Integer) row[1], (BigDecimal) row[2], (Integer) row[3]), 1);
+        }
+        return loaded;
+    }
+
+    // Called with the monitor held; renders the read-side view once per change
+    private void publish() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalFilms", aggregates.count);
+        stats.put("byRating", Collections.unmodifiableMap(new LinkedHashMap<>(aggregates.byRating)));
+
+        Map<String, Long> byYear = new LinkedHashMap<>();
+        aggregates.byYear.forEach((year, count) -> byYear.put(year.toString(), count));
+        if (aggregates.yearUnknown > 0) {
+            byYear.put("unknown", aggregates.yearUnknown);
+        }
+        stats.put("byReleaseYear", Collections.unmodifiableMap(byYear));
+
+        stats.put("averageRentalRate", aggregates.rentalRateCount == 0 ? null
+                : aggregates.rentalRateSum.divide(BigDecimal.valueOf(aggregates.rentalRateCount), 2, RoundingMode.HALF_UP));
+
+        Map<String, Object> length = new LinkedHashMap<>();
+        length.put("average", aggregates.lengthCount == 0 ? null
+                : Math.round(aggregates.lengthSum * 10.0 / aggregates.lengthCount) / 10.0);
+        length.put("bucketMinutes", aggregates.bucketMinutes);
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        aggregates.byLengthBucket.forEach((start, count) ->
+                buckets.put(start + "-" + (start + aggregates.bucketMinutes - 1), count));
+        if (aggregates.lengthUnknown > 0) {
+            buckets.put("unknown", aggregates.lengthUnknown);
+        }
+        length.put("distribution", Collections.unmodifiableMap(buckets));
+        stats.put("length", Collections.unmodifiableMap(length));
+
+        stats.put("version", version);
+        stats.put("lastVerifiedAt", lastVerifiedAt);
+        stats.put("driftCorrections", driftCorrections);
+        snapshot = Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Mutable counters; only touched while holding the service monitor
+     */
+    private static final class Aggregates {
+        private final int bucketMinutes;
+        private long count;
+        private final Map<String, Long> byRating = new TreeMap<>();
+        private final Map<Integer, Long> byYear = new TreeMap<>();
+        private long yearUnknown;
+        private BigDecimal rentalRateSum = BigDecimal.ZERO;
+        private long rentalRateCount;
+        private final Map<Integer, Long> byLengthBucket = new TreeMap<>();
+        private long lengthUnknown;
+        private long lengthSum;
+        private long lengthCount;
+
+        Aggregates(int bucketMinutes) {
+            this.bucketMinutes = Math.max(1, bucketMinutes);
+        }
+
+        void apply(FilmFacts film, int delta) {
+            count += delta;
+            add(byRating, film.rating() != null ? film.rating() : "NONE", delta);
+            if (film.releaseYear() != null) {
+                add(byYear, film.releaseYear(), delta);
+            } else {
+                yearUnknown += delta;
+            }
+            if (film.rentalRate() != null) {
+                rentalRateSum = rentalRateSum.add(film.rentalRate().multiply(BigDecimal.valueOf(delta)));
+                rentalRateCount += delta;
+            }
+            if (film.length() != null) {
+                add(byLengthBucket, film.length() / bucketMinutes * bucketMinutes, delta);
+                lengthSum += (long) film.length() * delta;
+                lengthCount += delta;
+            } else {
+                lengthUnknown += delta;
+            }
+        }
+
+        private static <K> void add(Map<K, Long> counts, K key, int delta) {
+            // Drop keys that reach zero so deleted ratings/years disappear from the output
+            counts.compute(key, (k, current) -> {
+                long next = (current == null ? 0 : current) + delta;
+                return next == 0 ? null : next;
+            });
+        }
+
+        boolean sameAs(Aggregates other) {
+            return count == other.count
+                    && byRating.equals(other.byRating)
+                    && byYear.equals(other.byYear)
+                    && yearUnknown == other.yearUnknown
+                    && rentalRateSum.compareTo(other.rentalRateSum) == 0
+                    && rentalRateCount == other.rentalRateCount
+                    && byLengthBucket.equals(other.byLengthBucket)
+                    && lengthUnknown == other.lengthUnknown
+                    && lengthSum == other.lengthSum
+                    && lengthCount == other.lengthCount;
+        }
+    }
+}
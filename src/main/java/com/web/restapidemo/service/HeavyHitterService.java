@@ -0,0 +1,118 @@
+package com.web.restapidemo.service;
+
+import com.web.restapidemo.analytics.SpaceSavingSketch;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Streaming top-K (heavy hitters) over sliding windows for URI template, API client and
+ * client IP, fed from the request logging path. Each window is a ring of one-minute
+ * Space-Saving sketches, so memory is fixed regardless of traffic and queries merge
+ * at most windowMinutes small sketches.
+ */
+@Service
+public class HeavyHitterService {
+
+    public enum Dimension { URI, CLIENT, IP }
+
+    public enum Metric { REQUESTS, ERRORS }
+
+    @Value("${app.analytics.heavy-hitters.capacity:200}")
+    private int capacity;
+
+    @Value("${app.analytics.heavy-hitters.window-minutes:60}")
+    private int windowMinutes;
+
+    private final Map<Dimension, Map<Metric, SlidingTopK>> windows = new EnumMap<>(Dimension.class);
+
+    @PostConstruct
+    void init() {
+        for (Dimension dimension : Dimension.values()) {
+            Map<Metric, SlidingTopK> byMetric = new EnumMap<>(Metric.class);
+            for (Metric metric : Metric.values()) {
+                byMetric.put(metric, new SlidingTopK(windowMinutes, capacity));
+            }
+            windows.put(dimension, byMetric);
+        }
+    }
+
+    /**
+     * Record one completed request; called from the logging path
+     */
+    public void record(String uriTemplate, String clientName, String clientIp, int status) {
+        long minute = System.currentTimeMillis() / 60_000;
+        boolean error = status >= 400;
+        record(Dimension.URI, uriTemplate, minute, error);
+        record(Dimension.CLIENT, clientName, minute, error);
+        record(Dimension.IP, clientIp, minute, error);
+    }
+
+    private void record(Dimension dimension, String key, long minute, boolean error) {
+        if (key == null) {
+            return;
+        }
+        Map<Metric, SlidingTopK> byMetric = windows.get(dimension);
+        byMetric.get(Metric.REQUESTS).add(key, minute);
+        if (error) {
+            byMetric.get(Metric.ERRORS).add(key, minute);
+        }
+    }
+
+    public Map<String, Object> top(Dimension dimension, Metric metric, int minutes, int limit) {
+        int window = Math.max(1, Math.min(minutes, windowMinutes));
+        int size = Math.max(0, Math.min(limit, capacity));
+        SpaceSavingSketch merged = windows.get(dimension).get(metric)
+                .merged(window, System.currentTimeMillis() / 60_000);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("dimension", dimension);
+        result.put("metric", metric);
+        result.put("windowMinutes", window);
+        result.put("total", merged.getTotal());
+        result.put("top", merged.top(size));
+        return result;
+    }
+
+    /**
+     * Ring of per-minute sketches; a slot is reset when its minute comes around again
+     */
+    private static final class SlidingTopK {
+        private final SpaceSavingSketch[] sketches;
+        private final long[] minutes;
+        private final int capacity;
+
+        SlidingTopK(int buckets, int capacity) {
+            this.sketches = new SpaceSavingSketch[buckets];
+            this.minutes = new long[buckets];
+            this.capacity = capacity;
+            for (int i = 0; i < buckets; i++) {
+                sketches[i] = new SpaceSavingSketch(capacity);
+                minutes[i] = -1;
+            }
+        }
+
+        synchronized void add(String key, long minute) {
+            int slot = (int) (minute % sketches.length);
+            if (minutes[slot] != minute) {
+                sketches[slot].clear();
+                minutes[slot] = minute;
+            }
+            sketches[slot].add(key);
+        }
+
+        synchronized SpaceSavingSketch merged(int window, long now) {
+            SpaceSavingSketch merged = new SpaceSavingSketch(capacity);
+            for (int i = 0; i < sketches.length; i++) {
+                if (minutes[i] > now - window && minutes[i] <= now) {
+                    merged.merge(sketches[i]);
+                }
+            }
+            return merged;
+        }
+    }
+}
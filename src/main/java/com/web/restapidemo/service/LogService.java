@@ -1,48 +1,65 @@
 package com.web.restapidemo.service;
 
+import com.web.restapidemo.datasource.TelemetryWriter;
 import com.web.restapidemo.entity.LogEntry;
-import com.web.restapidemo.repository.LogEntryRepository;
+import com.web.restapidemo.logstore.ShardedLogStore;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * api_log reads and writes through ShardedLogStore; queries return the newest limit rows
+ */
 @Service
 @Slf4j
 public class LogService {
     
     @Autowired
-    private LogEntryRepository logEntryRepository;
+    private ShardedLogStore logStore;
     
+    @Autowired
+    private TelemetryWriter telemetryWriter;
+    
+    /**
+     * Queue the insert on the telemetry writer; the caller never waits for it, and a full
+     * queue drops the entry (telemetry.dropped)
+     */
     public void saveLog(LogEntry logEntry) {
-        try {
-            logEntryRepository.save(logEntry);
-            log.info("Log saved to database: {} {}", logEntry.getMethod(), logEntry.getUri());
-        } catch (Exception e) {
-            log.error("Error saving log to database", e);
-        }
+        telemetryWriter.submit(() -> {
+            try {
+                logStore.save(logEntry);
+                log.debug("Log saved to database: {} {}", logEntry.getMethod(), logEntry.getUri());
+            } catch (Exception e) {
+                log.error("Error saving log to database", e);
+            }
+        });
     }
     
-    public List<LogEntry> searchLogs(String keyword) {
-        return logEntryRepository.searchLogs(keyword);
+    public List<LogEntry> searchLogs(String keyword, int limit) {
+        return logStore.search(keyword, limit);
     }
     
-    public List<LogEntry> findLogsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return logEntryRepository.findLogsByDateRange(startDate, endDate);
+    public List<LogEntry> findLogsByDateRange(LocalDateTime startDate, LocalDateTime endDate, int limit) {
+        return logStore.findByDateRange(startDate, endDate, limit);
     }
     
-    public List<LogEntry> findSlowRequests(Long thresholdMs) {
-        return logEntryRepository.findSlowRequests(thresholdMs);
+    public List<LogEntry> findSlowRequests(Long thresholdMs, int limit) {
+        return logStore.findSlowerThan(thresholdMs, limit);
     }
     
-    public List<LogEntry> findByMethod(String method) {
-        return logEntryRepository.findByMethod(method);
+    public List<LogEntry> findByMethod(String method, int limit) {
+        return logStore.findByMethod(method, limit);
     }
     
-    public List<LogEntry> findByResponseStatus(Integer status) {
-        return logEntryRepository.findByResponseStatus(status);
+    public List<LogEntry> findByResponseStatus(Integer status, int limit) {
+        return logStore.findByStatus(status, limit);
+    }
+    
+    public Map<String, Object> getStoreStats() {
+        return logStore.getStats();
     }
 }
-
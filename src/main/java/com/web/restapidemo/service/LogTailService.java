@@ -0,0 +1,199 @@
+package com.web.restapidemo.service;
+
+import com.web.restapidemo.entity.LogEntry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Live tail of API log entries over SSE.
+ * The request path only writes into a shared ring buffer; sender threads drain it per
+ * subscriber. Subscribers that fall a full ring behind skip ahead (entries counted as
+ * dropped) and are disconnected once they have dropped too many.
+ */
+@Service
+@Slf4j
+public class LogTailService {
+
+    @Value("${app.logs.tail.buffer-size:8192}")
+    private int bufferSize;
+
+    @Value("${app.logs.tail.max-subscribers:50}")
+    private int maxSubscribers;
+
+    @Value("${app.logs.tail.max-dropped:10000}")
+    private long maxDropped;
+
+    @Value("${app.logs.tail.sender-threads:2}")
+    private int senderThreads;
+
+    @Value("${app.logs.tail.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    private AtomicReferenceArray<TailEvent> ring;
+    private int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong droppedTotal = new AtomicLong();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService dispatcher;
+    private ExecutorService senders;
+
+    private record TailEvent(long sequence, String clientName, LogEntry entry) {
+    }
+
+    /**
+     * Server-side filters; null fields match everything
+     */
+    public record Filter(Integer status, String method, String client, Long minExecutionTimeMs) {
+
+        boolean matches(TailEvent event) {
+            LogEntry entry = event.entry();
+            return (status == null || status.equals(entry.getResponseStatus()))
+                    && (method == null || method.equalsIgnoreCase(entry.getMethod()))
+                    && (client == null || client.equals(event.clientName()))
+                    && (minExecutionTimeMs == null
+                        || (entry.getExecutionTimeMs() != null && entry.getExecutionTimeMs() >= minExecutionTimeMs));
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        int capacity = Integer.highestOneBit(Math.max(bufferSize, 2) - 1) << 1;
+        ring = new AtomicReferenceArray<>(capacity);
+        mask = capacity - 1;
+        dispatcher = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "log-tail-dispatcher"));
+        senders = Executors.newFixedThreadPool(senderThreads, r -> daemon(r, "log-tail-sender"));
+        dispatcher.scheduleWithFixedDelay(this::dispatch, 100, 100, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    /**
+     * Called on the request path: O(1), never blocks, never touches the database
+     */
+    public void publish(String clientName, LogEntry entry) {
+        long sequence = head.incrementAndGet();
+        ring.set((int) (sequence & mask), new TailEvent(sequence, clientName, entry));
+    }
+
+    public boolean canSubscribe() {
+        return subscribers.size() < maxSubscribers;
+    }
+
+    public SseEmitter subscribe(Filter filter, long timeoutMs) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, filter, head.get() + 1);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("published", head.get());
+        stats.put("bufferSize", ring.length());
+        stats.put("subscribers", subscribers.size());
+        stats.put("droppedTotal", droppedTotal.get());
+        return stats;
+    }
+
+    private void dispatch() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.draining.compareAndSet(false, true)) {
+                senders.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            long available = head.get();
+            while (subscriber.next <= available) {
+                TailEvent event = ring.get((int) (subscriber.next & mask));
+                if (event == null || event.sequence() < subscriber.next) {
+                    // Slot claimed but not yet written; pick it up on the next tick
+                    break;
+                }
+                if (event.sequence() > subscriber.next) {
+                    // Overwritten while this subscriber lagged: skip ahead to the oldest retained entry
+                    long oldestRetained = head.get() - ring.length() + 1;
+                    long skipped = Math.max(1, oldestRetained - subscriber.next);
+                    subscriber.dropped += skipped;
+                    droppedTotal.addAndGet(skipped);
+                    subscriber.next += skipped;
+                    if (subscriber.dropped > maxDropped) {
+                        log.warn("Disconnecting slow log tail subscriber after {} dropped entries", subscriber.dropped);
+                        subscriber.emitter.complete();
+                        subscribers.remove(subscriber);
+                        return;
+                    }
+                    continue;
+                }
+                if (subscriber.filter.matches(event)) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(Long.toString(event.sequence()))
+                            .name("log")
+                            .data(event.entry(), MediaType.APPLICATION_JSON));
+                    subscriber.lastSentAt = System.currentTimeMillis();
+                }
+                subscriber.next++;
+            }
+            if (System.currentTimeMillis() - subscriber.lastSentAt > heartbeatMs) {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                subscriber.lastSentAt = System.currentTimeMillis();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter already completed
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscriber.draining.set(false);
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final Filter filter;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private long next;
+        private long dropped;
+        private long lastSentAt = System.currentTimeMillis();
+
+        Subscriber(SseEmitter emitter, Filter filter, long next) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.next = next;
+        }
+    }
+}
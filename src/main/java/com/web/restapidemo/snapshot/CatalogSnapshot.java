@@ -0,0 +1,397 @@
+package com.web.restapidemo.snapshot;
+
+import com.web.restapidemo.readmodel.ActorView;
+import com.web.restapidemo.readmodel.FilmView;
+import com.web.restapidemo.readmodel.Rating;
+import com.web.restapidemo.readmodel.SpecialFeatures;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+/**
+ * Read-only copy of all films and actors in a compact binary file, read through a memory
+ * mapping: opening it maps the file and checks the header and checksum, nothing is parsed
+ * up front, and rows are decoded on access. Lookups by id are binary searches over
+ * fixed-width records sorted by id; filters scan the records.
+ * <p>
+ * Layout (big-endian): a 48-byte header (magic "CSNP", format version, creation time, row
+ * counts, section offsets, total length, CRC32C of everything after the header), then
+ * 64-byte film records (ints, then cents and millis as longs, then string offsets and the
+ * special features bitset), 24-byte actor records and a pool of length-prefixed UTF-8 strings
+ * referenced by offset. Nullable numbers use MIN_VALUE sentinels and null strings offset -1.
+ * Money is stored as cents and timestamps as UTC epoch millis, as in the protobuf codec.
+ * A reader rejects any other format version, so the layout can change by bumping it.
+ */
+public final class CatalogSnapshot {
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x43534E50;
+    private static final int HEADER = 48;
+    private static final int FILM_RECORD = 64;
+    private static final int ACTOR_RECORD = 24;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final int NULL_STRING = -1;
+
+    private final ByteBuffer buffer;
+    private final LocalDateTime createdAt;
+    private final int filmCount;
+    private final int actorCount;
+    private final int filmsOffset;
+    private final int actorsOffset;
+    private final int stringsOffset;
+    private final int checksum;
+
+    private CatalogSnapshot(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a catalog snapshot");
+        }
+        int version = buffer.getShort(4);
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported catalog snapshot version " + version);
+        }
+        int length = buffer.getInt(36);
+        if (length != buffer.capacity()) {
+            throw new IOException("Truncated catalog snapshot");
+        }
+        this.buffer = buffer;
+        this.createdAt = dateTime(buffer.getLong(8));
+        this.filmCount = buffer.getInt(16);
+        this.actorCount = buffer.getInt(20);
+        this.filmsOffset = buffer.getInt(24);
+        this.actorsOffset = buffer.getInt(28);
+        this.stringsOffset = buffer.getInt(32);
+        this.checksum = buffer.getInt(40);
+        if (filmsOffset != HEADER || actorsOffset != filmsOffset + filmCount * FILM_RECORD
+                || stringsOffset != actorsOffset + actorCount * ACTOR_RECORD || stringsOffset > length) {
+            throw new IOException("Corrupt catalog snapshot header");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(HEADER, length - HEADER));
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Catalog snapshot checksum mismatch");
+        }
+    }
+
+    /**
+     * Map a snapshot file. The file must not be modified or replaced while mapped (Windows
+     * refuses either), so each version is written under a new name.
+     */
+    public static CatalogSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Catalog snapshot too large");
+            }
+            return new CatalogSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static CatalogSnapshot wrap(byte[] bytes) throws IOException {
+        return new CatalogSnapshot(ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+    }
+
+    /**
+     * Write bytes to path atomically: a temporary file in the same directory, flushed to
+     * disk and renamed to the target, so readers never see a partial file.
+     */
+    public static void write(Path path, byte[] bytes) throws IOException {
+        Path target = path.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer data = ByteBuffer.wrap(bytes);
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public static byte[] encode(List<FilmView> films, List<ActorView> actors, LocalDateTime createdAt) {
+        List<FilmView> sortedFilms = films.stream().sorted(Comparator.comparingInt(FilmView::filmId)).toList();
+        List<ActorView> sortedActors = actors.stream().sorted(Comparator.comparingInt(ActorView::id)).toList();
+        StringPool strings = new StringPool();
+        int filmsOffset = HEADER;
+        int actorsOffset = filmsOffset + sortedFilms.size() * FILM_RECORD;
+        int stringsOffset = actorsOffset + sortedActors.size() * ACTOR_RECORD;
+
+        ByteBuffer records = ByteBuffer.allocate(stringsOffset);
+        records.position(filmsOffset);
+        for (FilmView film : sortedFilms) {
+            records.putInt(film.filmId());
+            records.putInt(nullable(film.releaseYear()));
+            records.putInt(film.languageId());
+            records.putInt(nullable(film.originalLanguageId()));
+            records.putInt(film.rentalDuration());
+            records.putInt(nullable(film.length()));
+            records.putLong(cents(film.rentalRate()));
+            records.putLong(cents(film.replacementCost()));
+            records.putLong(epochMillis(film.lastUpdate()));
+            records.putInt(strings.add(film.title()));
+            records.putInt(strings.add(film.description()));
+            records.putInt(strings.add(film.rating() != null ? film.rating().getLabel() : null));
+            records.putInt(film.specialFeatures() != null ? film.specialFeatures().getBits() : NULL_INT);
+        }
+        for (ActorView actor : sortedActors) {
+            records.putInt(actor.id());
+            records.putInt(strings.add(actor.firstName()));
+            records.putInt(strings.add(actor.lastName()));
+            records.putInt(0);
+            records.putLong(epochMillis(actor.lastUpdate()));
+        }
+
+        byte[] pool = strings.toByteArray();
+        int length = stringsOffset + pool.length;
+        ByteBuffer out = ByteBuffer.allocate(length);
+        out.put(records.array(), 0, stringsOffset);
+        out.put(pool);
+        CRC32C crc = new CRC32C();
+        crc.update(out.array(), HEADER, length - HEADER);
+
+        out.putInt(0, MAGIC);
+        out.putShort(4, (short) FORMAT_VERSION);
+        out.putLong(8, epochMillis(createdAt));
+        out.putInt(16, sortedFilms.size());
+        out.putInt(20, sortedActors.size());
+        out.putInt(24, filmsOffset);
+        out.putInt(28, actorsOffset);
+        out.putInt(32, stringsOffset);
+        out.putInt(36, length);
+        out.putInt(40, (int) crc.getValue());
+        return out.array();
+    }
+
+    // Strings are stored once however many rows use them (ratings, repeated names)
+    private static final class StringPool {
+        private final Map<String, Integer> offsets = new HashMap<>();
+        private final List<byte[]> values = new ArrayList<>();
+        private int size;
+
+        int add(String value) {
+            if (value == null) {
+                return NULL_STRING;
+            }
+            return offsets.computeIfAbsent(value, key -> {
+                byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+                int offset = size;
+                values.add(bytes);
+                size += 4 + bytes.length;
+                return offset;
+            });
+        }
+
+        byte[] toByteArray() {
+            ByteBuffer pool = ByteBuffer.allocate(size);
+            values.forEach(bytes -> pool.putInt(bytes.length).put(bytes));
+            return pool.array();
+        }
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getFilmCount() {
+        return filmCount;
+    }
+
+    public int getActorCount() {
+        return actorCount;
+    }
+
+    public int getChecksum() {
+        return checksum;
+    }
+
+    public int getSizeBytes() {
+        return buffer.capacity();
+    }
+
+    // Films, same semantics as the FilmService queries
+
+    public List<FilmView> films() {
+        return scan(filmCount, this::film, film -> true);
+    }
+
+    public Optional<FilmView> film(Integer id) {
+        int index = find(filmsOffset, FILM_RECORD, filmCount, id);
+        return index < 0 ? Optional.empty() : Optional.of(film(index));
+    }
+
+    public List<FilmView> filmsByIds(List<Integer> ids) {
+        return byIds(ids, filmsOffset, FILM_RECORD, filmCount, this::film);
+    }
+
+    public List<FilmView> searchByTitle(String title) {
+        String needle = title.toLowerCase(Locale.ROOT);
+        return scan(filmCount, this::film, film -> film.title() != null
+                && film.title().toLowerCase(Locale.ROOT).contains(needle));
+    }
+
+    public List<FilmView> filmsByRating(String rating) {
+        return Rating.find(rating)
+                .map(r -> scan(filmCount, this::film, film -> film.rating() == r))
+                .orElse(List.of());
+    }
+
+    public List<FilmView> filmsByReleaseYear(Integer year) {
+        return scan(filmCount, this::film, film -> Objects.equals(film.releaseYear(), year));
+    }
+
+    public List<FilmView> filmsByRentalRateRange(BigDecimal minRate, BigDecimal maxRate) {
+        return scan(filmCount, this::film, film -> film.rentalRate() != null
+                && film.rentalRate().compareTo(minRate) >= 0 && film.rentalRate().compareTo(maxRate) <= 0);
+    }
+
+    public List<FilmView> longFilms(Integer minLength) {
+        return scan(filmCount, this::film, film -> film.length() != null && film.length() >= minLength);
+    }
+
+    // Actors
+
+    public List<ActorView> actors() {
+        return scan(actorCount, this::actor, actor -> true);
+    }
+
+    public Optional<ActorView> actor(Integer id) {
+        int index = find(actorsOffset, ACTOR_RECORD, actorCount, id);
+        return index < 0 ? Optional.empty() : Optional.of(actor(index));
+    }
+
+    public List<ActorView> actorsByIds(List<Integer> ids) {
+        return byIds(ids, actorsOffset, ACTOR_RECORD, actorCount, this::actor);
+    }
+
+    private FilmView film(int index) {
+        int at = filmsOffset + index * FILM_RECORD;
+        String rating = string(buffer.getInt(at + 56));
+        int features = buffer.getInt(at + 60);
+        return new FilmView(
+                buffer.getInt(at),
+                string(buffer.getInt(at + 48)),
+                string(buffer.getInt(at + 52)),
+                nullable(buffer.getInt(at + 4)),
+                buffer.getInt(at + 8),
+                nullable(buffer.getInt(at + 12)),
+                buffer.getInt(at + 16),
+                money(buffer.getLong(at + 24)),
+                nullable(buffer.getInt(at + 20)),
+                money(buffer.getLong(at + 32)),
+                Rating.fromLabel(rating),
+                features == NULL_INT ? null : SpecialFeatures.of(features),
+                dateTime(buffer.getLong(at + 40)));
+    }
+
+    private ActorView actor(int index) {
+        int at = actorsOffset + index * ACTOR_RECORD;
+        return new ActorView(buffer.getInt(at), string(buffer.getInt(at + 4)), string(buffer.getInt(at + 8)),
+                dateTime(buffer.getLong(at + 16)));
+    }
+
+    private static <T> List<T> scan(int count, IntFunction<T> row, Predicate<T> filter) {
+        List<T> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            T value = row.apply(i);
+            if (filter.test(value)) {
+                rows.add(value);
+            }
+        }
+        return rows;
+    }
+
+    // Request order, duplicates and unknown ids dropped, like the IN queries
+    private <T> List<T> byIds(List<Integer> ids, int offset, int recordSize, int count, IntFunction<T> row) {
+        List<T> rows = new ArrayList<>();
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            int index = find(offset, recordSize, count, id);
+            if (index >= 0) {
+                rows.add(row.apply(index));
+            }
+        }
+        return rows;
+    }
+
+    // Records are sorted by their leading int id
+    private int find(int offset, int recordSize, int count, Integer id) {
+        if (id == null) {
+            return -1;
+        }
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = buffer.getInt(offset + mid * recordSize);
+            if (value < id) {
+                low = mid + 1;
+            } else if (value > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private String string(int offset) {
+        if (offset == NULL_STRING) {
+            return null;
+        }
+        int at = stringsOffset + offset;
+        byte[] bytes = new byte[buffer.getInt(at)];
+        buffer.get(at + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int nullable(Integer value) {
+        return value != null ? value : NULL_INT;
+    }
+
+    private static Integer nullable(int value) {
+        return value != NULL_INT ? value : null;
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact() : NULL_LONG;
+    }
+
+    private static BigDecimal money(long cents) {
+        return cents != NULL_LONG ? BigDecimal.valueOf(cents, 2) : null;
+    }
+
+    private static long epochMillis(LocalDateTime value) {
+        return value != null ? value.toInstant(ZoneOffset.UTC).toEpochMilli() : NULL_LONG;
+    }
+
+    private static LocalDateTime dateTime(long millis) {
+        return millis != NULL_LONG ? LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC) : null;
+    }
+}
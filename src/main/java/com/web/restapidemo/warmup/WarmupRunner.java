@@ -0,0 +1,318 @@
+package com.web.restapidemo.warmup;
+
+import com.web.restapidemo.cache.CacheInvalidationBus;
+import com.web.restapidemo.entity.ApiClient;
+import com.web.restapidemo.service.ApiClientService;
+import com.web.restapidemo.service.FilmService;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms a freshly started node before it reports ready. Spring Boot only publishes
+ * ReadinessState.ACCEPTING_TRAFFIC after all ApplicationRunners return, so the readiness
+ * probe (/actuator/health/readiness) stays OUT_OF_SERVICE while this runs.
+ * Phases: open the Hikari pools, preload the API key and film caches, then send synthetic
+ * requests over loopback through the full stack (Tomcat, ApiKeyInterceptor, bulkheads,
+ * controllers, Hibernate, Jackson) until per-round median latency stops improving.
+ * Everything is bounded by time-limit-ms; when it runs out the node goes ready anyway.
+ * Synthetic requests carry a per-boot token and are neither billed nor logged.
+ */
+@Component
+@Slf4j
+public class WarmupRunner implements ApplicationRunner {
+
+    public static final String TOKEN_HEADER = "X-Warmup-Token";
+
+    public enum State { PENDING, RUNNING, READY, TIMED_OUT, DISABLED }
+
+    private record Round(int round, int requests, int errors, double p50Ms, double maxMs) {
+    }
+
+    private static final int REPORTED_ROUNDS = 20;
+
+    @Autowired
+    private ObjectProvider<HikariDataSource> pools;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private ApiClientService apiClientService;
+
+    @Autowired
+    private FilmService filmService;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${app.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.warmup.time-limit-ms:60000}")
+    private long timeLimitMs;
+
+    @Value("${app.warmup.films.preload:1000}")
+    private int filmsToPreload;
+
+    @Value("${app.warmup.paths:/api/films,/api/films/1,/api/films?ids=1,2,3,/api/films/search?title=an,/api/actors,/api/actors/1}")
+    private String paths;
+
+    @Value("${app.warmup.concurrency:4}")
+    private int concurrency;
+
+    @Value("${app.warmup.min-rounds:5}")
+    private int minRounds;
+
+    @Value("${app.warmup.stable-rounds:3}")
+    private int stableRounds;
+
+    @Value("${app.warmup.tolerance:0.10}")
+    private double tolerance;
+
+    private final String token = UUID.randomUUID().toString();
+    private final Map<String, Object> phases = new LinkedHashMap<>();
+    private final Deque<Round> rounds = new ArrayDeque<>();
+    private volatile State state = State.PENDING;
+    private volatile String phase;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile boolean stable;
+    private int roundCount;
+
+    /**
+     * True for the synthetic requests this runner sends; interceptors skip billing and logging for them
+     */
+    public boolean isSynthetic(HttpServletRequest request) {
+        return state == State.RUNNING && token.equals(request.getHeader(TOKEN_HEADER));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            state = State.DISABLED;
+            return;
+        }
+        startedAt = System.currentTimeMillis();
+        long deadline = startedAt + timeLimitMs;
+        state = State.RUNNING;
+        log.info("Warmup started (time limit {} ms); readiness is held until it finishes", timeLimitMs);
+
+        try {
+            runPhase("pool", this::openPools);
+            runPhase("caches", () -> preloadCaches(deadline));
+            runPhase("synthetic", () -> syntheticTraffic(deadline));
+        } finally {
+            finishedAt = System.currentTimeMillis();
+            state = System.currentTimeMillis() >= deadline ? State.TIMED_OUT : State.READY;
+            phase = null;
+            log.info("Warmup {} in {} ms: {}", state == State.READY ? "finished" : "hit its time limit",
+                    finishedAt - startedAt, phases);
+        }
+    }
+
+    private synchronized void putPhase(String name, Object result) {
+        phases.put(name, result);
+    }
+
+    private void runPhase(String name, PhaseBody body) {
+        phase = name;
+        long start = System.nanoTime();
+        Map<String, Object> result = new LinkedHashMap<>();
+        try {
+            result.putAll(body.run());
+        } catch (Exception e) {
+            // A failed phase only costs warmth; never block startup on it
+            log.warn("Warmup phase '{}' failed: {}", name, e.getMessage());
+            result.put("error", e.getMessage());
+        }
+        result.put("ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        putPhase(name, result);
+        log.info("Warmup phase '{}': {}", name, result);
+    }
+
+    @FunctionalInterface
+    private interface PhaseBody {
+        Map<String, Object> run() throws Exception;
+    }
+
+    // Hold minimumIdle connections at once so each pool opens them now rather than on first requests
+    private Map<String, Object> openPools() throws Exception {
+        Map<String, Object> opened = new LinkedHashMap<>();
+        for (HikariDataSource pool : pools.orderedStream().toList()) {
+            List<Connection> held = new ArrayList<>();
+            try {
+                for (int i = 0; i < pool.getMinimumIdle(); i++) {
+                    held.add(pool.getConnection());
+                }
+            } finally {
+                for (Connection connection : held) {
+                    connection.close();
+                }
+            }
+            opened.put(pool.getPoolName(), held.size());
+        }
+        return opened;
+    }
+
+    private Map<String, Object> preloadCaches(long deadline) throws InterruptedException {
+        // Caches are bypassed until the invalidation bus has polled once; preloading before that is wasted
+        while (!cacheInvalidationBus.isFresh() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Map<String, Object> loaded = new LinkedHashMap<>();
+        if (!cacheInvalidationBus.isFresh()) {
+            loaded.put("skipped", "cache invalidation bus not polling");
+            return loaded;
+        }
+        loaded.put("apiClients", apiClientService.preloadCache());
+        loaded.put("films", filmService.preloadCache(filmsToPreload));
+        return loaded;
+    }
+
+    private Map<String, Object> syntheticTraffic(long deadline) throws Exception {
+        Map<String, Object> result = new LinkedHashMap<>();
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null) {
+            result.put("skipped", "no web server");
+            return result;
+        }
+        // Any active client exercises the real authentication path; without one only the 401 path is warmed
+        String apiKey = apiClientService.getActiveClients().stream().findFirst()
+                .map(ApiClient::getApiKey).orElse(null);
+        if (apiKey == null) {
+            log.warn("Warmup found no active API client; synthetic requests will be rejected with 401");
+        }
+        List<URI> targets = Arrays.stream(paths.split(",(?=/)"))
+                .map(String::trim)
+                .filter(path -> !path.isEmpty())
+                .map(path -> URI.create("http://localhost:" + port + path))
+                .toList();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread thread = new Thread(r, "warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        try {
+            while (System.currentTimeMillis() < deadline && !stable) {
+                runRound(client, workers, targets, apiKey, deadline);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        result.put("rounds", roundCount);
+        result.put("stable", stable);
+        synchronized (this) {
+            result.put("lastP50Ms", rounds.isEmpty() ? null : rounds.peekLast().p50Ms());
+        }
+        return result;
+    }
+
+    private void runRound(HttpClient client, ExecutorService workers, List<URI> targets, String apiKey,
+                          long deadline) throws InterruptedException {
+        List<Future<Long>> calls = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            for (URI target : targets) {
+                calls.add(workers.submit(() -> call(client, target, apiKey, deadline)));
+            }
+        }
+        List<Long> latencies = new ArrayList<>();
+        int errors = 0;
+        for (Future<Long> call : calls) {
+            try {
+                latencies.add(call.get());
+            } catch (Exception e) {
+                errors++;
+            }
+        }
+        latencies.sort(null);
+        double p50 = latencies.isEmpty() ? 0 : latencies.get(latencies.size() / 2) / 1e6;
+        double max = latencies.isEmpty() ? 0 : latencies.get(latencies.size() - 1) / 1e6;
+
+        synchronized (this) {
+            roundCount++;
+            rounds.addLast(new Round(roundCount, calls.size(), errors, p50, max));
+            while (rounds.size() > REPORTED_ROUNDS) {
+                rounds.removeFirst();
+            }
+            stable = roundCount >= minRounds && isStable();
+        }
+        log.debug("Warmup round {}: p50 {} ms, max {} ms, {} errors", roundCount, p50, max, errors);
+    }
+
+    // The last stable-rounds medians lie within tolerance of each other
+    private boolean isStable() {
+        if (rounds.size() < stableRounds) {
+            return false;
+        }
+        double min = Double.MAX_VALUE;
+        double max = 0;
+        int i = 0;
+        for (var it = rounds.descendingIterator(); it.hasNext() && i < stableRounds; i++) {
+            Round round = it.next();
+            if (round.errors() == round.requests()) {
+                return false;
+            }
+            min = Math.min(min, round.p50Ms());
+            max = Math.max(max, round.p50Ms());
+        }
+        return min > 0 && (max - min) / min <= tolerance;
+    }
+
+    private long call(HttpClient client, URI target, String apiKey, long deadline) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(target)
+                .timeout(Duration.ofMillis(Math.max(1, deadline - System.currentTimeMillis())))
+                .header(TOKEN_HEADER, token)
+                .header("User-Agent", "warmup")
+                .GET();
+        if (apiKey != null) {
+            request.header("X-API-Key", apiKey);
+        }
+        long start = System.nanoTime();
+        client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        return System.nanoTime() - start;
+    }
+
+    public synchronized Map<String, Object> getReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("state", state);
+        report.put("phase", phase);
+        report.put("elapsedMs", startedAt == 0 ? null : (finishedAt != 0 ? finishedAt : System.currentTimeMillis()) - startedAt);
+        report.put("timeLimitMs", timeLimitMs);
+        report.put("phases", new LinkedHashMap<>(phases));
+        report.put("stable", stable);
+        report.put("rounds", new ArrayList<>(rounds));
+        return report;
+    }
+}
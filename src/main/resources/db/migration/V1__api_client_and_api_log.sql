@@ -0,0 +1,26 @@
+-- Tables the application owned before versioned migrations; IF NOT EXISTS so existing databases keep them
+CREATE TABLE IF NOT EXISTS api_client (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    client_name VARCHAR(100) NOT NULL UNIQUE,
+    api_key VARCHAR(64) NOT NULL UNIQUE,
+    description VARCHAR(255),
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+    created_at DATETIME NOT NULL,
+    last_used_at DATETIME,
+    request_count BIGINT NOT NULL DEFAULT 0,
+    contact_email VARCHAR(100),
+    client_type VARCHAR(50)
+);
+
+CREATE TABLE IF NOT EXISTS api_log (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    timestamp DATETIME(6) NOT NULL,
+    method VARCHAR(10),
+    uri VARCHAR(500),
+    request_body TEXT,
+    response_status INT,
+    response_body TEXT,
+    execution_time_ms BIGINT,
+    client_ip VARCHAR(50),
+    user_agent VARCHAR(500)
+);
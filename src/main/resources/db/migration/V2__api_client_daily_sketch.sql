@@ -0,0 +1,10 @@
+-- Per-client daily HyperLogLog sketches of client IPs and user agents (ClientCardinalityService)
+CREATE TABLE api_client_daily_sketch (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    client_id BIGINT NOT NULL,
+    day DATE NOT NULL,
+    metric VARCHAR(20) NOT NULL,
+    sketch MEDIUMBLOB NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    CONSTRAINT uk_api_client_daily_sketch UNIQUE (client_id, day, metric)
+);
@@ -0,0 +1,9 @@
+-- Per-request phase timing on each log entry (RequestPhaseRecorder)
+ALTER TABLE api_log ADD COLUMN (
+    auth_time_us BIGINT,
+    db_wait_time_us BIGINT,
+    sql_time_us BIGINT,
+    sql_statement_count INT,
+    serialization_time_us BIGINT,
+    timing_detail TEXT
+);
@@ -0,0 +1,10 @@
+-- Change log tailed by every node for cross-node cache invalidation (CacheInvalidationBus)
+CREATE TABLE cache_change_log (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    cache_name VARCHAR(50) NOT NULL,
+    entry_key VARCHAR(100) NOT NULL,
+    origin_node VARCHAR(64) NOT NULL,
+    created_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX idx_cache_change_log_created_at ON cache_change_log (created_at);
@@ -0,0 +1,11 @@
+-- Delta-sync changes feed: delete tombstones and (last_update, id) paging indexes (CatalogChangesService)
+CREATE TABLE catalog_tombstone (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id INT NOT NULL,
+    deleted_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX idx_catalog_tombstone_type_deleted ON catalog_tombstone (entity_type, deleted_at, id);
+CREATE INDEX idx_film_last_update ON film (last_update, film_id);
+CREATE INDEX idx_actor_last_update ON actor (last_update, actor_id);
@@ -0,0 +1,42 @@
+package com.web.restapidemo.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTests {
+
+    @Test
+    void neverForgetsAddedValues() {
+        BloomFilter filter = new BloomFilter(10_000, 0.001, 42);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("key-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("key-" + i));
+        }
+    }
+
+    @Test
+    void falsePositiveRateNearTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01, 7);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("issued-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("random-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertEquals(0.01, falsePositives / 100_000.0, 0.005);
+    }
+
+    @Test
+    void rejectsBadSizing() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0, 1));
+    }
+}
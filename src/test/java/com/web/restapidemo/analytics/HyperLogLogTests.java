@@ -0,0 +1,57 @@
+package com.web.restapidemo.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HyperLogLogTests {
+
+    @Test
+    void estimatesWithinExpectedError() {
+        HyperLogLog sketch = new HyperLogLog(14);
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add("10.0." + (i / 256) + "." + (i % 256) + "#" + i);
+        }
+        assertEquals(100_000, sketch.estimate(), 100_000 * 0.03);
+    }
+
+    @Test
+    void duplicatesDoNotInflateEstimate() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 500; i++) {
+                sketch.add("agent-" + i);
+            }
+        }
+        assertEquals(500, sketch.estimate(), 500 * 0.05);
+    }
+
+    @Test
+    void mergeMatchesUnionOfDays() {
+        HyperLogLog monday = new HyperLogLog(14);
+        HyperLogLog tuesday = new HyperLogLog(14);
+        for (int i = 0; i < 20_000; i++) {
+            monday.add("ip-" + i);
+            tuesday.add("ip-" + (i + 10_000));
+        }
+        monday.merge(tuesday);
+        assertEquals(30_000, monday.estimate(), 30_000 * 0.03);
+    }
+
+    @Test
+    void binaryRoundTripPreservesRegisters() {
+        HyperLogLog sketch = new HyperLogLog(10);
+        for (int i = 0; i < 1_000; i++) {
+            sketch.add("value-" + i);
+        }
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+        assertEquals(sketch.estimate(), restored.estimate());
+        assertEquals((1 << 10) + 2, sketch.toBytes().length);
+    }
+
+    @Test
+    void rejectsMergeOfDifferentPrecision() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(10).merge(new HyperLogLog(12)));
+    }
+}
@@ -0,0 +1,47 @@
+package com.web.restapidemo.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixIndexTests {
+
+    private static final List<PrefixIndex.Suggestion> FILMS = List.of(
+            new PrefixIndex.Suggestion(1, "ACADEMY DINOSAUR"),
+            new PrefixIndex.Suggestion(2, "ACE GOLDFINGER"),
+            new PrefixIndex.Suggestion(3, "ADAPTATION HOLES"),
+            new PrefixIndex.Suggestion(4, "DINOSAUR SECRETARY"),
+            new PrefixIndex.Suggestion(5, "AFRICAN EGG"));
+
+    @Test
+    void matchesAnyWordStartCaseInsensitively() {
+        PrefixIndex index = PrefixIndex.build(FILMS, 10);
+        List<Integer> ids = index.lookup("Dino", 10).stream().map(PrefixIndex.Suggestion::id).toList();
+        assertEquals(List.of(1, 4), ids);
+        assertTrue(index.lookup("inosaur", 10).isEmpty());
+        assertTrue(index.lookup("zzz", 10).isEmpty());
+    }
+
+    @Test
+    void ranksShortestFirstAndRespectsLimit() {
+        PrefixIndex index = PrefixIndex.build(FILMS, 10);
+        List<Integer> ids = index.lookup("a", 2).stream().map(PrefixIndex.Suggestion::id).toList();
+        assertEquals(List.of(5, 2), ids);
+    }
+
+    @Test
+    void keepsOnlyTopKPerNode() {
+        List<PrefixIndex.Suggestion> many = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            many.add(new PrefixIndex.Suggestion(i, "TITLE " + i));
+        }
+        PrefixIndex index = PrefixIndex.build(many, 5);
+        assertEquals(5, index.lookup("title", 50).size());
+        assertEquals("TITLE 0", index.lookup("title", 1).get(0).text());
+        assertEquals(1, index.lookup("title 999", 5).size());
+    }
+}
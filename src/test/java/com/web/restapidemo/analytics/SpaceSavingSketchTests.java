@@ -0,0 +1,58 @@
+package com.web.restapidemo.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpaceSavingSketchTests {
+
+    @Test
+    void keepsHeavyHittersInCountOrder() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(10);
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add("noise-" + i);
+            if (i % 4 == 0) {
+                sketch.add("/api/films");
+            }
+            if (i % 5 == 0) {
+                sketch.add("/api/actors");
+            }
+        }
+        List<SpaceSavingSketch.Estimate> top = sketch.top(2);
+        assertEquals("/api/films", top.get(0).key());
+        assertEquals("/api/actors", top.get(1).key());
+        assertTrue(top.get(0).count() - top.get(0).maxError() <= 2_500);
+        assertTrue(top.get(0).count() >= 2_500);
+        assertEquals(14_500, sketch.getTotal());
+    }
+
+    @Test
+    void mergeAddsCountsAndErrors() {
+        SpaceSavingSketch first = new SpaceSavingSketch(2);
+        SpaceSavingSketch second = new SpaceSavingSketch(2);
+        first.add("a");
+        first.add("a");
+        second.add("a");
+        second.add("b");
+        first.merge(second);
+
+        List<SpaceSavingSketch.Estimate> top = first.top(5);
+        assertEquals(List.of(new SpaceSavingSketch.Estimate("a", 3, 0), new SpaceSavingSketch.Estimate("b", 1, 0)), top);
+        assertEquals(4, first.getTotal());
+    }
+
+    @Test
+    void limitIsBounded() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(3);
+        sketch.add("a");
+        sketch.add("b");
+        assertEquals(0, sketch.top(-1).size());
+        assertEquals(0, sketch.top(0).size());
+        assertEquals(2, sketch.top(100).size());
+        sketch.clear();
+        assertEquals(0, sketch.top(5).size());
+    }
+}
@@ -0,0 +1,101 @@
+package com.web.restapidemo.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load generator comparing the servlet (FilmController) and reactive film read paths
+ * against a running instance. Not a unit test; run manually:
+ *
+ *   java -cp target/test-classes com.web.restapidemo.bench.FilmReadBenchmark \
+ *        &lt;api-key&gt; [concurrency=500] [requests=20000] [clientThreads=4]
+ *
+ * Start the server with app.reactive.enabled=true, a small Tomcat pool (server.tomcat.threads.max=8) and
+ * app.reactive.event-loop-threads=2 so both sides run on a comparable thread budget.
+ */
+public class FilmReadBenchmark {
+
+    private static final String[] PATHS = {"/api/films/1", "/api/films/search?title=ACE", "/api/films/42"};
+
+    public static void main(String[] args) throws Exception {
+        String apiKey = args[0];
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+        int clientThreads = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+
+        ExecutorService executor = Executors.newFixedThreadPool(clientThreads);
+        HttpClient client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        try {
+            run(client, "servlet ", "http://localhost:8080", apiKey, concurrency, requests);
+            run(client, "reactive", "http://localhost:8081", apiKey, concurrency, requests);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void run(HttpClient client, String label, String baseUrl, String apiKey,
+                            int concurrency, int requests) throws Exception {
+        // Warm up both JIT and connection pools before measuring
+        fire(client, baseUrl, apiKey, concurrency, requests / 10, new ArrayList<>());
+
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(requests));
+        long start = System.nanoTime();
+        int errors = fire(client, baseUrl, apiKey, concurrency, requests, latencies);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        System.out.printf("%s  %8.0f req/s  p50=%6.2fms  p99=%6.2fms  max=%7.2fms  errors=%d%n",
+                label, requests / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0), errors);
+    }
+
+    private static int fire(HttpClient client, String baseUrl, String apiKey, int concurrency,
+                            int requests, List<Long> latencies) throws Exception {
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicInteger errors = new AtomicInteger();
+        List<CompletableFuture<?>> futures = new ArrayList<>(requests);
+
+        for (int i = 0; i < requests; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + PATHS[i % PATHS.length]))
+                    .header("X-API-Key", apiKey)
+                    .GET()
+                    .build();
+            inFlight.acquire();
+            long sent = System.nanoTime();
+            futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, ex) -> {
+                        inFlight.release();
+                        if (ex != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        } else {
+                            latencies.add(System.nanoTime() - sent);
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).exceptionally(ex -> null).join();
+        return errors.get();
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(p * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,175 @@
+package com.web.restapidemo.bench;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.web.restapidemo.codec.CatalogProtobufCodec;
+import com.web.restapidemo.entity.Film;
+import com.web.restapidemo.entity.LogEntry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Payload size and encode/decode cost of JSON vs CBOR vs Smile vs protobuf on a
+ * Sakila-sized film page and a page of api_log rows. Not a unit test; run manually:
+ *
+ *   java -cp target/test-classes:target/classes:&lt;dependency classpath&gt; \
+ *        com.web.restapidemo.bench.PayloadFormatBenchmark [iterations=2000]
+ */
+public class PayloadFormatBenchmark {
+
+    private interface Format {
+        byte[] encode(Object value) throws IOException;
+
+        Object decode(byte[] bytes, Class<?> elementType) throws IOException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        List<Film> films = films(1000);
+        List<LogEntry> logs = logs(500);
+
+        ObjectMapper json = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        ObjectMapper cbor = CBORMapper.builder().addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        ObjectMapper smile = SmileMapper.builder().addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+        Format[] formats = {jackson(json), jackson(cbor), jackson(smile), new Format() {
+            public byte[] encode(Object value) {
+                return CatalogProtobufCodec.encode(value);
+            }
+
+            public Object decode(byte[] bytes, Class<?> elementType) {
+                return CatalogProtobufCodec.decode(
+                        elementType == Film.class ? new TypeReference<List<Film>>() { }.getType()
+                                : new TypeReference<List<LogEntry>>() { }.getType(), bytes);
+            }
+        }};
+        String[] names = {"json", "cbor", "smile", "protobuf"};
+
+        System.out.printf("%-10s %-9s %10s %10s %12s %12s%n", "page", "format", "bytes", "gzip", "encode us", "decode us");
+        bench("films x1000", films, Film.class, names, formats, iterations);
+        bench("logs x500", logs, LogEntry.class, names, formats, iterations);
+    }
+
+    private static Format jackson(ObjectMapper mapper) {
+        return new Format() {
+            public byte[] encode(Object value) throws IOException {
+                return mapper.writeValueAsBytes(value);
+            }
+
+            public Object decode(byte[] bytes, Class<?> elementType) throws IOException {
+                return mapper.readValue(bytes, mapper.getTypeFactory().constructCollectionType(List.class, elementType));
+            }
+        };
+    }
+
+    private static void bench(String label, List<?> page, Class<?> elementType, String[] names, Format[] formats,
+                              int iterations) throws IOException {
+        for (int f = 0; f < formats.length; f++) {
+            Format format = formats[f];
+            byte[] encoded = format.encode(page);
+            if (((List<?>) format.decode(encoded, elementType)).size() != page.size()) {
+                throw new IllegalStateException(names[f] + " round trip lost elements");
+            }
+            // Warm up, then time
+            for (int i = 0; i < iterations / 4; i++) {
+                format.decode(format.encode(page), elementType);
+            }
+            long encodeNanos = 0;
+            long decodeNanos = 0;
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                byte[] bytes = format.encode(page);
+                long mid = System.nanoTime();
+                format.decode(bytes, elementType);
+                decodeNanos += System.nanoTime() - mid;
+                encodeNanos += mid - start;
+            }
+            System.out.printf("%-10s %-9s %10d %10d %12.1f %12.1f%n", label, names[f], encoded.length, gzipSize(encoded),
+                    encodeNanos / 1000.0 / iterations, decodeNanos / 1000.0 / iterations);
+        }
+    }
+
+    private static int gzipSize(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+
+    // Shapes and value ranges follow the Sakila film table
+    private static List<Film> films(int count) {
+        Random random = new Random(42);
+        String[] ratings = {"G", "PG", "PG-13", "R", "NC-17"};
+        String[] rates = {"0.99", "2.99", "4.99"};
+        List<Film> films = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Film film = new Film();
+            film.setFilmId(i);
+            film.setTitle(word(random) + " " + word(random));
+            film.setDescription("A " + word(random) + " Drama of a " + word(random) + " And a " + word(random)
+                    + " who must Chase a " + word(random) + " in The Canadian Rockies");
+            film.setReleaseYear(2006);
+            film.setLanguageId(1);
+            film.setRentalDuration(3 + random.nextInt(5));
+            film.setRentalRate(new BigDecimal(rates[random.nextInt(rates.length)]));
+            film.setLength(46 + random.nextInt(140));
+            film.setReplacementCost(new BigDecimal("9.99").add(BigDecimal.valueOf(random.nextInt(21))));
+            film.setRating(ratings[random.nextInt(ratings.length)]);
+            film.setSpecialFeatures(random.nextBoolean() ? "Trailers,Deleted Scenes" : "Commentaries,Behind the Scenes");
+            film.setLastUpdate(LocalDateTime.of(2006, 2, 15, 5, 3, 42));
+            films.add(film);
+        }
+        return films;
+    }
+
+    private static List<LogEntry> logs(int count) {
+        Random random = new Random(7);
+        String[] uris = {"/api/films", "/api/films/42", "/api/films/search?title=ace", "/api/actors/7", "/api/logs/slow-requests"};
+        List<LogEntry> logs = new ArrayList<>(count);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 15, 10, 0);
+        for (int i = 1; i <= count; i++) {
+            logs.add(LogEntry.builder()
+                    .id((long) i)
+                    .timestamp(base.plusSeconds(i))
+                    .method(random.nextInt(10) == 0 ? "POST" : "GET")
+                    .uri(uris[random.nextInt(uris.length)])
+                    .requestBody("API Key: sk_live_...")
+                    .responseStatus(random.nextInt(20) == 0 ? 404 : 200)
+                    .responseBody("")
+                    .executionTimeMs((long) random.nextInt(400))
+                    .clientIp("10.0." + random.nextInt(4) + "." + random.nextInt(255))
+                    .userAgent("Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0 Safari/537.36")
+                    .authTimeUs((long) random.nextInt(2000))
+                    .dbWaitTimeUs((long) random.nextInt(500))
+                    .sqlTimeUs((long) random.nextInt(20_000))
+                    .sqlStatementCount(1 + random.nextInt(5))
+                    .serializationTimeUs((long) random.nextInt(3000))
+                    .build());
+        }
+        return logs;
+    }
+
+    private static String word(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int length = 4 + random.nextInt(7);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('A' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+}
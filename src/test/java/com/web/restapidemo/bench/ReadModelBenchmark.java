@@ -0,0 +1,92 @@
+package com.web.restapidemo.bench;
+
+import com.web.restapidemo.RestApiDemoApplication;
+import com.web.restapidemo.repository.FilmRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Allocation per returned row, retained heap per row and GC activity of the film list read
+ * as managed entities (findAll) vs the FilmView read model (findAllViews), against the
+ * database configured in application.properties. Not a unit test; run manually:
+ *
+ *   java -cp target/test-classes:target/classes:&lt;dependency classpath&gt; \
+ *        com.web.restapidemo.bench.ReadModelBenchmark [iterations=200]
+ */
+public class ReadModelBenchmark {
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(RestApiDemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("app.reactive.enabled=false", "logging.level.root=WARN")
+                .run()) {
+            FilmRepository films = context.getBean(FilmRepository.class);
+            TransactionTemplate readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            readOnly.setReadOnly(true);
+            // Entities in a read-write transaction show the full dirty-checking cost
+            TransactionTemplate readWrite = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+            System.out.printf("%-22s %8s %14s %14s %10s %10s%n",
+                    "path", "rows", "alloc B/row", "retained B/row", "gc count", "gc ms");
+            run("entities (read-write)", () -> readWrite.execute(status -> films.findAll()), iterations);
+            run("entities (read-only)", () -> readOnly.execute(status -> films.findAll()), iterations);
+            run("FilmView (read-only)", () -> readOnly.execute(status -> films.findAllViews()), iterations);
+        }
+    }
+
+    private static void run(String label, Supplier<List<?>> query, int iterations) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+
+        // Warm up JIT and query plan caches
+        for (int i = 0; i < Math.max(10, iterations / 10); i++) {
+            query.get();
+        }
+
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTime();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        int rows = 0;
+        for (int i = 0; i < iterations; i++) {
+            rows = query.get().size();
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        long gcCount = gcCount() - gcCountBefore;
+        long gcTime = gcTime() - gcTimeBefore;
+
+        long heapBefore = usedHeap();
+        List<?> held = query.get();
+        long retained = usedHeap() - heapBefore;
+
+        System.out.printf("%-22s %8d %14d %14d %10d %10d%n", label, held.size(),
+                rows == 0 ? 0 : allocated / ((long) rows * iterations), held.isEmpty() ? 0 : retained / held.size(),
+                gcCount, gcTime);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcTime() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+}
@@ -0,0 +1,182 @@
+package com.web.restapidemo.bulkhead;
+
+import com.web.restapidemo.datasource.QueryDeadline;
+import com.web.restapidemo.datasource.ReadWriteRoutingDataSource;
+import com.web.restapidemo.metrics.RequestTimings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadTests {
+
+    private static final long TIMEOUT_MS = 200;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private Bulkhead bulkhead;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (bulkhead != null) {
+            bulkhead.shutdown();
+        }
+        RequestTimings.clear();
+        QueryDeadline.clear();
+        ReadWriteRoutingDataSource.clearForcePrimary();
+    }
+
+    private Bulkhead bulkhead(int threads, int queue) {
+        bulkhead = new Bulkhead("test", threads, queue, TIMEOUT_MS, new SimpleMeterRegistry());
+        return bulkhead;
+    }
+
+    private static Throwable failure(CompletableFuture<?> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        return e.getCause();
+    }
+
+    private String blockUntilReleased() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+
+    @Test
+    void fullQueueRejectsRightAway() {
+        Bulkhead bulkhead = bulkhead(1, 1);
+        bulkhead.submit(this::blockUntilReleased);
+        bulkhead.submit(this::blockUntilReleased);
+
+        BulkheadFullException e = assertThrows(BulkheadFullException.class, () -> bulkhead.submit(() -> "late"));
+        assertEquals("test", e.getGroup());
+        assertEquals(1L, bulkhead.getStats().get("rejected"));
+    }
+
+    @Test
+    void requestQueuedPastTheTimeoutFailsWith503AndNeverRuns() {
+        // The expired task keeps its queue slot until the worker drops it
+        Bulkhead bulkhead = bulkhead(1, 2);
+        bulkhead.submit(this::blockUntilReleased);
+        AtomicBoolean ran = new AtomicBoolean();
+        CompletableFuture<String> queued = bulkhead.submitWrite(() -> {
+            ran.set(true);
+            return "written";
+        });
+
+        assertInstanceOf(BulkheadFullException.class, failure(queued));
+        release.countDown();
+        // Let the worker pick the expired task up and drop it
+        assertEquals("after", bulkhead.submit(() -> "after").join());
+        assertFalse(ran.get());
+    }
+
+    @Test
+    void readRunningPastTheTimeoutFailsWith504AndCancelsItsStatements() {
+        Bulkhead bulkhead = bulkhead(1, 1);
+        QueryDeadline deadline = QueryDeadline.start("BulkheadTests#read", 60_000);
+
+        CompletableFuture<String> read = bulkhead.submit(this::blockUntilReleased);
+
+        assertInstanceOf(BulkheadTimeoutException.class, failure(read));
+        assertNotNull(deadline.getCancelReason());
+    }
+
+    @Test
+    void writeRunningPastTheTimeoutIsLeftToFinish() throws Exception {
+        Bulkhead bulkhead = bulkhead(1, 1);
+        QueryDeadline deadline = QueryDeadline.start("BulkheadTests#write", 60_000);
+        CountDownLatch running = new CountDownLatch(1);
+
+        CompletableFuture<String> write = bulkhead.submitWrite(() -> {
+            running.countDown();
+            return blockUntilReleased();
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        Thread.sleep(TIMEOUT_MS * 2);
+        assertFalse(write.isDone());
+        release.countDown();
+
+        assertEquals("done", write.get(5, TimeUnit.SECONDS));
+        assertNull(deadline.getCancelReason());
+    }
+
+    @Test
+    void requestStateFollowsTheTaskAndIsClearedAfterIt() {
+        // One worker, so the second task runs on the thread the first one used
+        Bulkhead bulkhead = bulkhead(1, 10);
+        RequestTimings timings = RequestTimings.start();
+        QueryDeadline deadline = QueryDeadline.start("BulkheadTests#state", 60_000);
+        ReadWriteRoutingDataSource.forcePrimary();
+
+        List<Object> seen = bulkhead.submit(() -> List.<Object>of(RequestTimings.current(), QueryDeadline.current(),
+                ReadWriteRoutingDataSource.isPrimaryForced())).join();
+        assertSame(timings, seen.get(0));
+        assertSame(deadline, seen.get(1));
+        assertEquals(true, seen.get(2));
+
+        RequestTimings.clear();
+        QueryDeadline.clear();
+        ReadWriteRoutingDataSource.clearForcePrimary();
+        List<Object> next = bulkhead.submit(() -> {
+            List<Object> state = new ArrayList<>();
+            state.add(RequestTimings.current());
+            state.add(QueryDeadline.current());
+            state.add(ReadWriteRoutingDataSource.isPrimaryForced());
+            return state;
+        }).join();
+        assertNull(next.get(0));
+        assertNull(next.get(1));
+        assertEquals(false, next.get(2));
+    }
+
+    @Test
+    void parallelPartsRecordIntoTheirOwnTimings() {
+        Bulkhead bulkhead = bulkhead(4, 100);
+        RequestTimings request = RequestTimings.start();
+        Bulkhead.Context context = Bulkhead.Context.capture();
+        int parts = 8;
+        int statements = 10_000;
+
+        List<RequestTimings> partTimings = new ArrayList<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < parts; i++) {
+            RequestTimings timings = RequestTimings.unbound();
+            partTimings.add(timings);
+            futures.add(bulkhead.submitPart(() -> {
+                for (int n = 0; n < statements; n++) {
+                    RequestTimings.recordStatement("SELECT 1", 1);
+                    RequestTimings.recordRepositoryCall("FilmRepository.findById");
+                }
+                return null;
+            }, context.withTimings(timings)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        // Sharing the request's timings between workers would lose increments here
+        assertEquals(0, request.getStatementCount());
+        partTimings.forEach(request::add);
+        assertEquals(parts * statements, request.getStatementCount());
+        assertEquals(parts * statements, request.getRepositoryCalls().get("FilmRepository.findById"));
+        assertEquals(parts * statements, request.getSqlNanos());
+    }
+}
@@ -0,0 +1,186 @@
+package com.web.restapidemo.cache;
+
+import com.web.restapidemo.entity.CacheChangeEvent;
+import com.web.restapidemo.repository.CacheChangeEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two application contexts ("nodes") sharing one in-memory H2 database
+ */
+class CacheInvalidationBusTests {
+
+    private static final long MAX_STALENESS_MS = 1000;
+    private static final int BATCH_SIZE = 5;
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EnableJpaRepositories(basePackageClasses = CacheChangeEventRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = CacheChangeEventRepository.class))
+    @Import(CacheInvalidationBus.class)
+    static class Node {
+
+        @Bean
+        PersistenceManagedTypes persistenceManagedTypes() {
+            return PersistenceManagedTypes.of(CacheChangeEvent.class.getName());
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeAll
+    static void start() {
+        nodeA = node("node-a");
+        nodeB = node("node-b");
+    }
+
+    @BeforeEach
+    void pollBoth() {
+        bus(nodeA).poll();
+        bus(nodeB).poll();
+    }
+
+    @AfterAll
+    static void stop() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext node(String nodeId) {
+        return new SpringApplicationBuilder(Node.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.config.name=cache-invalidation-test",
+                        "spring.datasource.url=jdbc:h2:mem:cachebus;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        // data.sql is for the application schema; both nodes share this database
+                        "spring.sql.init.mode=never",
+                        "spring.autoconfigure.exclude="
+                                + "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration,"
+                                + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration,"
+                                + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration",
+                        "app.cache.invalidation.node-id=" + nodeId,
+                        "app.cache.invalidation.max-staleness-ms=" + MAX_STALENESS_MS,
+                        "app.cache.invalidation.batch-size=" + BATCH_SIZE,
+                        "app.cache.invalidation.gap-timeout-ms=0")
+                .run();
+    }
+
+    private static CacheInvalidationBus bus(ConfigurableApplicationContext node) {
+        return node.getBean(CacheInvalidationBus.class);
+    }
+
+    private static void publishCommitted(ConfigurableApplicationContext node, String cache, String key) {
+        new TransactionTemplate(node.getBean(PlatformTransactionManager.class))
+                .executeWithoutResult(status -> bus(node).publish(cache, key));
+    }
+
+    @Test
+    void writeOnOneNodeEvictsOnTheOther() {
+        LocalCache<String> onA = bus(nodeA).register("film", 100, 60_000);
+        LocalCache<String> onB = bus(nodeB).register("film", 100, 60_000);
+        onA.get("1", key -> "v1");
+        assertEquals("v1", onB.get("1", key -> "v1"));
+        onB.get("2", key -> "other");
+
+        publishCommitted(nodeA, "film", "1");
+        assertEquals("v2", onA.get("1", key -> "v2"), "writer evicts its own copy immediately");
+        assertEquals("v1", onB.get("1", key -> "v2"), "other node is stale until it polls");
+
+        bus(nodeB).poll();
+        assertEquals("v2", onB.get("1", key -> "v2"));
+        assertEquals("other", onB.get("2", key -> "changed"), "unrelated keys stay cached");
+    }
+
+    @Test
+    void rolledBackWriteIsNotPublished() throws InterruptedException {
+        LocalCache<String> onB = bus(nodeB).register("api-client", 100, 60_000);
+        onB.get("key", key -> "active");
+
+        TransactionTemplate tx = new TransactionTemplate(nodeA.getBean(PlatformTransactionManager.class));
+        tx.executeWithoutResult(status -> {
+            bus(nodeA).publish("api-client", "key");
+            status.setRollbackOnly();
+        });
+        bus(nodeB).poll();
+        assertEquals("active", onB.get("key", key -> "revoked"));
+
+        // The rolled back id leaves a gap; with gap-timeout-ms=0 the cursor moves past it on the next poll
+        publishCommitted(nodeA, "api-client", "key");
+        bus(nodeB).poll();
+        assertEquals("revoked", onB.get("key", key -> "revoked"));
+        Thread.sleep(5);
+        bus(nodeB).poll();
+        long maxId = nodeA.getBean(CacheChangeEventRepository.class).findMaxId();
+        assertEquals(maxId, ((Number) bus(nodeB).getStats().get("cursor")).longValue());
+    }
+
+    @Test
+    void eventsBehindAnOpenGapAreAllAppliedInOnePoll() {
+        LocalCache<String> onB = bus(nodeB).register("gap", 100, 60_000);
+        int keys = BATCH_SIZE * 3 + 1;
+        for (int i = 0; i < keys; i++) {
+            onB.get(String.valueOf(i), key -> "old");
+        }
+
+        // A rolled back publish leaves an id gap that stays open for the whole next poll
+        new TransactionTemplate(nodeA.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            bus(nodeA).publish("gap", "rolled-back");
+            status.setRollbackOnly();
+        });
+        for (int i = 0; i < keys; i++) {
+            publishCommitted(nodeA, "gap", String.valueOf(i));
+        }
+
+        bus(nodeB).poll();
+        for (int i = 0; i < keys; i++) {
+            assertEquals("new", onB.get(String.valueOf(i), key -> "new"), "key " + i);
+        }
+    }
+
+    @Test
+    void cacheIsBypassedWhenChangeLogIsNotReadInTime() throws InterruptedException {
+        LocalCache<String> onB = bus(nodeB).register("stale", 100, 60_000);
+        onB.get("1", key -> "cached");
+        assertEquals("cached", onB.get("1", key -> "loaded"));
+
+        Thread.sleep(MAX_STALENESS_MS + 100);
+        assertEquals("loaded", onB.get("1", key -> "loaded"));
+        Map<String, Object> stats = onB.getStats();
+        assertTrue(((Number) stats.get("bypassed")).longValue() >= 1);
+    }
+}
@@ -0,0 +1,133 @@
+package com.web.restapidemo.codec;
+
+import com.web.restapidemo.entity.Actor;
+import com.web.restapidemo.entity.Film;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CatalogProtobufCodecTests {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2006, 2, 15, 5, 3, 42, 123_000_000);
+
+    private static Film film() {
+        return new Film(1, "ACADEMY DINOSAUR", "A Epic Drama", 2006, 1, 2, 6, new BigDecimal("0.99"), 86,
+                new BigDecimal("20.99"), "PG", "Deleted Scenes,Behind the Scenes", UPDATED);
+    }
+
+    @Test
+    void roundTripsFilmsAndLists() {
+        Film film = film();
+        assertEquals(film, CatalogProtobufCodec.decode(Film.class, CatalogProtobufCodec.encode(film)));
+
+        List<Actor> actors = List.of(new Actor(1, "PENELOPE", "GUINESS", UPDATED), new Actor(2, "NICK", "WAHLBERG", null));
+        byte[] bytes = CatalogProtobufCodec.encode(actors);
+        assertEquals(actors, CatalogProtobufCodec.decode(ListTypes.actors(), bytes));
+    }
+
+    @Test
+    void absentFieldsDecodeAsNull() {
+        Film sparse = new Film();
+        sparse.setFilmId(7);
+        sparse.setRentalDuration(null);
+        sparse.setRentalRate(null);
+        sparse.setReplacementCost(null);
+        sparse.setRating(null);
+
+        Film decoded = (Film) CatalogProtobufCodec.decode(Film.class, CatalogProtobufCodec.encode(sparse));
+        assertEquals(sparse, decoded);
+        assertNull(decoded.getRating());
+        assertNull(decoded.getRentalRate());
+
+        Film empty = (Film) CatalogProtobufCodec.decode(Film.class, new byte[0]);
+        assertNull(empty.getFilmId());
+        assertNull(empty.getRentalDuration());
+    }
+
+    @Test
+    void negativeValuesSurvive() {
+        Film film = film();
+        film.setFilmId(-5);
+        film.setRentalRate(new BigDecimal("-1.25"));
+        film.setLastUpdate(LocalDateTime.of(1960, 1, 1, 0, 0));
+
+        assertEquals(film, CatalogProtobufCodec.decode(Film.class, CatalogProtobufCodec.encode(film)));
+    }
+
+    @Test
+    void timestampsAreEpochMillisOfTheLocalTime() {
+        ProtoReader in = new ProtoReader(CatalogProtobufCodec.encode(new Actor(1, "A", "B", UPDATED)));
+        long millis = -1;
+        while (in.hasMore()) {
+            int tag = in.tag();
+            if (tag >>> 3 == 4) {
+                millis = in.int64();
+            } else {
+                in.skip(tag);
+            }
+        }
+        assertEquals(UPDATED.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), millis);
+    }
+
+    @Test
+    void unknownFieldsAreSkipped() {
+        ProtoWriter out = new ProtoWriter(64);
+        out.int32(1, 42);
+        out.int64(90, 7L);
+        out.string(91, "from a newer schema");
+        out.string(2, "ZORRO ARK");
+        byte[] known = out.toByteArray();
+        // fixed64 (wire type 1) and fixed32 (wire type 5) fields
+        byte[] fixed = {(byte) (92 << 3 | 1), 5, 1, 2, 3, 4, 5, 6, 7, 8, (byte) (93 << 3 | 5), 5, 1, 2, 3, 4};
+        byte[] bytes = Arrays.copyOf(known, known.length + fixed.length);
+        System.arraycopy(fixed, 0, bytes, known.length, fixed.length);
+
+        Film film = (Film) CatalogProtobufCodec.decode(Film.class, bytes);
+        assertEquals(42, film.getFilmId());
+        assertEquals("ZORRO ARK", film.getTitle());
+    }
+
+    @Test
+    void truncatedInputIsRejected() {
+        byte[] bytes = CatalogProtobufCodec.encode(List.of(film(), film()));
+        // Cuts inside the last element; a cut on an element boundary is a valid shorter list
+        for (int cut : new int[]{1, 5, bytes.length / 2 - 3}) {
+            byte[] truncated = Arrays.copyOf(bytes, bytes.length - cut);
+            assertThrows(IllegalArgumentException.class,
+                    () -> CatalogProtobufCodec.decode(ListTypes.films(), truncated));
+        }
+        byte[] fixed64 = {(byte) (92 << 3 | 1), 1, 2, 3};
+        assertThrows(IllegalArgumentException.class, () -> CatalogProtobufCodec.decode(Film.class, fixed64));
+    }
+
+    // Generic list types as the message converter sees them
+    private static final class ListTypes {
+        List<Film> films;
+        List<Actor> actors;
+
+        static Type films() {
+            return field("films");
+        }
+
+        static Type actors() {
+            return field("actors");
+        }
+
+        private static Type field(String name) {
+            try {
+                return ListTypes.class.getDeclaredField(name).getGenericType();
+            } catch (NoSuchFieldException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.web.restapidemo.datasource;
+
+import com.web.restapidemo.bulkhead.Bulkheads;
+import com.web.restapidemo.metrics.TimingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryDeadlineTests {
+
+    // Runs for minutes unless cancelled; H2 checks for cancellation while scanning
+    private static final String SLOW_QUERY = "SELECT COUNT(*) FROM SYSTEM_RANGE(1, 100000) a, SYSTEM_RANGE(1, 100000) b "
+            + "WHERE a.X + b.X = 0";
+
+    private HikariDataSource h2;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        h2 = new HikariDataSource();
+        h2.setJdbcUrl("jdbc:h2:mem:deadline-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        h2.setUsername("sa");
+        jdbc = new JdbcTemplate(new TimingDataSource(h2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        QueryDeadline.clear();
+        h2.close();
+    }
+
+    @Test
+    void statementOverTheBudgetIsCancelledAtTheDeadline() {
+        QueryDeadline deadline = QueryDeadline.start("QueryDeadlineTests#slow", 200);
+
+        long start = System.nanoTime();
+        assertThrows(QueryTimeoutException.class, () -> jdbc.queryForObject(SLOW_QUERY, Long.class));
+        // The watchdog, not the whole-second JDBC timeout, stopped it
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 900);
+        assertTrue(deadline.isExceeded());
+        assertNull(deadline.getCancelReason());
+    }
+
+    @Test
+    void cancelKillsTheInFlightStatementAndFailsLaterOnes() throws Exception {
+        QueryDeadline deadline = QueryDeadline.start("QueryDeadlineTests#cancel", 60_000);
+        CompletableFuture<Long> running = CompletableFuture.supplyAsync(() -> {
+            QueryDeadline.bind(deadline);
+            try {
+                return jdbc.queryForObject(SLOW_QUERY, Long.class);
+            } finally {
+                QueryDeadline.clear();
+            }
+        });
+        Thread.sleep(200);
+
+        deadline.cancel("client disconnected");
+        Throwable failure = assertThrows(Exception.class, () -> running.get(5, TimeUnit.SECONDS)).getCause();
+        assertCancelled(failure);
+        assertCancelled(assertThrows(DataAccessException.class, () -> jdbc.queryForObject("SELECT 1", Long.class)));
+    }
+
+    @Test
+    void expiredBudgetDoesNotCarryOverToTheNextTaskOnAReusedWorker() throws Exception {
+        // One catalog worker, so both tasks run on the same thread
+        Bulkheads bulkheads = new Bulkheads();
+        ReflectionTestUtils.setField(bulkheads, "meterRegistry", new SimpleMeterRegistry());
+        for (String group : List.of("catalog", "logs", "admin")) {
+            ReflectionTestUtils.setField(bulkheads, group + "Threads", 1);
+            ReflectionTestUtils.setField(bulkheads, group + "Queue", 10);
+            ReflectionTestUtils.setField(bulkheads, group + "TimeoutMs", 10000L);
+        }
+        ReflectionTestUtils.invokeMethod(bulkheads, "init");
+        try {
+            QueryDeadline.start("QueryDeadlineTests#expired", 1);
+            Thread.sleep(10);
+            CompletableFuture<Long> expired = bulkheads.catalog().submit(() -> jdbc.queryForObject("SELECT 1", Long.class));
+            Throwable failure = assertThrows(Exception.class, () -> expired.get(5, TimeUnit.SECONDS)).getCause();
+            assertInstanceOf(QueryTimeoutException.class, failure);
+
+            QueryDeadline.clear();
+            assertEquals(1L, bulkheads.catalog().submit(() -> jdbc.queryForObject("SELECT 1", Long.class))
+                    .get(5, TimeUnit.SECONDS));
+        } finally {
+            ReflectionTestUtils.invokeMethod(bulkheads, "shutdown");
+        }
+    }
+
+    private static void assertCancelled(Throwable failure) {
+        Throwable cause = failure;
+        while (cause != null && !(cause instanceof SQLException sql && "70100".equals(sql.getSQLState()))) {
+            cause = cause.getCause();
+        }
+        assertTrue(cause != null && cause.getMessage().contains("client disconnected"), String.valueOf(failure));
+    }
+}
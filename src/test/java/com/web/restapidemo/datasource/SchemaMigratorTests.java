@@ -0,0 +1,141 @@
+package com.web.restapidemo.datasource;
+
+import com.web.restapidemo.entity.Actor;
+import com.web.restapidemo.entity.ApiClient;
+import com.web.restapidemo.entity.CacheChangeEvent;
+import com.web.restapidemo.entity.CatalogTombstone;
+import com.web.restapidemo.entity.ClientDailySketch;
+import com.web.restapidemo.entity.LogEntry;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * db/migration scripts against H2 in MySQL mode; film and actor stand in for the Sakila tables
+ */
+class SchemaMigratorTests {
+
+    private String url;
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    static class Config {
+
+        @Bean
+        PersistenceManagedTypes persistenceManagedTypes() {
+            return PersistenceManagedTypes.of(ApiClient.class.getName(), LogEntry.class.getName(),
+                    ClientDailySketch.class.getName(), CacheChangeEvent.class.getName(),
+                    CatalogTombstone.class.getName(), Actor.class.getName());
+        }
+
+        @Bean
+        SchemaMigrator schemaMigrator(@Qualifier("dataSource") DataSource dataSource) {
+            return new SchemaMigrator(dataSource, true, 0);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        // DAY is reserved in H2, not in MySQL
+        url = "jdbc:h2:mem:migrate-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=MySQL;NON_KEYWORDS=DAY";
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername("sa");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE film (film_id INT AUTO_INCREMENT PRIMARY KEY, last_update DATETIME NOT NULL)");
+        jdbc.execute("CREATE TABLE actor (actor_id INT AUTO_INCREMENT PRIMARY KEY, first_name VARCHAR(45) NOT NULL, "
+                + "last_name VARCHAR(45) NOT NULL, last_update DATETIME NOT NULL)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    private void migrate(boolean enabled, int baselineVersion) throws Exception {
+        SchemaMigrator migrator = new SchemaMigrator(dataSource, enabled, baselineVersion);
+        migrator.setResourceLoader(new DefaultResourceLoader());
+        migrator.afterPropertiesSet();
+    }
+
+    private List<String> applied() {
+        return jdbc.queryForList("SELECT script FROM schema_version ORDER BY version", String.class);
+    }
+
+    private boolean tableExists(String table) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM information_schema.tables WHERE LOWER(table_name) = ?",
+                Integer.class, table) > 0;
+    }
+
+    @Test
+    void appliesEachScriptOnceInVersionOrder() throws Exception {
+        migrate(true, 0);
+        List<String> first = applied();
+        assertEquals(5, first.size());
+        assertTrue(first.get(0).startsWith("V1__"));
+        assertTrue(first.get(4).startsWith("V5__"));
+
+        // Re-running would fail on the non-idempotent ALTER/CREATE INDEX scripts if they ran again
+        migrate(true, 0);
+        assertEquals(first, applied());
+        jdbc.update("INSERT INTO api_log (timestamp, method, sql_statement_count) VALUES (CURRENT_TIMESTAMP, 'GET', 3)");
+    }
+
+    @Test
+    void baselineMarksExistingSchemaWithoutRunningIt() throws Exception {
+        migrate(true, 5);
+        assertEquals(5, applied().size());
+        assertTrue(applied().stream().allMatch(script -> script.endsWith("(baseline)")));
+        assertFalse(tableExists("cache_change_log"));
+    }
+
+    @Test
+    void disabledLeavesTheDatabaseAlone() throws Exception {
+        migrate(false, 0);
+        assertFalse(tableExists("schema_version"));
+    }
+
+    @Test
+    void migratedSchemaPassesHibernateValidation() {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Config.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.config.name=schema-migrator-test",
+                        "spring.datasource.url=" + url,
+                        "spring.datasource.username=sa",
+                        "spring.sql.init.mode=never",
+                        "spring.jpa.hibernate.ddl-auto=validate",
+                        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "spring.autoconfigure.exclude="
+                                + "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration,"
+                                + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration,"
+                                + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration")
+                .run();
+        try {
+            assertEquals(5, applied().size());
+        } finally {
+            context.close();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.web.restapidemo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetryWriterTests {
+
+    private HikariDataSource dataSource;
+    private SimpleMeterRegistry meterRegistry;
+    private TelemetryWriter writer;
+
+    // One writer thread and a one-slot queue, so the third concurrent write overflows
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:telemetry-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new TelemetryWriter();
+        ReflectionTestUtils.setField(writer, "telemetryDataSource", dataSource);
+        ReflectionTestUtils.setField(writer, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(writer, "writeTimeoutSeconds", 2);
+        ReflectionTestUtils.setField(writer, "asyncThreads", 1);
+        ReflectionTestUtils.setField(writer, "asyncQueue", 1);
+        writer.init();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.shutdown();
+        dataSource.close();
+    }
+
+    @Test
+    void fullQueueDropsAndCounts() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        assertTrue(writer.submit(() -> {
+            running.countDown();
+            await(release);
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        assertTrue(writer.submit(() -> { }));
+        assertFalse(writer.submit(() -> { }));
+        assertEquals(1.0, meterRegistry.get("telemetry.dropped").counter().count());
+        assertEquals(1.0, meterRegistry.get("telemetry.queued").gauge().value());
+        release.countDown();
+    }
+
+    @Test
+    void queuedWritesRunOnTheTelemetryPool() throws InterruptedException {
+        writer.update("CREATE TABLE hits (n INT)");
+        CountDownLatch done = new CountDownLatch(1);
+        assertTrue(writer.submit(() -> {
+            writer.update("INSERT INTO hits VALUES (?)", 1);
+            done.countDown();
+        }));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, meterRegistry.get("telemetry.writes").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void failedWriteDoesNotStopTheWriter() throws InterruptedException {
+        assertTrue(writer.submit(() -> writer.update("INSERT INTO missing VALUES (1)")));
+        CountDownLatch done = new CountDownLatch(1);
+        assertTrue(writer.submit(done::countDown));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.get("telemetry.writes").tag("outcome", "failure").timer().count());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
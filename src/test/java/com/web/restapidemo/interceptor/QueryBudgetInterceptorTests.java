@@ -0,0 +1,129 @@
+package com.web.restapidemo.interceptor;
+
+import com.web.restapidemo.datasource.QueryBudget;
+import com.web.restapidemo.datasource.QueryDeadline;
+import com.web.restapidemo.metrics.TimingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.HandlerMethod;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryBudgetInterceptorTests {
+
+    private static final String SLOW_QUERY = "SELECT COUNT(*) FROM SYSTEM_RANGE(1, 100000) a, SYSTEM_RANGE(1, 100000) b "
+            + "WHERE a.X + b.X = 0";
+
+    static class CatalogEndpoint {
+
+        @QueryBudget("catalog")
+        public void read() {
+        }
+    }
+
+    private HikariDataSource h2;
+    private JdbcTemplate jdbc;
+    private SimpleMeterRegistry meterRegistry;
+    private QueryBudgetInterceptor interceptor;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        h2 = new HikariDataSource();
+        h2.setJdbcUrl("jdbc:h2:mem:budget-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        h2.setUsername("sa");
+        jdbc = new JdbcTemplate(new TimingDataSource(h2));
+
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new QueryBudgetInterceptor();
+        ReflectionTestUtils.setField(interceptor, "environment",
+                new MockEnvironment().withProperty("app.query-budget.catalog-ms", "60000"));
+        ReflectionTestUtils.setField(interceptor, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(interceptor, "defaultBudgetMs", 10000L);
+
+        request = new MockHttpServletRequest("GET", "/api/films");
+        HandlerMethod handler = new HandlerMethod(new CatalogEndpoint(), CatalogEndpoint.class.getMethod("read"));
+        interceptor.preHandle(request, new MockHttpServletResponse(), handler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        QueryDeadline.clear();
+        h2.close();
+    }
+
+    private QueryDeadline deadline() {
+        return (QueryDeadline) request.getAttribute(QueryBudgetInterceptor.DEADLINE_ATTRIBUTE);
+    }
+
+    private DeferredResultProcessingInterceptor asyncCallbacks() {
+        return WebAsyncUtils.getAsyncManager(request).getDeferredResultInterceptor(QueryBudgetInterceptor.DEADLINE_ATTRIBUTE);
+    }
+
+    // The request's slow statement, running on another thread as it would on a bulkhead worker
+    private CompletableFuture<Long> slowStatement() throws InterruptedException {
+        QueryDeadline deadline = deadline();
+        CompletableFuture<Long> running = CompletableFuture.supplyAsync(() -> {
+            QueryDeadline.bind(deadline);
+            try {
+                return jdbc.queryForObject(SLOW_QUERY, Long.class);
+            } finally {
+                QueryDeadline.clear();
+            }
+        });
+        Thread.sleep(200);
+        return running;
+    }
+
+    private static void assertCancelled(CompletableFuture<Long> running, String reason) {
+        Throwable cause = assertThrows(ExecutionException.class, () -> running.get(5, TimeUnit.SECONDS)).getCause();
+        while (cause != null && !(cause instanceof SQLException sql && "70100".equals(sql.getSQLState()))) {
+            cause = cause.getCause();
+        }
+        assertTrue(cause != null && cause.getMessage().contains(reason));
+    }
+
+    @Test
+    void budgetComesFromTheHandlerAnnotation() {
+        assertEquals(60000, deadline().getBudgetMs());
+        assertEquals("CatalogEndpoint#read", deadline().getEndpoint());
+    }
+
+    @Test
+    void clientDisconnectCancelsTheRunningStatement() throws Exception {
+        CompletableFuture<Long> running = slowStatement();
+
+        asyncCallbacks().handleError(null, null, new IOException("Broken pipe"));
+
+        assertCancelled(running, "client disconnected");
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), null, null);
+        assertEquals(1.0, meterRegistry.get("query.cancelled").tag("reason", "client disconnected").counter().count());
+    }
+
+    @Test
+    void asyncTimeoutCancelsTheRunningStatement() throws Exception {
+        CompletableFuture<Long> running = slowStatement();
+
+        asyncCallbacks().handleTimeout(null, null);
+
+        assertCancelled(running, "async request timed out");
+    }
+}
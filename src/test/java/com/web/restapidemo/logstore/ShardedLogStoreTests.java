@@ -0,0 +1,131 @@
+package com.web.restapidemo.logstore;
+
+import com.web.restapidemo.entity.LogEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedLogStoreTests {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private ShardedLogStore store;
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    // Three in-memory H2 databases standing in for the log shards
+    private ShardedLogStore open(LogShardProperties.Strategy strategy) {
+        LogShardProperties properties = new LogShardProperties();
+        properties.setStrategy(strategy);
+        properties.setTimeBucketHours(1);
+        String run = UUID.randomUUID().toString();
+        for (int i = 0; i < 3; i++) {
+            LogShardProperties.Shard shard = new LogShardProperties.Shard();
+            shard.setName("log-" + i);
+            shard.setJdbcUrl("jdbc:h2:mem:" + run + "-" + i + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+            shard.setUsername("sa");
+            shard.setPassword("");
+            properties.getShards().add(shard);
+        }
+        store = new ShardedLogStore(properties, null, null, null);
+        return store;
+    }
+
+    private static LogEntry entry(LocalDateTime timestamp, String ip, String method, int status) {
+        return LogEntry.builder()
+                .timestamp(timestamp)
+                .method(method)
+                .uri("/api/films?ip=" + ip)
+                .responseStatus(status)
+                .executionTimeMs(10L)
+                .clientIp(ip)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long writes(ShardedLogStore store, String shard) {
+        Map<String, Map<String, Long>> shards = (Map<String, Map<String, Long>>) store.getStats().get("shards");
+        return shards.get(shard).get("writes");
+    }
+
+    @Test
+    void clientStrategySpreadsWritesAndMergesNewestFirst() {
+        open(LogShardProperties.Strategy.CLIENT);
+        for (int i = 0; i < 60; i++) {
+            store.save(entry(BASE.plusMinutes(i), "10.0.0." + i, i % 2 == 0 ? "GET" : "POST", 200));
+        }
+
+        assertTrue(writes(store, "log-0") > 0 && writes(store, "log-1") > 0 && writes(store, "log-2") > 0);
+
+        List<LogEntry> gets = store.findByMethod("GET", 100);
+        assertEquals(30, gets.size());
+        assertNewestFirst(gets);
+
+        List<LogEntry> newest = store.findByMethod("GET", 5);
+        assertEquals(5, newest.size());
+        assertEquals(BASE.plusMinutes(58), newest.get(0).getTimestamp());
+        assertEquals(BASE.plusMinutes(50), newest.get(4).getTimestamp());
+    }
+
+    @Test
+    void sameClientStaysOnOneShard() {
+        open(LogShardProperties.Strategy.CLIENT);
+        for (int i = 0; i < 10; i++) {
+            store.save(entry(BASE.plusMinutes(i), "192.168.1.7", "GET", 200));
+        }
+
+        long total = writes(store, "log-0") + writes(store, "log-1") + writes(store, "log-2");
+        assertEquals(10, total);
+        assertTrue(writes(store, "log-0") == 10 || writes(store, "log-1") == 10 || writes(store, "log-2") == 10);
+    }
+
+    @Test
+    void timeStrategyDateRangeOnlyReturnsRowsInRange() {
+        open(LogShardProperties.Strategy.TIME);
+        // One row every 20 minutes for 6 hours: hourly buckets rotate over all three shards
+        for (int i = 0; i < 18; i++) {
+            store.save(entry(BASE.plusMinutes(20L * i), "10.0.0.1", "GET", i % 3 == 0 ? 500 : 200));
+        }
+        assertEquals(6, writes(store, "log-0"));
+
+        List<LogEntry> range = store.findByDateRange(BASE.plusHours(1), BASE.plusMinutes(100), 100);
+        assertEquals(List.of(BASE.plusMinutes(100), BASE.plusMinutes(80), BASE.plusMinutes(60)),
+                range.stream().map(LogEntry::getTimestamp).toList());
+
+        List<LogEntry> errors = store.findByStatus(500, 100);
+        assertEquals(6, errors.size());
+        assertNewestFirst(errors);
+    }
+
+    @Test
+    void mergeKeepsOrderAcrossShardsAndStopsAtLimit() {
+        List<List<LogEntry>> perShard = new ArrayList<>();
+        perShard.add(List.of(entry(BASE.plusMinutes(9), "a", "GET", 200), entry(BASE.plusMinutes(3), "a", "GET", 200)));
+        perShard.add(List.of());
+        perShard.add(List.of(entry(BASE.plusMinutes(8), "b", "GET", 200), entry(BASE.plusMinutes(7), "b", "GET", 200),
+                entry(BASE.plusMinutes(1), "b", "GET", 200)));
+
+        List<LogEntry> merged = ShardedLogStore.mergeNewestFirst(perShard, 4);
+        assertEquals(List.of(BASE.plusMinutes(9), BASE.plusMinutes(8), BASE.plusMinutes(7), BASE.plusMinutes(3)),
+                merged.stream().map(LogEntry::getTimestamp).toList());
+    }
+
+    private static void assertNewestFirst(List<LogEntry> entries) {
+        for (int i = 1; i < entries.size(); i++) {
+            assertTrue(!entries.get(i).getTimestamp().isAfter(entries.get(i - 1).getTimestamp()));
+        }
+    }
+}
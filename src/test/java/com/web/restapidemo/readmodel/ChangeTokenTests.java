@@ -0,0 +1,26 @@
+package com.web.restapidemo.readmodel;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChangeTokenTests {
+
+    @Test
+    void roundTrips() {
+        ChangeToken token = new ChangeToken(LocalDateTime.of(2006, 2, 15, 5, 3, 42), 133,
+                LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_456_000), 7);
+        String encoded = token.encode();
+        assertEquals(token, ChangeToken.decode(encoded));
+        assertEquals(-1, encoded.indexOf('='), "URL-safe without padding");
+    }
+
+    @Test
+    void rejectsForeignTokens() {
+        assertThrows(IllegalArgumentException.class, () -> ChangeToken.decode("not a token"));
+        assertThrows(IllegalArgumentException.class, () -> ChangeToken.decode("MnxhfGJ8Y3xk"));
+    }
+}
@@ -0,0 +1,41 @@
+package com.web.restapidemo.readmodel;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpecialFeaturesTests {
+
+    @Test
+    void roundTripsColumnText() {
+        SpecialFeatures features = SpecialFeatures.parse("Trailers,Deleted Scenes");
+        assertEquals("Trailers,Deleted Scenes", features.toString());
+        assertTrue(features.has("Deleted Scenes"));
+        assertFalse(features.has("Commentaries"));
+        assertEquals("Trailers,Commentaries,Deleted Scenes,Behind the Scenes",
+                SpecialFeatures.parse("Behind the Scenes,Commentaries,Trailers,Deleted Scenes").toString());
+    }
+
+    @Test
+    void instancesAreShared() {
+        assertSame(SpecialFeatures.parse("Commentaries,Trailers"), SpecialFeatures.parse("Trailers,Commentaries"));
+        assertSame(SpecialFeatures.of(0), SpecialFeatures.parse(""));
+        assertNull(SpecialFeatures.parse(null));
+    }
+
+    @Test
+    void ratingsUseDatabaseLabels() {
+        assertSame(Rating.PG_13, Rating.fromLabel("PG-13"));
+        assertEquals("NC-17", Rating.NC_17.getLabel());
+        assertNull(Rating.fromLabel(null));
+        assertNull(Rating.fromLabel(""));
+        assertSame(Rating.PG_13, Rating.find("pg-13").orElseThrow());
+        assertTrue(Rating.find("X").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> Rating.fromLabel("X"));
+    }
+}
@@ -0,0 +1,255 @@
+package com.web.restapidemo.service;
+
+import com.web.restapidemo.bulkhead.Bulkheads;
+import com.web.restapidemo.readmodel.ActorView;
+import com.web.restapidemo.readmodel.FilmView;
+import com.web.restapidemo.readmodel.Rating;
+import com.web.restapidemo.readmodel.SpecialFeatures;
+import com.web.restapidemo.snapshot.CatalogSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogSnapshotServiceTests {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2006, 2, 15, 5, 3, 42);
+
+    private static final FilmView DINOSAUR = new FilmView(1, "ACADEMY DINOSAUR", "A Epic Drama", 2006, 1, null, 6,
+            new BigDecimal("0.99"), 86, new BigDecimal("20.99"), "PG", "Deleted Scenes,Behind the Scenes", UPDATED);
+    private static final FilmView SIERRA = new FilmView(7, "AIRPLANE SIERRA", null, null, 1, 2, 6,
+            new BigDecimal("4.99"), null, new BigDecimal("28.99"), (Rating) null, (SpecialFeatures) null, UPDATED);
+    private static final ActorView PENELOPE = new ActorView(1, "PENELOPE", "GUINESS", UPDATED);
+
+    // What the stub "database" answers with, so live and snapshot responses can be told apart
+    private static final List<FilmView> LIVE = List.of(SIERRA);
+
+    @TempDir
+    Path dir;
+
+    private FilmService filmService;
+    private ActorService actorService;
+    private Bulkheads bulkheads;
+    private CatalogSnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        filmService = Mockito.mock(FilmService.class);
+        actorService = Mockito.mock(ActorService.class);
+        Mockito.when(filmService.getAllFilms()).thenReturn(List.of(DINOSAUR));
+        Mockito.when(actorService.getAllActors()).thenReturn(List.of(PENELOPE));
+        bulkheads = bulkheads(1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(bulkheads, "shutdown");
+    }
+
+    // One catalog worker and a one-slot queue, so two blocked reads fill the bulkhead
+    private static Bulkheads bulkheads(int threads, int queue) {
+        Bulkheads bulkheads = new Bulkheads();
+        ReflectionTestUtils.setField(bulkheads, "meterRegistry", new SimpleMeterRegistry());
+        for (String group : List.of("catalog", "logs", "admin")) {
+            ReflectionTestUtils.setField(bulkheads, group + "Threads", threads);
+            ReflectionTestUtils.setField(bulkheads, group + "Queue", queue);
+            ReflectionTestUtils.setField(bulkheads, group + "TimeoutMs", 10000L);
+        }
+        ReflectionTestUtils.invokeMethod(bulkheads, "init");
+        return bulkheads;
+    }
+
+    private CatalogSnapshotService service(long slowThresholdMs, long retryMs) {
+        CatalogSnapshotService service = new CatalogSnapshotService();
+        ReflectionTestUtils.setField(service, "filmService", filmService);
+        ReflectionTestUtils.setField(service, "actorService", actorService);
+        ReflectionTestUtils.setField(service, "bulkheads", bulkheads);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "path", dir.resolve("catalog.snapshot").toString());
+        ReflectionTestUtils.setField(service, "slowThresholdMs", slowThresholdMs);
+        ReflectionTestUtils.setField(service, "retryMs", retryMs);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    private CompletableFuture<ResponseEntity<List<FilmView>>> read(Supplier<List<FilmView>> live) {
+        return service.read(live, CatalogSnapshot::films);
+    }
+
+    private static ResponseEntity<List<FilmView>> await(CompletableFuture<ResponseEntity<List<FilmView>>> future)
+            throws Exception {
+        return future.get(5, TimeUnit.SECONDS);
+    }
+
+    private void assertStale(ResponseEntity<List<FilmView>> response) {
+        LocalDateTime createdAt = (LocalDateTime) service.getStatus().get("createdAt");
+        assertEquals(List.of(DINOSAUR), response.getBody());
+        assertEquals("true", response.getHeaders().getFirst(CatalogSnapshotService.STALE_HEADER));
+        assertEquals(createdAt.toInstant(ZoneOffset.UTC).toString(),
+                response.getHeaders().getFirst(CatalogSnapshotService.SNAPSHOT_TIME_HEADER));
+    }
+
+    // Counters are bumped just after the response future completes
+    private void assertServed(String counter, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!Long.valueOf(expected).equals(service.getStatus().get(counter)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, service.getStatus().get(counter));
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Test
+    void liveAnswersCarryNoStaleHeaders() throws Exception {
+        service = service(1000, 60000);
+        service.refresh();
+
+        ResponseEntity<List<FilmView>> response = await(read(() -> LIVE));
+        assertEquals(LIVE, response.getBody());
+        assertNull(response.getHeaders().getFirst(CatalogSnapshotService.STALE_HEADER));
+        assertNull(response.getHeaders().getFirst(CatalogSnapshotService.SNAPSHOT_TIME_HEADER));
+    }
+
+    @Test
+    void connectionFailureFallsBackAndSkipsTheDatabaseForRetryMs() throws Exception {
+        service = service(1000, 60000);
+        service.refresh();
+
+        assertStale(await(read(() -> {
+            throw new CannotGetJdbcConnectionException("Connection refused");
+        })));
+        assertEquals(true, service.getStatus().get("databaseDown"));
+
+        AtomicInteger calls = new AtomicInteger();
+        assertStale(await(read(() -> {
+            calls.incrementAndGet();
+            return LIVE;
+        })));
+        assertEquals(0, calls.get());
+        assertServed("servedUnavailable", 2);
+    }
+
+    @Test
+    void databaseIsTriedAgainAfterRetryMs() throws Exception {
+        service = service(1000, 50);
+        service.refresh();
+
+        assertStale(await(read(() -> {
+            throw new CannotGetJdbcConnectionException("Connection refused");
+        })));
+        Thread.sleep(100);
+        assertEquals(LIVE, await(read(() -> LIVE)).getBody());
+    }
+
+    @Test
+    void fullBulkheadFallsBack() throws Exception {
+        service = service(0, 60000);
+        service.refresh();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            read(() -> blockUntil(release));
+            read(() -> blockUntil(release));
+
+            assertStale(await(read(() -> LIVE)));
+            assertServed("servedSlow", 1);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void slowDatabaseFallsBackAfterThreshold() throws Exception {
+        service = service(100, 60000);
+        service.refresh();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            long start = System.nanoTime();
+            assertStale(await(read(() -> blockUntil(release))));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+            assertServed("servedSlow", 1);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void failuresPropagateWithoutSnapshotOrForOtherErrors() {
+        service = service(1000, 60000);
+        ExecutionException noSnapshot = assertThrows(ExecutionException.class, () -> await(read(() -> {
+            throw new CannotGetJdbcConnectionException("Connection refused");
+        })));
+        assertInstanceOf(CannotGetJdbcConnectionException.class, noSnapshot.getCause());
+
+        service.refresh();
+        ExecutionException bug = assertThrows(ExecutionException.class, () -> await(read(() -> {
+            throw new IllegalStateException("bug");
+        })));
+        assertInstanceOf(IllegalStateException.class, bug.getCause());
+    }
+
+    @Test
+    void refreshWritesNewVersionsAndRemovesOldOnes() throws Exception {
+        service = service(1000, 60000);
+        service.refresh();
+        List<Path> first = files();
+        assertEquals(1, first.size());
+
+        // Unchanged content keeps the mapped file
+        service.refresh();
+        assertEquals(first, files());
+
+        Mockito.when(filmService.getAllFilms()).thenReturn(List.of(DINOSAUR, SIERRA));
+        service.refresh();
+        List<Path> second = files();
+        assertEquals(1, second.size());
+        assertNotEquals(first, second);
+        assertEquals(second.get(0).toString(), service.getStatus().get("path"));
+
+        // A restarted node maps the newest version
+        Map<String, Object> restarted = service(1000, 60000).getStatus();
+        assertEquals(2, restarted.get("films"));
+    }
+
+    private static List<FilmView> blockUntil(CountDownLatch release) {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return LIVE;
+    }
+}
@@ -0,0 +1,72 @@
+package com.web.restapidemo.snapshot;
+
+import com.web.restapidemo.readmodel.ActorView;
+import com.web.restapidemo.readmodel.FilmView;
+import com.web.restapidemo.readmodel.Rating;
+import com.web.restapidemo.readmodel.SpecialFeatures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogSnapshotTests {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2006, 2, 15, 5, 3, 42);
+
+    private static final FilmView DINOSAUR = new FilmView(1, "ACADEMY DINOSAUR", "A Epic Drama", 2006, 1, null, 6,
+            new BigDecimal("0.99"), 86, new BigDecimal("20.99"), "PG", "Deleted Scenes,Behind the Scenes", UPDATED);
+    private static final FilmView BARE = new FilmView(7, "AIRPLANE SIERRA", null, null, 1, 2, 6,
+            new BigDecimal("4.99"), null, new BigDecimal("28.99"), (Rating) null, (SpecialFeatures) null, UPDATED);
+    private static final ActorView PENELOPE = new ActorView(1, "PENELOPE", "GUINESS", UPDATED);
+    private static final ActorView NICK = new ActorView(2, "NICK", "WAHLBERG", UPDATED);
+
+    private static byte[] encode() {
+        return CatalogSnapshot.encode(List.of(BARE, DINOSAUR), List.of(NICK, PENELOPE), UPDATED);
+    }
+
+    @Test
+    void roundTripsRowsIncludingNulls(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("catalog.snapshot");
+        CatalogSnapshot.write(file, encode());
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+
+        assertEquals(UPDATED, snapshot.getCreatedAt());
+        assertEquals(List.of(DINOSAUR, BARE), snapshot.films());
+        assertEquals(List.of(PENELOPE, NICK), snapshot.actors());
+    }
+
+    @Test
+    void answersCatalogQueries() throws IOException {
+        CatalogSnapshot snapshot = CatalogSnapshot.wrap(encode());
+
+        assertEquals(BARE, snapshot.film(7).orElseThrow());
+        assertTrue(snapshot.film(3).isEmpty());
+        assertEquals(List.of(BARE, DINOSAUR), snapshot.filmsByIds(List.of(7, 3, 1)));
+        assertEquals(List.of(BARE), snapshot.searchByTitle("sierra"));
+        assertEquals(List.of(DINOSAUR), snapshot.filmsByRating("PG"));
+        assertEquals(List.of(DINOSAUR), snapshot.filmsByReleaseYear(2006));
+        assertEquals(List.of(BARE), snapshot.filmsByRentalRateRange(new BigDecimal("2.00"), new BigDecimal("5.00")));
+        assertEquals(List.of(DINOSAUR), snapshot.longFilms(80));
+        assertEquals(NICK, snapshot.actor(2).orElseThrow());
+        assertEquals(List.of(NICK), snapshot.actorsByIds(List.of(2, 9)));
+    }
+
+    @Test
+    void rejectsDamagedOrNewerFiles() {
+        byte[] corrupt = encode();
+        corrupt[corrupt.length - 1] ^= 1;
+        assertThrows(IOException.class, () -> CatalogSnapshot.wrap(corrupt));
+
+        byte[] newer = encode();
+        newer[5] = (byte) (CatalogSnapshot.FORMAT_VERSION + 1);
+        assertThrows(IOException.class, () -> CatalogSnapshot.wrap(newer));
+    }
+}